@@ -0,0 +1,83 @@
+package com.fittrackpro.app;
+
+import android.content.Context;
+
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.repository.AuthRepository;
+import com.fittrackpro.app.data.repository.NutritionRepository;
+import com.fittrackpro.app.data.repository.SocialRepository;
+import com.fittrackpro.app.data.repository.UserRepository;
+import com.fittrackpro.app.data.repository.WorkoutRepository;
+import com.fittrackpro.app.util.Constants;
+
+/**
+ * AppContainer owns the application-scoped repository instances.
+ *
+ * Repositories are created lazily on first use and shared by every ViewModel and
+ * Fragment, so in-memory state survives navigation between screens.
+ */
+public class AppContainer {
+
+    private final Context context;
+    private final AppDatabase database;
+
+    private AuthRepository authRepository;
+    private UserRepository userRepository;
+    private WorkoutRepository workoutRepository;
+    private NutritionRepository nutritionRepository;
+    private SocialRepository socialRepository;
+
+    AppContainer(Context context) {
+        this.context = context.getApplicationContext();
+        this.database = AppDatabase.getInstance(this.context);
+    }
+
+    /**
+     * Container owned by the running {@link FitTrackApplication}
+     */
+    public static AppContainer from(Context context) {
+        return ((FitTrackApplication) context.getApplicationContext()).getAppContainer();
+    }
+
+    public AppDatabase getDatabase() {
+        return database;
+    }
+
+    public synchronized AuthRepository getAuthRepository() {
+        if (authRepository == null) {
+            authRepository = new AuthRepository();
+        }
+        return authRepository;
+    }
+
+    public synchronized UserRepository getUserRepository() {
+        if (userRepository == null) {
+            userRepository = new UserRepository(database, context);
+        }
+        return userRepository;
+    }
+
+    public synchronized WorkoutRepository getWorkoutRepository() {
+        if (workoutRepository == null) {
+            workoutRepository = new WorkoutRepository(database);
+            workoutRepository.setOneRepMaxFormula(context
+                    .getSharedPreferences(Constants.PREF_NAME, Context.MODE_PRIVATE)
+                    .getString(Constants.PREF_E1RM_FORMULA, Constants.DEFAULT_E1RM_FORMULA));
+        }
+        return workoutRepository;
+    }
+
+    public synchronized NutritionRepository getNutritionRepository() {
+        if (nutritionRepository == null) {
+            nutritionRepository = new NutritionRepository(database, context);
+        }
+        return nutritionRepository;
+    }
+
+    public synchronized SocialRepository getSocialRepository() {
+        if (socialRepository == null) {
+            socialRepository = new SocialRepository(database, context, getUserRepository());
+        }
+        return socialRepository;
+    }
+}
@@ -3,8 +3,12 @@ package com.fittrackpro.app;
 import android.app.Application;
 import android.content.SharedPreferences;
 
+import com.fittrackpro.app.data.local.RoomObjectCache;
 import com.fittrackpro.app.data.repository.PresetProgramSeeder;
 import com.fittrackpro.app.sync.SyncManager;
+import com.fittrackpro.app.util.AppExecutors;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.SingleFlight;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -16,6 +20,8 @@ import com.google.firebase.firestore.FirebaseFirestoreSettings;
  */
 public class FitTrackApplication extends Application {
 
+    private AppContainer appContainer;
+
     @Override
     public void onCreate() {
         super.onCreate();
@@ -28,23 +34,51 @@ public class FitTrackApplication extends Application {
                 .build();
         firestore.setFirestoreSettings(settings);
 
+        // Application-scoped repositories
+        appContainer = new AppContainer(this);
+
         // Seed preset programs on first launch
         seedPresetProgramsIfNeeded();
 
         // Initialize sync on app start if user is logged in
         String userId = getCurrentUserId();
-        if (userId != null) {
+        if (userId != null && SyncManager.getInstance(this).isAccountDeletionPending(userId)) {
+            // Being erased: make sure the deletion is still queued and schedule nothing else
+            SyncManager.getInstance(this).deleteAccount(userId);
+        } else if (userId != null) {
             SyncManager.getInstance(this).schedulePeriodicSync(userId);
+            SyncManager.getInstance(this).scheduleReconciliation(userId);
+            SyncManager.getInstance(this).scheduleLeaderboardSnapshots();
+            reaggregateHistoryIfNeeded(userId);
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // App moved to background - export thread pool, query coalescing and object cache metrics
+        if (level == TRIM_MEMORY_UI_HIDDEN) {
+            AppExecutors.getInstance().logStats();
+            SingleFlight.getInstance().logStats();
+            RoomObjectCache.logAllStats();
+        }
+        // Cached rows can be re-read from Room; give the memory back first
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            RoomObjectCache.evictAll();
         }
     }
 
+    public AppContainer getAppContainer() {
+        return appContainer;
+    }
+
     private void seedPresetProgramsIfNeeded() {
         SharedPreferences prefs = getSharedPreferences("app_prefs", MODE_PRIVATE);
         boolean hasSeeded = prefs.getBoolean("preset_programs_seeded", false);
 
         if (!hasSeeded) {
             // Seed preset programs
-            PresetProgramSeeder seeder = new PresetProgramSeeder();
+            PresetProgramSeeder seeder = new PresetProgramSeeder(appContainer.getDatabase());
             seeder.seedPresetPrograms();
 
             // Mark as seeded
@@ -52,6 +86,21 @@ public class FitTrackApplication extends Application {
         }
     }
 
+    /**
+     * Rebuild the heatmap and daily rollups of stored history once after the exercise library
+     * starts recognising more exercises
+     */
+    private void reaggregateHistoryIfNeeded(String userId) {
+        SharedPreferences prefs = getSharedPreferences("app_prefs", MODE_PRIVATE);
+        String key = "exercise_library_version_" + userId;
+        if (prefs.getInt(key, 1) >= Constants.EXERCISE_LIBRARY_VERSION) return;
+
+        AppExecutors.getInstance().diskIO().execute(() -> {
+            appContainer.getWorkoutRepository().refreshAllHistorySync(userId);
+            prefs.edit().putInt(key, Constants.EXERCISE_LIBRARY_VERSION).apply();
+        });
+    }
+
     private String getCurrentUserId() {
         FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
         return user != null ? user.getUid() : null;
@@ -16,9 +16,21 @@ import com.fittrackpro.app.data.local. entity.*;
                 CompletedWorkoutEntity.class,
                 PersonalRecordEntity.class,
                 FoodEntity.class,
-                MealLoggedEntity.class
+                MealLoggedEntity.class,
+                TombstoneEntity.class,
+                FetchTimestampEntity.class,
+                NutritionProfileEntity.class,
+                NutritionProfileHistoryEntity.class,
+                LeaderboardEntryEntity.class,
+                LeaderboardHistogramEntity.class,
+                CatalogVersionEntity.class,
+                WorkoutSetEntity.class,
+                ExerciseDailyStatsEntity.class,
+                StreakDayEntity.class,
+                StreakEntity.class,
+                MuscleWeekStatsEntity.class
         },
-        version = 2,
+        version = 14,
         exportSchema = false
 )
 @TypeConverters({Converters.class})
@@ -32,6 +44,15 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract PersonalRecordDao personalRecordDao();
     public abstract FoodDao foodDao();
     public abstract MealLoggedDao mealLoggedDao();
+    public abstract TombstoneDao tombstoneDao();
+    public abstract FetchTimestampDao fetchTimestampDao();
+    public abstract NutritionProfileDao nutritionProfileDao();
+    public abstract LeaderboardDao leaderboardDao();
+    public abstract CatalogVersionDao catalogVersionDao();
+    public abstract WorkoutSetDao workoutSetDao();
+    public abstract ExerciseDailyStatsDao exerciseDailyStatsDao();
+    public abstract StreakDao streakDao();
+    public abstract MuscleWeekStatsDao muscleWeekStatsDao();
 
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
@@ -0,0 +1,162 @@
+package com.fittrackpro.app.data.local;
+
+import android.util.Log;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+import androidx.room.InvalidationTracker;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RoomObjectCache keeps recently read rows (or the models mapped from them) in memory,
+ * keyed by ID, so repeated single-row lookups skip the query and the mapping.
+ *
+ * The cache is bounded by an estimated size in bytes and evicts least recently used
+ * entries. Room's invalidation tracker clears it whenever one of the backing tables
+ * changes; a load that raced with such a change is returned but not cached.
+ * Absent rows are cached as well, so repeated misses do not hit the database either.
+ *
+ * Cached values are shared between callers and must be treated as read-only.
+ *
+ * @param <K> key type, usually the entity ID
+ * @param <V> cached value type
+ */
+public class RoomObjectCache<K, V> {
+
+    private static final String TAG = "RoomObjectCache";
+    private static final int ABSENT_SIZE = 16;
+
+    private static final List<RoomObjectCache<?, ?>> INSTANCES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final LruCache<K, Entry<V>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RoomObjectCache(String name, AppDatabase database, int maxBytes, Sizer<V> sizer, String... tables) {
+        this.name = name;
+        this.cache = new LruCache<K, Entry<V>>(maxBytes) {
+            @Override
+            protected int sizeOf(@NonNull K key, @NonNull Entry<V> entry) {
+                return entry.value != null ? sizer.sizeOf(entry.value) : ABSENT_SIZE;
+            }
+        };
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> changedTables) {
+                invalidateAll();
+            }
+        });
+        INSTANCES.add(this);
+    }
+
+    /**
+     * Cached value for the key, loading and caching it on a miss
+     */
+    @WorkerThread
+    public V get(K key, Loader<K, V> loader) {
+        Entry<V> entry = cache.get(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+
+        misses.incrementAndGet();
+        long generation = invalidations.get();
+        V value = loader.load(key);
+        synchronized (this) {
+            // Only cache if no table change landed while the row was being read
+            if (generation == invalidations.get()) {
+                cache.put(key, new Entry<>(value));
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        synchronized (this) {
+            invalidations.incrementAndGet();
+            cache.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            invalidations.incrementAndGet();
+            cache.evictAll();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Write hit rate and occupancy to logcat
+     */
+    public void logStats() {
+        Log.i(TAG, String.format(Locale.US, "%s hits=%d misses=%d hitRate=%.2f size=%d/%d bytes evictions=%d",
+                name, hits.get(), misses.get(), getHitRate(), cache.size(), cache.maxSize(),
+                cache.evictionCount()));
+    }
+
+    /**
+     * Write metrics for every cache to logcat
+     */
+    public static void logAllStats() {
+        for (RoomObjectCache<?, ?> instance : INSTANCES) {
+            instance.logStats();
+        }
+    }
+
+    /**
+     * Drop every cached entry, e.g. when the system asks the app to trim memory
+     */
+    public static void evictAll() {
+        for (RoomObjectCache<?, ?> instance : INSTANCES) {
+            instance.invalidateAll();
+        }
+    }
+
+    /**
+     * Approximate bytes held by a few strings, for {@link Sizer} implementations
+     */
+    public static int stringBytes(String... values) {
+        int bytes = 0;
+        for (String value : values) {
+            if (value != null) bytes += 40 + 2 * value.length();
+        }
+        return bytes;
+    }
+
+    private static class Entry<V> {
+        final V value;
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    public interface Loader<K, V> {
+        V load(K key);
+    }
+
+    public interface Sizer<V> {
+        int sizeOf(V value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.CatalogVersionEntity;
+
+@Dao
+public interface CatalogVersionDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(CatalogVersionEntity catalogVersion);
+
+    @Query("SELECT version FROM catalog_versions WHERE catalogId = :catalogId")
+    Long getVersion(String catalogId);
+
+    @Query("DELETE FROM catalog_versions")
+    void deleteAll();
+}
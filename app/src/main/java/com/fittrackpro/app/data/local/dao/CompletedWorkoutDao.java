@@ -3,6 +3,7 @@ package com.fittrackpro.app.data. local.dao;
 import androidx. lifecycle.LiveData;
 import androidx.room.*;
 import com.fittrackpro.app.data.local.entity.CompletedWorkoutEntity;
+import com.fittrackpro.app.data.model.WorkoutPeriodStats;
 import java. util.List;
 
 @Dao
@@ -17,6 +18,25 @@ public interface CompletedWorkoutDao {
     @Query("SELECT * FROM completed_workouts WHERE userId = :userId AND synced = 0")
     List<CompletedWorkoutEntity> getUnsyncedWorkouts(String userId);
 
+    @Query("SELECT * FROM completed_workouts WHERE userId = :userId")
+    List<CompletedWorkoutEntity> getAllWorkoutsSync(String userId);
+
+    @Query("SELECT * FROM completed_workouts WHERE userId = :userId AND startTime >= :start AND startTime < :end")
+    List<CompletedWorkoutEntity> getWorkoutsInRange(String userId, long start, long end);
+
+    /**
+     * Count, duration and volume of workouts started in [start, end), from the (userId, startTime) index
+     */
+    @Query("SELECT COUNT(*) AS workoutCount, COALESCE(SUM(durationSeconds), 0) AS totalDurationSeconds, " +
+            "COALESCE(SUM(totalVolume), 0) AS totalVolume FROM completed_workouts " +
+            "WHERE userId = :userId AND startTime >= :start AND startTime < :end")
+    LiveData<WorkoutPeriodStats> getPeriodStats(String userId, long start, long end);
+
+    @Query("SELECT COUNT(*) AS workoutCount, COALESCE(SUM(durationSeconds), 0) AS totalDurationSeconds, " +
+            "COALESCE(SUM(totalVolume), 0) AS totalVolume FROM completed_workouts " +
+            "WHERE userId = :userId AND startTime >= :start AND startTime < :end")
+    WorkoutPeriodStats getPeriodStatsSync(String userId, long start, long end);
+
     @Query("SELECT SUM(totalVolume) FROM completed_workouts WHERE userId = :userId")
     LiveData<Double> getTotalVolume(String userId);
 
@@ -26,6 +46,15 @@ public interface CompletedWorkoutDao {
     @Update
     void updateWorkout(CompletedWorkoutEntity workout);
 
+    @Query("UPDATE completed_workouts SET synced = 0, syncError = :error WHERE workoutId = :workoutId")
+    void markUnsynced(String workoutId, String error);
+
+    @Query("SELECT * FROM completed_workouts WHERE workoutId = :workoutId")
+    CompletedWorkoutEntity getWorkoutByIdSync(String workoutId);
+
     @Delete
     void deleteWorkout(CompletedWorkoutEntity workout);
+
+    @Query("DELETE FROM completed_workouts WHERE workoutId = :workoutId")
+    void deleteWorkoutById(String workoutId);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.ExerciseDailyStatsEntity;
+import java.util.List;
+
+@Dao
+public interface ExerciseDailyStatsDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(List<ExerciseDailyStatsEntity> stats);
+
+    @Query("SELECT * FROM exercise_daily_stats WHERE userId = :userId AND exerciseName = :exerciseName ORDER BY dayStart")
+    LiveData<List<ExerciseDailyStatsEntity>> getSeries(String userId, String exerciseName);
+
+    @Query("DELETE FROM exercise_daily_stats WHERE userId = :userId AND dayStart IN (:dayStarts)")
+    void deleteDays(String userId, List<Long> dayStarts);
+}
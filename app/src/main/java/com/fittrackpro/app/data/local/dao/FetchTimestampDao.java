@@ -0,0 +1,23 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.FetchTimestampEntity;
+
+@Dao
+public interface FetchTimestampDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(FetchTimestampEntity timestamp);
+
+    @Query("SELECT fetchedAt FROM fetch_timestamps WHERE resourceKey = :resourceKey")
+    Long getFetchedAt(String resourceKey);
+
+    @Query("DELETE FROM fetch_timestamps WHERE resourceKey = :resourceKey")
+    void invalidate(String resourceKey);
+
+    @Query("DELETE FROM fetch_timestamps WHERE resourceKey LIKE :prefix || '%'")
+    void invalidatePrefix(String prefix);
+
+    @Query("DELETE FROM fetch_timestamps")
+    void deleteAll();
+}
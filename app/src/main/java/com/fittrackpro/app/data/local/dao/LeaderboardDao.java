@@ -0,0 +1,41 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.LeaderboardEntryEntity;
+import com.fittrackpro.app.data.local.entity.LeaderboardHistogramEntity;
+import java.util.List;
+
+@Dao
+public interface LeaderboardDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertEntries(List<LeaderboardEntryEntity> entries);
+
+    @Query("SELECT * FROM leaderboard_entries WHERE boardKey = :boardKey ORDER BY rank ASC")
+    LiveData<List<LeaderboardEntryEntity>> getBoard(String boardKey);
+
+    @Query("SELECT * FROM leaderboard_entries WHERE boardKey = :boardKey ORDER BY rank ASC")
+    List<LeaderboardEntryEntity> getBoardSync(String boardKey);
+
+    @Query("SELECT MAX(version) FROM leaderboard_entries WHERE boardKey = :boardKey")
+    Long getBoardVersion(String boardKey);
+
+    @Query("DELETE FROM leaderboard_entries WHERE boardKey = :boardKey")
+    void deleteBoard(String boardKey);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertHistogram(List<LeaderboardHistogramEntity> buckets);
+
+    @Query("SELECT * FROM leaderboard_histograms WHERE boardKey = :boardKey ORDER BY lowerBound ASC")
+    List<LeaderboardHistogramEntity> getHistogramSync(String boardKey);
+
+    @Query("DELETE FROM leaderboard_histograms WHERE boardKey = :boardKey")
+    void deleteHistogram(String boardKey);
+
+    @Query("DELETE FROM leaderboard_entries")
+    void deleteAll();
+
+    @Query("DELETE FROM leaderboard_histograms")
+    void deleteAllHistograms();
+}
@@ -14,15 +14,33 @@ public interface MealLoggedDao {
     @Query("SELECT * FROM meals_logged WHERE userId = :userId AND DATE(loggedAt/1000, 'unixepoch', 'localtime') = DATE(:date/1000, 'unixepoch', 'localtime') ORDER BY loggedAt DESC")
     LiveData<List<MealLoggedEntity>> getMealsForDate(String userId, long date);
 
+    @Query("SELECT * FROM meals_logged WHERE userId = :userId AND loggedAt >= :since ORDER BY loggedAt ASC")
+    LiveData<List<MealLoggedEntity>> getMealsSince(String userId, long since);
+
+    @Query("SELECT * FROM meals_logged WHERE userId = :userId AND mealType = :mealType AND loggedAt >= :since ORDER BY loggedAt ASC")
+    LiveData<List<MealLoggedEntity>> getMealsByTypeSince(String userId, String mealType, long since);
+
     @Query("SELECT * FROM meals_logged WHERE userId = :userId AND synced = 0")
     List<MealLoggedEntity> getUnsyncedMeals(String userId);
 
+    @Query("SELECT * FROM meals_logged WHERE userId = :userId")
+    List<MealLoggedEntity> getAllMealsSync(String userId);
+
+    @Query("SELECT * FROM meals_logged WHERE userId = :userId AND loggedAt >= :start AND loggedAt < :end")
+    List<MealLoggedEntity> getMealsInRange(String userId, long start, long end);
+
     @Query("SELECT SUM(calories) FROM meals_logged WHERE userId = :userId AND DATE(loggedAt/1000, 'unixepoch', 'localtime') = DATE(:date/1000, 'unixepoch', 'localtime')")
     LiveData<Double> getTotalCaloriesForDate(String userId, long date);
 
     @Update
     void updateMeal(MealLoggedEntity meal);
 
+    @Query("SELECT * FROM meals_logged WHERE logId = :logId")
+    MealLoggedEntity getMealByIdSync(String logId);
+
     @Delete
     void deleteMeal(MealLoggedEntity meal);
+
+    @Query("DELETE FROM meals_logged WHERE logId = :logId")
+    void deleteMealById(String logId);
 }
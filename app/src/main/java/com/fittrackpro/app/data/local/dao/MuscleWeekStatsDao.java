@@ -0,0 +1,19 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.MuscleWeekStatsEntity;
+import java.util.List;
+
+@Dao
+public interface MuscleWeekStatsDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(List<MuscleWeekStatsEntity> stats);
+
+    @Query("DELETE FROM muscle_week_stats WHERE userId = :userId AND weekStart = :weekStart")
+    void deleteWeek(String userId, long weekStart);
+
+    @Query("SELECT * FROM muscle_week_stats WHERE userId = :userId AND weekStart >= :fromWeekStart")
+    LiveData<List<MuscleWeekStatsEntity>> getWeeksSince(String userId, long fromWeekStart);
+}
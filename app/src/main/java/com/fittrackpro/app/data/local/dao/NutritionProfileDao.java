@@ -0,0 +1,42 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.NutritionProfileEntity;
+import com.fittrackpro.app.data.local.entity.NutritionProfileHistoryEntity;
+import java.util.List;
+
+@Dao
+public interface NutritionProfileDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertProfile(NutritionProfileEntity profile);
+
+    @Query("SELECT * FROM nutrition_profiles WHERE userId = :userId")
+    LiveData<NutritionProfileEntity> getProfile(String userId);
+
+    @Query("SELECT * FROM nutrition_profiles WHERE userId = :userId")
+    NutritionProfileEntity getProfileSync(String userId);
+
+    @Update
+    void updateProfile(NutritionProfileEntity profile);
+
+    @Query("SELECT * FROM nutrition_profiles WHERE userId = :userId AND synced = 0")
+    List<NutritionProfileEntity> getUnsyncedProfiles(String userId);
+
+    @Query("UPDATE nutrition_profiles SET synced = 1, syncError = NULL, lastSyncAttempt = :syncedAt " +
+            "WHERE userId = :userId AND version = :version")
+    void markProfileSynced(String userId, int version, long syncedAt);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertHistory(NutritionProfileHistoryEntity history);
+
+    @Query("SELECT * FROM nutrition_profile_history WHERE userId = :userId ORDER BY version DESC")
+    LiveData<List<NutritionProfileHistoryEntity>> getHistory(String userId);
+
+    @Query("SELECT * FROM nutrition_profile_history WHERE userId = :userId AND synced = 0 ORDER BY version ASC")
+    List<NutritionProfileHistoryEntity> getUnsyncedHistory(String userId);
+
+    @Update
+    void updateHistory(List<NutritionProfileHistoryEntity> history);
+}
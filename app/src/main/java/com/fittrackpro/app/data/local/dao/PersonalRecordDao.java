@@ -17,9 +17,27 @@ public interface PersonalRecordDao {
     @Query("SELECT * FROM personal_records WHERE userId = :userId AND exerciseName = :exerciseName AND recordType = :recordType ORDER BY value DESC LIMIT 1")
     PersonalRecordEntity getBestRecord(String userId, String exerciseName, String recordType);
 
+    @Query("SELECT * FROM personal_records WHERE userId = :userId")
+    List<PersonalRecordEntity> getAllRecordsSync(String userId);
+
+    @Query("SELECT * FROM personal_records WHERE userId = :userId AND achievedAt >= :start AND achievedAt < :end")
+    List<PersonalRecordEntity> getRecordsInRange(String userId, long start, long end);
+
+    @Query("SELECT * FROM personal_records WHERE recordId = :recordId")
+    PersonalRecordEntity getRecordByIdSync(String recordId);
+
     @Delete
     void deleteRecord(PersonalRecordEntity record);
 
+    @Query("DELETE FROM personal_records WHERE recordId = :recordId")
+    void deleteRecordById(String recordId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertRecords(List<PersonalRecordEntity> records);
+
+    @Query("DELETE FROM personal_records WHERE userId = :userId")
+    void deleteAllRecords(String userId);
+
     @Query("SELECT * FROM personal_records WHERE synced = 0")
     List<PersonalRecordEntity> getUnsyncedRecords();
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.StreakDayEntity;
+import com.fittrackpro.app.data.local.entity.StreakEntity;
+import java.util.List;
+
+@Dao
+public interface StreakDao {
+
+    /**
+     * @return row ID, or -1 if the workout was already tracked
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertDay(StreakDayEntity day);
+
+    @Query("SELECT * FROM streak_days WHERE workoutId = :workoutId")
+    StreakDayEntity getDay(String workoutId);
+
+    @Query("DELETE FROM streak_days WHERE workoutId = :workoutId")
+    void deleteDay(String workoutId);
+
+    @Query("SELECT EXISTS(SELECT 1 FROM streak_days WHERE userId = :userId AND epochDay = :epochDay)")
+    boolean hasDay(String userId, long epochDay);
+
+    @Query("SELECT MAX(epochDay) FROM streak_days WHERE userId = :userId AND epochDay < :epochDay")
+    Long getLatestDayBefore(String userId, long epochDay);
+
+    @Query("SELECT DISTINCT epochDay FROM streak_days WHERE userId = :userId ORDER BY epochDay")
+    List<Long> getDays(String userId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertStreak(StreakEntity streak);
+
+    @Query("SELECT * FROM streaks WHERE userId = :userId")
+    StreakEntity getStreakSync(String userId);
+
+    @Query("SELECT * FROM streaks WHERE userId = :userId")
+    LiveData<StreakEntity> getStreak(String userId);
+}
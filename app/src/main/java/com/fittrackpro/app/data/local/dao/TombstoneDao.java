@@ -0,0 +1,27 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.TombstoneEntity;
+import java.util.List;
+
+@Dao
+public interface TombstoneDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertTombstone(TombstoneEntity tombstone);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertTombstones(List<TombstoneEntity> tombstones);
+
+    @Query("SELECT * FROM tombstones WHERE userId = :userId AND synced = 0 ORDER BY deletedAt ASC")
+    List<TombstoneEntity> getUnsyncedTombstones(String userId);
+
+    @Query("SELECT documentId FROM tombstones WHERE collection = :collection")
+    List<String> getDeletedIds(String collection);
+
+    @Update
+    void updateTombstones(List<TombstoneEntity> tombstones);
+
+    @Query("DELETE FROM tombstones WHERE synced = 1 AND acknowledgedAt < :cutoff")
+    int deleteAcknowledgedBefore(long cutoff);
+}
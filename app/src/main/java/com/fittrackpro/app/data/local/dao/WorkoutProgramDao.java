@@ -17,18 +17,30 @@ public interface WorkoutProgramDao {
     @Query("SELECT * FROM workout_programs WHERE userId = :userId AND isActive = 1")
     LiveData<List<WorkoutProgramEntity>> getActivePrograms(String userId);
 
+    @Query("SELECT * FROM workout_programs WHERE userId = :userId AND isActive = 1")
+    List<WorkoutProgramEntity> getActiveProgramsSync(String userId);
+
     @Query("SELECT * FROM workout_programs WHERE isPreset = 1")
     LiveData<List<WorkoutProgramEntity>> getPresetPrograms();
 
+    @Query("DELETE FROM workout_programs WHERE isPreset = 1")
+    void deletePresetPrograms();
+
     @Query("SELECT * FROM workout_programs WHERE programId = :programId")
     LiveData<WorkoutProgramEntity> getProgramById(String programId);
 
     @Update
     void updateProgram(WorkoutProgramEntity program);
 
+    @Query("SELECT * FROM workout_programs WHERE programId = :programId")
+    WorkoutProgramEntity getProgramByIdSync(String programId);
+
     @Delete
     void deleteProgram(WorkoutProgramEntity program);
 
+    @Query("DELETE FROM workout_programs WHERE programId = :programId")
+    void deleteProgramById(String programId);
+
     @Query("DELETE FROM workout_programs WHERE userId = :userId")
     void deleteUserPrograms(String userId);
 
@@ -0,0 +1,36 @@
+package com.fittrackpro.app.data.local.dao;
+
+import androidx.room.*;
+import com.fittrackpro.app.data.local.entity.WorkoutSetEntity;
+import java.util.List;
+
+@Dao
+public interface WorkoutSetDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertSets(List<WorkoutSetEntity> sets);
+
+    /**
+     * Next page of completed sets in chronological order, continuing after (performedAt, setId)
+     */
+    @Query("SELECT * FROM workout_sets WHERE userId = :userId AND status IN ('completed', 'modified') " +
+            "AND (performedAt > :afterTime OR (performedAt = :afterTime AND setId > :afterSetId)) " +
+            "ORDER BY performedAt, setId LIMIT :limit")
+    List<WorkoutSetEntity> getCompletedSetsAfter(String userId, long afterTime, String afterSetId, int limit);
+
+    @Query("SELECT * FROM workout_sets WHERE userId = :userId AND status IN ('completed', 'modified') " +
+            "AND performedAt >= :start AND performedAt < :end")
+    List<WorkoutSetEntity> getCompletedSetsInRange(String userId, long start, long end);
+
+    @Query("SELECT COUNT(*) FROM workout_sets WHERE userId = :userId AND status IN ('completed', 'modified')")
+    int countCompletedSets(String userId);
+
+    @Query("SELECT DISTINCT performedAt FROM workout_sets WHERE userId = :userId ORDER BY performedAt")
+    List<Long> getPerformedAts(String userId);
+
+    @Query("SELECT DISTINCT workoutId FROM workout_sets WHERE userId = :userId")
+    List<String> getWorkoutIds(String userId);
+
+    @Query("DELETE FROM workout_sets WHERE workoutId = :workoutId")
+    void deleteSetsForWorkout(String workoutId);
+}
@@ -0,0 +1,35 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Version of a shared catalog (e.g. preset programs) held in Room, compared with the
+ * remote manifest to decide whether the catalog needs downloading again.
+ */
+@Entity(tableName = "catalog_versions")
+public class CatalogVersionEntity {
+    @PrimaryKey
+    @NonNull
+    private String catalogId;
+    private long version;
+    private long updatedAt;
+
+    public CatalogVersionEntity(@NonNull String catalogId, long version, long updatedAt) {
+        this.catalogId = catalogId;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and setters
+    @NonNull
+    public String getCatalogId() { return catalogId; }
+    public void setCatalogId(@NonNull String catalogId) { this.catalogId = catalogId; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,10 +1,11 @@
 package com.fittrackpro.app.data.local.entity;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.annotation.NonNull;
 
-@Entity(tableName = "completed_workouts")
+@Entity(tableName = "completed_workouts", indices = {@Index(value = {"userId", "startTime"})})
 public class CompletedWorkoutEntity {
     @PrimaryKey
     @NonNull
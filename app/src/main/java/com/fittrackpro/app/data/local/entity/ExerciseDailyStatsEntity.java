@@ -0,0 +1,48 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.annotation.NonNull;
+
+/**
+ * Precomputed per-exercise, per-day summary of logged sets, backing progression charts
+ */
+@Entity(tableName = "exercise_daily_stats", primaryKeys = {"userId", "exerciseName", "dayStart"})
+public class ExerciseDailyStatsEntity {
+    @NonNull
+    private String userId = "";
+    @NonNull
+    private String exerciseName = "";
+    private long dayStart;
+    private double topWeight;
+    private int topWeightReps;
+    private double e1rm;
+    private double volume;
+    private int setCount;
+
+    // Getters and setters
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+
+    @NonNull
+    public String getExerciseName() { return exerciseName; }
+    public void setExerciseName(@NonNull String exerciseName) { this.exerciseName = exerciseName; }
+
+    public long getDayStart() { return dayStart; }
+    public void setDayStart(long dayStart) { this.dayStart = dayStart; }
+
+    public double getTopWeight() { return topWeight; }
+    public void setTopWeight(double topWeight) { this.topWeight = topWeight; }
+
+    public int getTopWeightReps() { return topWeightReps; }
+    public void setTopWeightReps(int topWeightReps) { this.topWeightReps = topWeightReps; }
+
+    public double getE1rm() { return e1rm; }
+    public void setE1rm(double e1rm) { this.e1rm = e1rm; }
+
+    public double getVolume() { return volume; }
+    public void setVolume(double volume) { this.volume = volume; }
+
+    public int getSetCount() { return setCount; }
+    public void setSetCount(int setCount) { this.setCount = setCount; }
+}
@@ -0,0 +1,30 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Last successful remote fetch per cached resource, used to decide when
+ * a Room-cached value is stale and needs revalidating.
+ */
+@Entity(tableName = "fetch_timestamps")
+public class FetchTimestampEntity {
+    @PrimaryKey
+    @NonNull
+    private String resourceKey;
+    private long fetchedAt;
+
+    public FetchTimestampEntity(@NonNull String resourceKey, long fetchedAt) {
+        this.resourceKey = resourceKey;
+        this.fetchedAt = fetchedAt;
+    }
+
+    // Getters and setters
+    @NonNull
+    public String getResourceKey() { return resourceKey; }
+    public void setResourceKey(@NonNull String resourceKey) { this.resourceKey = resourceKey; }
+
+    public long getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(long fetchedAt) { this.fetchedAt = fetchedAt; }
+}
@@ -0,0 +1,46 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.annotation.NonNull;
+
+/**
+ * Cached leaderboard row. Each board (global, a user's friends, ...) is stored
+ * under its own boardKey and replaced as a whole when refreshed; version is the
+ * time the board was materialized.
+ */
+@Entity(tableName = "leaderboard_entries", primaryKeys = {"boardKey", "userId"})
+public class LeaderboardEntryEntity {
+    @NonNull
+    private String boardKey = "";
+    @NonNull
+    private String userId = "";
+    private String username;
+    private String displayName;
+    private double totalVolume;
+    private int rank;
+    private long version;
+
+    // Getters and setters
+    @NonNull
+    public String getBoardKey() { return boardKey; }
+    public void setBoardKey(@NonNull String boardKey) { this.boardKey = boardKey; }
+
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+
+    public double getTotalVolume() { return totalVolume; }
+    public void setTotalVolume(double totalVolume) { this.totalVolume = totalVolume; }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,31 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.annotation.NonNull;
+
+/**
+ * One bucket of a leaderboard score histogram: how many users score at or above
+ * lowerBound. Used to estimate rank for users outside the materialized top entries.
+ */
+@Entity(tableName = "leaderboard_histograms", primaryKeys = {"boardKey", "lowerBound"})
+public class LeaderboardHistogramEntity {
+    @NonNull
+    private String boardKey = "";
+    private double lowerBound;
+    private long countAtOrAbove;
+    private long version;
+
+    // Getters and setters
+    @NonNull
+    public String getBoardKey() { return boardKey; }
+    public void setBoardKey(@NonNull String boardKey) { this.boardKey = boardKey; }
+
+    public double getLowerBound() { return lowerBound; }
+    public void setLowerBound(double lowerBound) { this.lowerBound = lowerBound; }
+
+    public long getCountAtOrAbove() { return countAtOrAbove; }
+    public void setCountAtOrAbove(long countAtOrAbove) { this.countAtOrAbove = countAtOrAbove; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,36 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.annotation.NonNull;
+
+/**
+ * Weighted sets and volume for one muscle group in one ISO week, backing the muscle heatmap
+ */
+@Entity(tableName = "muscle_week_stats", primaryKeys = {"userId", "muscleGroup", "weekStart"})
+public class MuscleWeekStatsEntity {
+    @NonNull
+    private String userId = "";
+    @NonNull
+    private String muscleGroup = "";
+    private long weekStart;
+    private double sets;
+    private double volume;
+
+    // Getters and setters
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+
+    @NonNull
+    public String getMuscleGroup() { return muscleGroup; }
+    public void setMuscleGroup(@NonNull String muscleGroup) { this.muscleGroup = muscleGroup; }
+
+    public long getWeekStart() { return weekStart; }
+    public void setWeekStart(long weekStart) { this.weekStart = weekStart; }
+
+    public double getSets() { return sets; }
+    public void setSets(double sets) { this.sets = sets; }
+
+    public double getVolume() { return volume; }
+    public void setVolume(double volume) { this.volume = volume; }
+}
@@ -0,0 +1,97 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Current nutrition profile, one row per user (keyed by userId).
+ * Computed targets are stored so reads never recompute them.
+ */
+@Entity(tableName = "nutrition_profiles")
+public class NutritionProfileEntity {
+    @PrimaryKey
+    @NonNull
+    private String userId;
+    private int version; // increments on every change
+    private double weight;
+    private double height;
+    private int age;
+    private String gender;
+    private String activityLevel;
+    private String goal;
+    private double bmr; // cached NutritionCalculator outputs
+    private double tdee;
+    private double targetCalories;
+    private double targetProtein;
+    private double targetCarbs;
+    private double targetFats;
+    private long createdAt;
+    private long updatedAt;
+    private boolean synced = false;
+    private long lastSyncAttempt = 0;
+    private int syncAttempts = 0;
+    private String syncError = null;
+
+    // Getters and setters
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public double getWeight() { return weight; }
+    public void setWeight(double weight) { this.weight = weight; }
+
+    public double getHeight() { return height; }
+    public void setHeight(double height) { this.height = height; }
+
+    public int getAge() { return age; }
+    public void setAge(int age) { this.age = age; }
+
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+
+    public String getActivityLevel() { return activityLevel; }
+    public void setActivityLevel(String activityLevel) { this.activityLevel = activityLevel; }
+
+    public String getGoal() { return goal; }
+    public void setGoal(String goal) { this.goal = goal; }
+
+    public double getBmr() { return bmr; }
+    public void setBmr(double bmr) { this.bmr = bmr; }
+
+    public double getTdee() { return tdee; }
+    public void setTdee(double tdee) { this.tdee = tdee; }
+
+    public double getTargetCalories() { return targetCalories; }
+    public void setTargetCalories(double targetCalories) { this.targetCalories = targetCalories; }
+
+    public double getTargetProtein() { return targetProtein; }
+    public void setTargetProtein(double targetProtein) { this.targetProtein = targetProtein; }
+
+    public double getTargetCarbs() { return targetCarbs; }
+    public void setTargetCarbs(double targetCarbs) { this.targetCarbs = targetCarbs; }
+
+    public double getTargetFats() { return targetFats; }
+    public void setTargetFats(double targetFats) { this.targetFats = targetFats; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isSynced() { return synced; }
+    public void setSynced(boolean synced) { this.synced = synced; }
+
+    public long getLastSyncAttempt() { return lastSyncAttempt; }
+    public void setLastSyncAttempt(long lastSyncAttempt) { this.lastSyncAttempt = lastSyncAttempt; }
+
+    public int getSyncAttempts() { return syncAttempts; }
+    public void setSyncAttempts(int syncAttempts) { this.syncAttempts = syncAttempts; }
+
+    public String getSyncError() { return syncError; }
+    public void setSyncError(String syncError) { this.syncError = syncError; }
+}
@@ -0,0 +1,39 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Local epoch day a completed workout counts toward, fixed when the workout is first tracked
+ */
+@Entity(tableName = "streak_days", indices = {@Index(value = {"userId", "epochDay"})})
+public class StreakDayEntity {
+    @PrimaryKey
+    @NonNull
+    private String workoutId;
+    private String userId;
+    private long epochDay;
+
+    public StreakDayEntity() {
+        this.workoutId = "";
+    }
+
+    public StreakDayEntity(@NonNull String workoutId, String userId, long epochDay) {
+        this.workoutId = workoutId;
+        this.userId = userId;
+        this.epochDay = epochDay;
+    }
+
+    // Getters and setters
+    @NonNull
+    public String getWorkoutId() { return workoutId; }
+    public void setWorkoutId(@NonNull String workoutId) { this.workoutId = workoutId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public long getEpochDay() { return epochDay; }
+    public void setEpochDay(long epochDay) { this.epochDay = epochDay; }
+}
@@ -0,0 +1,40 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Maintained streak of a user: the run of consecutive workout days ending at lastEpochDay
+ */
+@Entity(tableName = "streaks")
+public class StreakEntity {
+    @PrimaryKey
+    @NonNull
+    private String userId;
+    private int currentStreak;
+    private int longestStreak;
+    private long lastEpochDay;
+
+    public StreakEntity() {
+        this.userId = "";
+    }
+
+    public StreakEntity(@NonNull String userId) {
+        this.userId = userId;
+    }
+
+    // Getters and setters
+    @NonNull
+    public String getUserId() { return userId; }
+    public void setUserId(@NonNull String userId) { this.userId = userId; }
+
+    public int getCurrentStreak() { return currentStreak; }
+    public void setCurrentStreak(int currentStreak) { this.currentStreak = currentStreak; }
+
+    public int getLongestStreak() { return longestStreak; }
+    public void setLongestStreak(int longestStreak) { this.longestStreak = longestStreak; }
+
+    public long getLastEpochDay() { return lastEpochDay; }
+    public void setLastEpochDay(long lastEpochDay) { this.lastEpochDay = lastEpochDay; }
+}
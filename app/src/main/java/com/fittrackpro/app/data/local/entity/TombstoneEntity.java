@@ -0,0 +1,69 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Records a local delete so it can be propagated to Firestore and so that
+ * fetches don't bring the deleted document back.
+ *
+ * The primary key is "{collection}/{documentId}".
+ */
+@Entity(tableName = "tombstones")
+public class TombstoneEntity {
+    @PrimaryKey
+    @NonNull
+    private String tombstoneId;
+    private String collection;
+    private String documentId;
+    private String userId;
+    private long deletedAt;
+    private long acknowledgedAt = 0;
+    private boolean synced = false;
+    private long lastSyncAttempt = 0;
+    private int syncAttempts = 0;
+    private String syncError = null;
+
+    public static TombstoneEntity create(String collection, String documentId, String userId) {
+        TombstoneEntity tombstone = new TombstoneEntity();
+        tombstone.setTombstoneId(collection + "/" + documentId);
+        tombstone.setCollection(collection);
+        tombstone.setDocumentId(documentId);
+        tombstone.setUserId(userId);
+        tombstone.setDeletedAt(System.currentTimeMillis());
+        return tombstone;
+    }
+
+    // Getters and setters
+    @NonNull
+    public String getTombstoneId() { return tombstoneId; }
+    public void setTombstoneId(@NonNull String tombstoneId) { this.tombstoneId = tombstoneId; }
+
+    public String getCollection() { return collection; }
+    public void setCollection(String collection) { this.collection = collection; }
+
+    public String getDocumentId() { return documentId; }
+    public void setDocumentId(String documentId) { this.documentId = documentId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public long getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(long deletedAt) { this.deletedAt = deletedAt; }
+
+    public long getAcknowledgedAt() { return acknowledgedAt; }
+    public void setAcknowledgedAt(long acknowledgedAt) { this.acknowledgedAt = acknowledgedAt; }
+
+    public boolean isSynced() { return synced; }
+    public void setSynced(boolean synced) { this.synced = synced; }
+
+    public long getLastSyncAttempt() { return lastSyncAttempt; }
+    public void setLastSyncAttempt(long lastSyncAttempt) { this.lastSyncAttempt = lastSyncAttempt; }
+
+    public int getSyncAttempts() { return syncAttempts; }
+    public void setSyncAttempts(int syncAttempts) { this.syncAttempts = syncAttempts; }
+
+    public String getSyncError() { return syncError; }
+    public void setSyncError(String syncError) { this.syncError = syncError; }
+}
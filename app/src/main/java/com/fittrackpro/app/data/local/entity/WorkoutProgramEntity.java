@@ -18,6 +18,7 @@ public class WorkoutProgramEntity {
     private boolean isPreset;
     private boolean isActive;
     private String originalPresetId;
+    private boolean inheritsTemplate;
     private long createdAt;
     private long updatedAt;
     private boolean synced = false;
@@ -57,6 +58,9 @@ public class WorkoutProgramEntity {
     public String getOriginalPresetId() { return originalPresetId; }
     public void setOriginalPresetId(String originalPresetId) { this.originalPresetId = originalPresetId; }
 
+    public boolean isInheritsTemplate() { return inheritsTemplate; }
+    public void setInheritsTemplate(boolean inheritsTemplate) { this.inheritsTemplate = inheritsTemplate; }
+
     public long getCreatedAt() { return createdAt; }
     public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,54 @@
+package com.fittrackpro.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import androidx.annotation.NonNull;
+
+/**
+ * Local copy of a logged set, kept so personal records can be rebuilt from full history
+ */
+@Entity(tableName = "workout_sets",
+        indices = {@Index(value = {"userId", "performedAt", "setId"}), @Index("workoutId")})
+public class WorkoutSetEntity {
+    @PrimaryKey
+    @NonNull
+    private String setId;
+    private String workoutId;
+    private String userId;
+    private String exerciseName;
+    private int setNumber;
+    private double weight;
+    private int reps;
+    private String status;
+    private long performedAt;
+
+    // Getters and setters
+    @NonNull
+    public String getSetId() { return setId; }
+    public void setSetId(@NonNull String setId) { this.setId = setId; }
+
+    public String getWorkoutId() { return workoutId; }
+    public void setWorkoutId(String workoutId) { this.workoutId = workoutId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getExerciseName() { return exerciseName; }
+    public void setExerciseName(String exerciseName) { this.exerciseName = exerciseName; }
+
+    public int getSetNumber() { return setNumber; }
+    public void setSetNumber(int setNumber) { this.setNumber = setNumber; }
+
+    public double getWeight() { return weight; }
+    public void setWeight(double weight) { this.weight = weight; }
+
+    public int getReps() { return reps; }
+    public void setReps(int reps) { this.reps = reps; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getPerformedAt() { return performedAt; }
+    public void setPerformedAt(long performedAt) { this.performedAt = performedAt; }
+}
@@ -1,5 +1,8 @@
 package com.fittrackpro.app.data.model;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * ExerciseTemplate represents an exercise in the library with its basic info.
  */
@@ -7,15 +10,17 @@ public class ExerciseTemplate {
     private String name;
     private String muscleGroup; // "Chest", "Back", "Shoulders", "Legs", "Arms", "Core"
     private String equipment; // "Barbell", "Dumbbell", "Cable", "Machine", "Bodyweight"
+    private List<String> secondaryMuscles; // groups that also work, counted at a reduced weight
 
     public ExerciseTemplate() {
         // Required empty constructor
     }
 
-    public ExerciseTemplate(String name, String muscleGroup, String equipment) {
+    public ExerciseTemplate(String name, String muscleGroup, String equipment, String... secondaryMuscles) {
         this.name = name;
         this.muscleGroup = muscleGroup;
         this.equipment = equipment;
+        this.secondaryMuscles = Arrays.asList(secondaryMuscles);
     }
 
     // Getters and setters
@@ -27,4 +32,7 @@ public class ExerciseTemplate {
 
     public String getEquipment() { return equipment; }
     public void setEquipment(String equipment) { this.equipment = equipment; }
+
+    public List<String> getSecondaryMuscles() { return secondaryMuscles; }
+    public void setSecondaryMuscles(List<String> secondaryMuscles) { this.secondaryMuscles = secondaryMuscles; }
 }
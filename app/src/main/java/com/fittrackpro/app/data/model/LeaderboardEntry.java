@@ -7,6 +7,7 @@ public class LeaderboardEntry {
     private double totalVolume;
     private int rank;
     private boolean isCurrentUser;
+    private boolean rankEstimated;
 
     public LeaderboardEntry() {
         // Required empty constructor
@@ -37,4 +38,7 @@ public class LeaderboardEntry {
 
     public boolean isCurrentUser() { return isCurrentUser; }
     public void setCurrentUser(boolean currentUser) { isCurrentUser = currentUser; }
+
+    public boolean isRankEstimated() { return rankEstimated; }
+    public void setRankEstimated(boolean rankEstimated) { this.rankEstimated = rankEstimated; }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.fittrackpro.app.data.model;
+
+import java.util.List;
+
+/**
+ * Muscle group × ISO week matrix for the training heatmap.
+ * Row i is muscleGroups[i], column j the week starting at weekStarts[j], oldest first.
+ */
+public class MuscleHeatmap {
+    private final List<String> muscleGroups;
+    private final long[] weekStarts;
+    private final double[][] sets;
+    private final double[][] volume;
+
+    public MuscleHeatmap(List<String> muscleGroups, long[] weekStarts, double[][] sets, double[][] volume) {
+        this.muscleGroups = muscleGroups;
+        this.weekStarts = weekStarts;
+        this.sets = sets;
+        this.volume = volume;
+    }
+
+    /**
+     * Largest weighted set count in the matrix, for scaling cell colors
+     */
+    public double getMaxSets() {
+        double max = 0;
+        for (double[] row : sets) {
+            for (double value : row) max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    // Getters
+    public List<String> getMuscleGroups() { return muscleGroups; }
+
+    public long[] getWeekStarts() { return weekStarts; }
+
+    public double[][] getSets() { return sets; }
+
+    public double[][] getVolume() { return volume; }
+}
@@ -5,6 +5,7 @@ import com.google.firebase.Timestamp;
 public class NutritionProfile {
     private String profileId;
     private String userId;
+    private int version;
 
     // User inputs
     private double weight; // in kg or lb based on user preference
@@ -36,6 +37,9 @@ public class NutritionProfile {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
     public double getWeight() { return weight; }
     public void setWeight(double weight) { this.weight = weight; }
 
@@ -0,0 +1,56 @@
+package com.fittrackpro.app.data.model;
+
+import com.fittrackpro.app.util.Constants;
+
+/**
+ * One day of an exercise's progression: top set, estimated 1RM and volume
+ */
+public class ProgressionPoint {
+    private long dayStart;
+    private double topWeight;
+    private int topWeightReps;
+    private double e1rm;
+    private double volume;
+
+    public ProgressionPoint() {
+        // Required empty constructor
+    }
+
+    public ProgressionPoint(long dayStart, double topWeight, int topWeightReps, double e1rm, double volume) {
+        this.dayStart = dayStart;
+        this.topWeight = topWeight;
+        this.topWeightReps = topWeightReps;
+        this.e1rm = e1rm;
+        this.volume = volume;
+    }
+
+    /**
+     * Value plotted for a {@code Constants.PROGRESSION_METRIC_*} metric
+     */
+    public double getValue(String metric) {
+        switch (metric) {
+            case Constants.PROGRESSION_METRIC_E1RM:
+                return e1rm;
+            case Constants.PROGRESSION_METRIC_VOLUME:
+                return volume;
+            default:
+                return topWeight;
+        }
+    }
+
+    // Getters and setters
+    public long getDayStart() { return dayStart; }
+    public void setDayStart(long dayStart) { this.dayStart = dayStart; }
+
+    public double getTopWeight() { return topWeight; }
+    public void setTopWeight(double topWeight) { this.topWeight = topWeight; }
+
+    public int getTopWeightReps() { return topWeightReps; }
+    public void setTopWeightReps(int topWeightReps) { this.topWeightReps = topWeightReps; }
+
+    public double getE1rm() { return e1rm; }
+    public void setE1rm(double e1rm) { this.e1rm = e1rm; }
+
+    public double getVolume() { return volume; }
+    public void setVolume(double volume) { this.volume = volume; }
+}
@@ -0,0 +1,62 @@
+package com.fittrackpro.app.data.model;
+
+import com.fittrackpro.app.util.Constants;
+
+/**
+ * Acute:chronic training load for a user or one muscle group.
+ * Acute load is the volume of the last 7 days, chronic load the weekly average of the last 28.
+ */
+public class TrainingLoad {
+    private final double acuteLoad;
+    private final double chronicLoad;
+    private final double previousAcuteLoad;
+    private final double previousChronicLoad;
+
+    public TrainingLoad(double acuteLoad, double chronicLoad, double previousAcuteLoad, double previousChronicLoad) {
+        this.acuteLoad = acuteLoad;
+        this.chronicLoad = chronicLoad;
+        this.previousAcuteLoad = previousAcuteLoad;
+        this.previousChronicLoad = previousChronicLoad;
+    }
+
+    /**
+     * Acute:chronic ratio, 0 without chronic load
+     */
+    public double getRatio() {
+        return chronicLoad > 0 ? acuteLoad / chronicLoad : 0;
+    }
+
+    /**
+     * Ratio one week ago, 0 without chronic load then
+     */
+    public double getPreviousRatio() {
+        return previousChronicLoad > 0 ? previousAcuteLoad / previousChronicLoad : 0;
+    }
+
+    /**
+     * Change of the ratio over the last week; positive means load is building
+     */
+    public double getTrend() {
+        return getRatio() - getPreviousRatio();
+    }
+
+    /**
+     * One of {@code Constants.TRAINING_LOAD_*}
+     */
+    public String getStatus() {
+        if (chronicLoad <= 0) return Constants.TRAINING_LOAD_INSUFFICIENT;
+        double ratio = getRatio();
+        if (ratio > Constants.ACWR_HIGH) return Constants.TRAINING_LOAD_HIGH;
+        if (ratio < Constants.ACWR_LOW) return Constants.TRAINING_LOAD_LOW;
+        return Constants.TRAINING_LOAD_OPTIMAL;
+    }
+
+    // Getters
+    public double getAcuteLoad() { return acuteLoad; }
+
+    public double getChronicLoad() { return chronicLoad; }
+
+    public double getPreviousAcuteLoad() { return previousAcuteLoad; }
+
+    public double getPreviousChronicLoad() { return previousChronicLoad; }
+}
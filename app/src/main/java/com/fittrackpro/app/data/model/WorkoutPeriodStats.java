@@ -0,0 +1,31 @@
+package com.fittrackpro.app.data.model;
+
+/**
+ * Workout totals for one calendar period, aggregated by Room
+ */
+public class WorkoutPeriodStats {
+    private int workoutCount;
+    private long totalDurationSeconds;
+    private double totalVolume;
+
+    public WorkoutPeriodStats() {
+        // Required empty constructor
+    }
+
+    /**
+     * Average workout duration in seconds, 0 for an empty period
+     */
+    public long getAverageDurationSeconds() {
+        return workoutCount > 0 ? totalDurationSeconds / workoutCount : 0;
+    }
+
+    // Getters and setters
+    public int getWorkoutCount() { return workoutCount; }
+    public void setWorkoutCount(int workoutCount) { this.workoutCount = workoutCount; }
+
+    public long getTotalDurationSeconds() { return totalDurationSeconds; }
+    public void setTotalDurationSeconds(long totalDurationSeconds) { this.totalDurationSeconds = totalDurationSeconds; }
+
+    public double getTotalVolume() { return totalVolume; }
+    public void setTotalVolume(double totalVolume) { this.totalVolume = totalVolume; }
+}
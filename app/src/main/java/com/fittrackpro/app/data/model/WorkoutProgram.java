@@ -13,6 +13,7 @@ public class WorkoutProgram {
     private boolean isPreset; // true for read-only presets
     private boolean isActive; // user can have multiple programs
     private String originalPresetId; // if duplicated from preset
+    private boolean inheritsTemplate; // days and exercises read through from originalPresetId
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -51,6 +52,9 @@ public class WorkoutProgram {
     public String getOriginalPresetId() { return originalPresetId; }
     public void setOriginalPresetId(String originalPresetId) { this.originalPresetId = originalPresetId; }
 
+    public boolean isInheritsTemplate() { return inheritsTemplate; }
+    public void setInheritsTemplate(boolean inheritsTemplate) { this.inheritsTemplate = inheritsTemplate; }
+
     public Timestamp getCreatedAt() { return createdAt; }
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
 
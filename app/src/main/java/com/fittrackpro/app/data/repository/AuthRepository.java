@@ -1,50 +1,92 @@
 package com.fittrackpro. app.data.repository;
 
+import android.util.Log;
+import android.util.LruCache;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.fittrackpro.app.data.model.User;
+import com.fittrackpro.app.util.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * AuthRepository handles all authentication operations.
  *
  * Key responsibilities:
  * - Register new users with email/password
- * - Validate username uniqueness
+ * - Validate username uniqueness via the usernames index
  * - Login/logout
  * - Create user document in Firestore
  */
 public class AuthRepository {
 
+    private static final String TAG = "AuthRepository";
+    private static final int USERNAME_CACHE_SIZE = 256;
+
     private final FirebaseAuth firebaseAuth;
     private final FirebaseFirestore firestore;
-    private final Executor executor;
+
+    // Normalized username -> expiry time; taken names form the negative cache
+    private final LruCache<String, Long> takenCache = new LruCache<>(USERNAME_CACHE_SIZE);
+    private final LruCache<String, Long> availableCache = new LruCache<>(USERNAME_CACHE_SIZE);
 
     public AuthRepository() {
         this.firebaseAuth = FirebaseAuth. getInstance();
         this.firestore = FirebaseFirestore.getInstance();
-        this.executor = Executors.newSingleThreadExecutor();
     }
 
     /**
-     * Check if username is available (globally unique)
+     * Normalized form used as the usernames/{id} key, so availability is case-insensitive
+     */
+    public static String normalizeUsername(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Check if username is available (globally unique) with one document read against
+     * the usernames index. Taken names are cached for longer than free ones.
      * Returns true if available, false if taken, null if error checking
      */
     public LiveData<Boolean> isUsernameAvailable(String username) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
+        String normalized = normalizeUsername(username);
+
+        Long takenExpiry = takenCache.get(normalized);
+        if (takenExpiry != null && takenExpiry > System.currentTimeMillis()) {
+            result.setValue(false);
+            return result;
+        }
+        Long availableExpiry = availableCache.get(normalized);
+        if (availableExpiry != null && availableExpiry > System.currentTimeMillis()) {
+            result.setValue(true);
+            return result;
+        }
 
-        firestore.collection("users")
-                .whereEqualTo("username", username)
+        firestore.collection(Constants.COLLECTION_USERNAMES)
+                .document(normalized)
                 .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    // If query returns empty, username is available
-                    result.setValue(querySnapshot.isEmpty());
+                .addOnSuccessListener(doc -> {
+                    boolean available = !doc.exists();
+                    cacheAvailability(normalized, available);
+                    result.setValue(available);
                 })
                 .addOnFailureListener(e -> {
                     // On error, return null to indicate we couldn't check
@@ -55,18 +97,39 @@ public class AuthRepository {
         return result;
     }
 
+    private void cacheAvailability(String normalized, boolean available) {
+        long now = System.currentTimeMillis();
+        if (available) {
+            availableCache.put(normalized, now + Constants.TTL_USERNAME_AVAILABLE_MS);
+        } else {
+            takenCache.put(normalized, now + Constants.TTL_USERNAME_TAKEN_MS);
+            availableCache.remove(normalized);
+        }
+    }
+
     /**
-     * Register new user with email, password, username, and display name
+     * Register new user with email, password, username, and display name.
+     * The username is claimed in usernames/{normalized} in the same transaction
+     * that creates the user document.
      */
     public LiveData<AuthResult> registerUser(String email, String password, String username, String displayName) {
         MutableLiveData<AuthResult> result = new MutableLiveData<>();
+        String normalized = normalizeUsername(username);
 
-        // First, verify username is unique
-        firestore.collection("users")
-                .whereEqualTo("username", username)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!querySnapshot.isEmpty()) {
+        // First, verify username is unique. Accounts created before the index only
+        // exist in users, under their original case, so registration checks both once.
+        Task<DocumentSnapshot> reservationCheck = firestore.collection(Constants.COLLECTION_USERNAMES)
+                .document(normalized)
+                .get();
+        Task<QuerySnapshot> legacyCheck = firestore.collection(Constants.COLLECTION_USERS)
+                .whereIn("username", legacyUsernameVariants(username))
+                .limit(1)
+                .get();
+
+        Tasks.whenAllSuccess(reservationCheck, legacyCheck)
+                .addOnSuccessListener(results -> {
+                    if (reservationCheck.getResult().exists() || !legacyCheck.getResult().isEmpty()) {
+                        cacheAvailability(normalized, false);
                         result.setValue(new AuthResult(false, "Username already taken", null));
                         return;
                     }
@@ -76,20 +139,8 @@ public class AuthRepository {
                             .addOnSuccessListener(authResult -> {
                                 FirebaseUser firebaseUser = authResult.getUser();
                                 if (firebaseUser != null) {
-                                    String userId = firebaseUser.getUid();
-
-                                    // Create user document in Firestore
-                                    User user = new User(userId, email, username, displayName);
-
-                                    firestore.collection("users")
-                                            .document(userId)
-                                            .set(user)
-                                            .addOnSuccessListener(aVoid -> {
-                                                result.setValue(new AuthResult(true, "Registration successful", user));
-                                            })
-                                            .addOnFailureListener(e -> {
-                                                result.setValue(new AuthResult(false, "Failed to create user profile:  " + e.getMessage(), null));
-                                            });
+                                    User user = new User(firebaseUser.getUid(), email, username, displayName);
+                                    createUserWithReservation(firebaseUser, user, normalized, result);
                                 } else {
                                     result.setValue(new AuthResult(false, "User creation failed", null));
                                 }
@@ -105,6 +156,85 @@ public class AuthRepository {
         return result;
     }
 
+    /**
+     * Spellings a pre-index account may have stored for the same normalized name. The users
+     * collection cannot be queried case-insensitively, so this covers the usual casings; any
+     * other legacy spelling is added to the index when that account next logs in.
+     */
+    private static List<String> legacyUsernameVariants(String username) {
+        String trimmed = username.trim();
+        String normalized = normalizeUsername(username);
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(username);
+        variants.add(trimmed);
+        variants.add(normalized);
+        variants.add(trimmed.toUpperCase(Locale.ROOT));
+        if (!normalized.isEmpty()) {
+            variants.add(normalized.substring(0, 1).toUpperCase(Locale.ROOT) + normalized.substring(1));
+        }
+        return new ArrayList<>(variants);
+    }
+
+    /**
+     * Claim the username and create the user document atomically. If someone claimed
+     * the name in the meantime, the new auth account is removed again.
+     */
+    private void createUserWithReservation(FirebaseUser firebaseUser, User user, String normalized,
+                                           MutableLiveData<AuthResult> result) {
+        DocumentReference reservationRef = firestore.collection(Constants.COLLECTION_USERNAMES).document(normalized);
+        DocumentReference userRef = firestore.collection(Constants.COLLECTION_USERS).document(user.getUserId());
+
+        firestore.runTransaction(transaction -> {
+            DocumentSnapshot reservation = transaction.get(reservationRef);
+            if (reservation.exists() && !user.getUserId().equals(reservation.getString("userId"))) {
+                throw new FirebaseFirestoreException("Username already taken",
+                        FirebaseFirestoreException.Code.ALREADY_EXISTS);
+            }
+            transaction.set(reservationRef, reservationData(user));
+            transaction.set(userRef, user);
+            return null;
+        })
+                .addOnSuccessListener(unused -> {
+                    cacheAvailability(normalized, false);
+                    result.setValue(new AuthResult(true, "Registration successful", user));
+                })
+                .addOnFailureListener(e -> {
+                    firebaseUser.delete();
+                    if (e instanceof FirebaseFirestoreException
+                            && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.ALREADY_EXISTS) {
+                        cacheAvailability(normalized, false);
+                        result.setValue(new AuthResult(false, "Username already taken", null));
+                    } else {
+                        result.setValue(new AuthResult(false, "Failed to create user profile:  " + e.getMessage(), null));
+                    }
+                });
+    }
+
+    /**
+     * Add the usernames index entry for accounts created before it existed
+     */
+    private void claimUsernameIfMissing(User user) {
+        if (user.getUsername() == null) return;
+        DocumentReference reservationRef = firestore.collection(Constants.COLLECTION_USERNAMES)
+                .document(normalizeUsername(user.getUsername()));
+
+        firestore.runTransaction(transaction -> {
+            if (!transaction.get(reservationRef).exists()) {
+                transaction.set(reservationRef, reservationData(user));
+            }
+            return null;
+        }).addOnFailureListener(e -> Log.w(TAG, "Failed to backfill username index", e));
+    }
+
+    private static Map<String, Object> reservationData(User user) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", user.getUserId());
+        data.put("username", user.getUsername());
+        data.put("displayName", user.getDisplayName());
+        data.put("createdAt", FieldValue.serverTimestamp());
+        return data;
+    }
+
     /**
      * Login with email and password
      */
@@ -124,6 +254,7 @@ public class AuthRepository {
                                 .addOnSuccessListener(documentSnapshot -> {
                                     User user = documentSnapshot.toObject(User.class);
                                     if (user != null) {
+                                        claimUsernameIfMissing(user);
                                         result.setValue(new AuthResult(true, "Login successful", user));
                                     } else {
                                         result.setValue(new AuthResult(false, "User profile not found", null));
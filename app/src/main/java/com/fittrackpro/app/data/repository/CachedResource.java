@@ -0,0 +1,87 @@
+package com.fittrackpro.app.data.repository;
+
+import android.util.Log;
+import androidx.annotation.MainThread;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.FetchTimestampDao;
+import com.fittrackpro.app.data.local.entity.FetchTimestampEntity;
+import com.fittrackpro.app.util.AppExecutors;
+import com.google.android.gms.tasks.Task;
+
+import java.util.concurrent.Executor;
+
+/**
+ * CachedResource implements stale-while-revalidate on top of Room.
+ *
+ * The Room LiveData is emitted immediately. If the last successful fetch for
+ * the resource key is older than its TTL (or missing), the remote call runs in
+ * the background and its result is written back to Room, which re-emits through
+ * the same LiveData. Failures leave the cached value in place.
+ *
+ * @param <Local>  type exposed to the UI
+ * @param <Remote> type returned by the remote call
+ */
+public abstract class CachedResource<Local, Remote> {
+
+    private static final String TAG = "CachedResource";
+
+    private final MediatorLiveData<Local> result = new MediatorLiveData<>();
+    private final FetchTimestampDao timestampDao;
+    private final String resourceKey;
+    private final long ttlMs;
+    private final Executor diskIO;
+
+    protected CachedResource(AppDatabase database, String resourceKey, long ttlMs) {
+        this.timestampDao = database.fetchTimestampDao();
+        this.resourceKey = resourceKey;
+        this.ttlMs = ttlMs;
+        this.diskIO = AppExecutors.getInstance().diskIO();
+    }
+
+    /**
+     * Start observing the cache and revalidate if stale
+     */
+    @MainThread
+    public LiveData<Local> load() {
+        result.addSource(loadFromDb(), result::setValue);
+
+        diskIO.execute(() -> {
+            Long fetchedAt = timestampDao.getFetchedAt(resourceKey);
+            if (fetchedAt == null || System.currentTimeMillis() - fetchedAt >= ttlMs) {
+                revalidate();
+            }
+        });
+        return result;
+    }
+
+    private void revalidate() {
+        createCall()
+                .addOnSuccessListener(diskIO, remote -> {
+                    saveCallResult(remote);
+                    timestampDao.upsert(new FetchTimestampEntity(resourceKey, System.currentTimeMillis()));
+                })
+                .addOnFailureListener(diskIO, e ->
+                        Log.w(TAG, "Revalidation failed for " + resourceKey + ", serving cache", e));
+    }
+
+    /**
+     * Room query backing this resource
+     */
+    @MainThread
+    protected abstract LiveData<Local> loadFromDb();
+
+    /**
+     * Remote read used to revalidate
+     */
+    protected abstract Task<Remote> createCall();
+
+    /**
+     * Write the remote result into Room
+     */
+    @WorkerThread
+    protected abstract void saveCallResult(Remote remote);
+}
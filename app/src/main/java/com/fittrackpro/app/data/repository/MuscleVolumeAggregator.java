@@ -0,0 +1,114 @@
+package com.fittrackpro.app.data.repository;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.MuscleWeekStatsDao;
+import com.fittrackpro.app.data.local.dao.WorkoutSetDao;
+import com.fittrackpro.app.data.local.entity.MuscleWeekStatsEntity;
+import com.fittrackpro.app.data.local.entity.WorkoutSetEntity;
+import com.fittrackpro.app.data.model.ExerciseTemplate;
+import com.fittrackpro.app.data.model.MuscleHeatmap;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.ExerciseLibrary;
+import com.fittrackpro.app.util.TimeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MuscleVolumeAggregator keeps weekly sets and volume per muscle group in Room.
+ *
+ * Muscles come from {@link ExerciseLibrary}: a set counts fully toward the exercise's
+ * primary group and {@link Constants#MUSCLE_SECONDARY_WEIGHT} toward each secondary one.
+ * Preset program names resolve through the library's aliases; custom exercises not in the
+ * library are left out. When a workout is saved or deleted only its ISO week is rebuilt,
+ * so the heatmap reads (muscle groups × weeks) rows and never raw sets.
+ */
+public class MuscleVolumeAggregator {
+
+    private final AppDatabase database;
+    private final WorkoutSetDao setDao;
+    private final MuscleWeekStatsDao weekStatsDao;
+
+    public MuscleVolumeAggregator(AppDatabase database) {
+        this.database = database;
+        this.setDao = database.workoutSetDao();
+        this.weekStatsDao = database.muscleWeekStatsDao();
+    }
+
+    /**
+     * Rebuild the ISO week containing a saved or deleted workout
+     */
+    @WorkerThread
+    public void refreshWeek(String userId, long timeMillis) {
+        long weekStart = TimeUtils.startOfIsoWeek(timeMillis);
+        database.runInTransaction(() -> {
+            Map<String, MuscleWeekStatsEntity> byMuscle = new HashMap<>();
+            for (WorkoutSetEntity set : setDao.getCompletedSetsInRange(userId, weekStart,
+                    TimeUtils.addIsoWeeks(weekStart, 1))) {
+                ExerciseTemplate exercise = ExerciseLibrary.findByName(set.getExerciseName());
+                if (exercise == null) continue;
+
+                double volume = set.getWeight() * set.getReps();
+                add(byMuscle, userId, weekStart, exercise.getMuscleGroup(), 1, volume);
+                for (String secondary : exercise.getSecondaryMuscles()) {
+                    add(byMuscle, userId, weekStart, secondary, Constants.MUSCLE_SECONDARY_WEIGHT,
+                            volume * Constants.MUSCLE_SECONDARY_WEIGHT);
+                }
+            }
+            weekStatsDao.deleteWeek(userId, weekStart);
+            weekStatsDao.upsert(new ArrayList<>(byMuscle.values()));
+        });
+    }
+
+    private static void add(Map<String, MuscleWeekStatsEntity> byMuscle, String userId, long weekStart,
+                            String muscleGroup, double sets, double volume) {
+        MuscleWeekStatsEntity row = byMuscle.get(muscleGroup);
+        if (row == null) {
+            row = new MuscleWeekStatsEntity();
+            row.setUserId(userId);
+            row.setMuscleGroup(muscleGroup);
+            row.setWeekStart(weekStart);
+            byMuscle.put(muscleGroup, row);
+        }
+        row.setSets(row.getSets() + sets);
+        row.setVolume(row.getVolume() + volume);
+    }
+
+    /**
+     * Heatmap of the last {@code weeks} ISO weeks including the current one, every library
+     * muscle group as a row
+     */
+    public LiveData<MuscleHeatmap> getHeatmap(String userId, int weeks) {
+        long currentWeek = TimeUtils.startOfIsoWeek(System.currentTimeMillis());
+        long[] weekStarts = new long[weeks];
+        for (int i = 0; i < weeks; i++) {
+            weekStarts[i] = TimeUtils.addIsoWeeks(currentWeek, i - weeks + 1);
+        }
+
+        List<String> muscleGroups = new ArrayList<>(ExerciseLibrary.getMuscleGroups());
+        muscleGroups.remove("All");
+        Map<String, Integer> rows = new HashMap<>();
+        for (int i = 0; i < muscleGroups.size(); i++) rows.put(muscleGroups.get(i), i);
+        Map<Long, Integer> columns = new HashMap<>();
+        for (int j = 0; j < weeks; j++) columns.put(weekStarts[j], j);
+
+        return Transformations.map(weekStatsDao.getWeeksSince(userId, weekStarts[0]), stats -> {
+            double[][] sets = new double[muscleGroups.size()][weeks];
+            double[][] volume = new double[muscleGroups.size()][weeks];
+            for (MuscleWeekStatsEntity cell : stats) {
+                Integer row = rows.get(cell.getMuscleGroup());
+                Integer column = columns.get(cell.getWeekStart());
+                if (row == null || column == null) continue;
+                sets[row][column] = cell.getSets();
+                volume[row][column] = cell.getVolume();
+            }
+            return new MuscleHeatmap(muscleGroups, weekStarts, sets, volume);
+        });
+    }
+}
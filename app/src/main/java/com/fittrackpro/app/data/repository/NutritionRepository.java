@@ -1,25 +1,46 @@
 package com.fittrackpro.app.data.repository;
 
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle. MutableLiveData;
+import androidx.lifecycle.Transformations;
 import com.fittrackpro.app.data.local.AppDatabase;
 import com.fittrackpro.app.data. local.dao.FoodDao;
+import com.fittrackpro.app.data.local.dao.MealLoggedDao;
+import com.fittrackpro.app.data.local.dao.NutritionProfileDao;
+import com.fittrackpro.app.data.local.dao.TombstoneDao;
 import com.fittrackpro.app.data.local.entity.FoodEntity;
+import com.fittrackpro.app.data.local.entity.MealLoggedEntity;
+import com.fittrackpro.app.data.local.entity.NutritionProfileEntity;
+import com.fittrackpro.app.data.local.entity.NutritionProfileHistoryEntity;
+import com.fittrackpro.app.data.local.entity.TombstoneEntity;
 import com.fittrackpro.app.data.model.Food;
 import com.fittrackpro.app.data.model.MealLogged;
 import com.fittrackpro.app.data.model.NutritionProfile;
+import com.fittrackpro.app.sync.SyncManager;
+import com.fittrackpro.app.util.AppExecutors;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.SingleFlight;
 import com.fittrackpro.app.util.NutritionCalculator;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore. FirebaseFirestore;
 import com.google.firebase.firestore. Query;
 import com.google.firebase.firestore. QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.Executor;
-import java.util.concurrent. Executors;
 
 /**
  * NutritionRepository manages nutrition profiles, food database, and meal logging.
@@ -33,156 +54,248 @@ import java.util.concurrent. Executors;
 public class NutritionRepository {
 
     private final FirebaseFirestore firestore;
+    private final SingleFlight singleFlight;
+    private final AppDatabase database;
     private final FoodDao foodDao;
+    private final MealLoggedDao mealDao;
+    private final NutritionProfileDao profileDao;
+    private final TombstoneDao tombstoneDao;
     private final Executor executor;
+    private final SyncManager syncManager;
 
-    public NutritionRepository(AppDatabase database) {
+    public NutritionRepository(AppDatabase database, Context context) {
         this.firestore = FirebaseFirestore.getInstance();
+        this.singleFlight = SingleFlight.getInstance();
+        this.database = database;
         this.foodDao = database.foodDao();
-        this.executor = Executors.newSingleThreadExecutor();
+        this.mealDao = database.mealLoggedDao();
+        this.profileDao = database.nutritionProfileDao();
+        this.tombstoneDao = database.tombstoneDao();
+        this.executor = AppExecutors.getInstance().newSerialDiskIO();
+        this.syncManager = SyncManager.getInstance(context);
     }
 
     // ==================== NUTRITION PROFILE ====================
 
     /**
-     * Get nutrition profile for user
+     * Get nutrition profile for user - Room first, revalidated from Firestore when stale
      */
     public LiveData<NutritionProfile> getNutritionProfile(String userId) {
-        MutableLiveData<NutritionProfile> result = new MutableLiveData<>();
-
-        firestore.collection("nutritionProfiles")
-                .whereEqualTo("userId", userId)
-                .limit(1)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!querySnapshot.isEmpty()) {
-                        NutritionProfile profile = querySnapshot.getDocuments().get(0).toObject(NutritionProfile.class);
-                        result.setValue(profile);
-                    } else {
-                        result.setValue(null);
-                    }
-                })
-                .addOnFailureListener(e -> result.setValue(null));
+        return new CachedResource<NutritionProfile, NutritionProfile>(
+                database, "nutritionProfile:" + userId, Constants.TTL_NUTRITION_PROFILE_MS) {
+            @Override
+            protected LiveData<NutritionProfile> loadFromDb() {
+                return Transformations.map(profileDao.getProfile(userId),
+                        NutritionRepository.this::profileEntityToModel);
+            }
+
+            @Override
+            protected Task<NutritionProfile> createCall() {
+                return singleFlight.get(firestore.collection("nutritionProfiles").document(userId))
+                        .continueWithTask(task -> {
+                            DocumentSnapshot doc = task.getResult();
+                            if (doc.exists()) {
+                                return Tasks.forResult(doc.toObject(NutritionProfile.class));
+                            }
+                            // Profiles saved before the per-user key used random document ids
+                            return singleFlight.get(firestore.collection("nutritionProfiles")
+                                    .whereEqualTo("userId", userId)
+                                    .limit(1))
+                                    .continueWith(query -> query.getResult().isEmpty() ? null
+                                            : query.getResult().getDocuments().get(0).toObject(NutritionProfile.class));
+                        });
+            }
+
+            @Override
+            protected void saveCallResult(NutritionProfile remote) {
+                if (remote == null) return;
+                NutritionProfileEntity local = profileDao.getProfileSync(userId);
+                if (local != null && (!local.isSynced() || local.getVersion() > remote.getVersion())) return;
+
+                NutritionProfileEntity entity = profileModelToEntity(remote);
+                entity.setUserId(userId);
+                entity.setSynced(true);
+                profileDao.insertProfile(entity);
+            }
+        }.load();
+    }
 
-        return result;
+    /**
+     * Profile version history, newest first
+     */
+    public LiveData<List<NutritionProfile>> getNutritionProfileHistory(String userId) {
+        return Transformations.map(profileDao.getHistory(userId), rows -> {
+            List<NutritionProfile> history = new ArrayList<>();
+            for (NutritionProfileHistoryEntity row : rows) {
+                history.add(historyEntityToModel(row));
+            }
+            return history;
+        });
     }
 
     /**
-     * Create or update nutrition profile with calculated TDEE and macros
+     * Create or update nutrition profile with calculated TDEE and macros.
+     * Saved to Room immediately as a new version; DataSyncWorker uploads it.
      */
     public LiveData<Boolean> saveNutritionProfile(String userId, double weight, double height,
                                                   int age, String gender, String activityLevel,
                                                   String goal) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
 
-        // Calculate BMR using Mifflin-St Jeor
-        double bmr = NutritionCalculator.calculateBMR(weight, height, age, gender);
-
-        // Calculate TDEE
-        double tdee = NutritionCalculator.calculateTDEE(bmr, activityLevel);
-
-        // Calculate target calories based on goal
-        double targetCalories = NutritionCalculator. calculateTargetCalories(tdee, goal);
-
-        // Calculate macros
-        double[] macros = NutritionCalculator.calculateMacros(targetCalories, goal);
-
-        String profileId = firestore.collection("nutritionProfiles").document().getId();
+        executor.execute(() -> {
+            try {
+                boolean changed = database.runInTransaction(() -> {
+                    NutritionProfileEntity current = profileDao.getProfileSync(userId);
+                    if (current != null && sameInputs(current, weight, height, age, gender, activityLevel, goal)) {
+                        // Cached targets are still valid
+                        return false;
+                    }
 
-        NutritionProfile profile = new NutritionProfile();
-        profile.setProfileId(profileId);
-        profile.setUserId(userId);
-        profile.setWeight(weight);
-        profile.setHeight(height);
-        profile.setAge(age);
-        profile.setGender(gender);
-        profile.setActivityLevel(activityLevel);
-        profile.setGoal(goal);
-        profile.setBmr(bmr);
-        profile.setTdee(tdee);
-        profile.setTargetCalories(targetCalories);
-        profile.setTargetProtein(macros[0]);
-        profile.setTargetCarbs(macros[1]);
-        profile.setTargetFats(macros[2]);
-        profile.setCreatedAt(Timestamp.now());
-        profile.setUpdatedAt(Timestamp.now());
-
-        firestore.collection("nutritionProfiles")
-                .document(profileId)
-                .set(profile)
-                .addOnSuccessListener(aVoid -> result.setValue(true))
-                .addOnFailureListener(e -> result.setValue(false));
+                    // Calculate BMR using Mifflin-St Jeor
+                    double bmr = NutritionCalculator.calculateBMR(weight, height, age, gender);
+
+                    // Calculate TDEE
+                    double tdee = NutritionCalculator.calculateTDEE(bmr, activityLevel);
+
+                    // Calculate target calories based on goal
+                    double targetCalories = NutritionCalculator.calculateTargetCalories(tdee, goal);
+
+                    // Calculate macros
+                    double[] macros = NutritionCalculator.calculateMacros(targetCalories, goal);
+
+                    long now = System.currentTimeMillis();
+                    NutritionProfileEntity profile = new NutritionProfileEntity();
+                    profile.setUserId(userId);
+                    profile.setVersion(current != null ? current.getVersion() + 1 : 1);
+                    profile.setWeight(weight);
+                    profile.setHeight(height);
+                    profile.setAge(age);
+                    profile.setGender(gender);
+                    profile.setActivityLevel(activityLevel);
+                    profile.setGoal(goal);
+                    profile.setBmr(bmr);
+                    profile.setTdee(tdee);
+                    profile.setTargetCalories(targetCalories);
+                    profile.setTargetProtein(macros[0]);
+                    profile.setTargetCarbs(macros[1]);
+                    profile.setTargetFats(macros[2]);
+                    profile.setCreatedAt(current != null ? current.getCreatedAt() : now);
+                    profile.setUpdatedAt(now);
+                    profile.setSynced(false);
+
+                    profileDao.insertProfile(profile);
+                    profileDao.insertHistory(historyFromProfile(profile));
+                    return true;
+                });
+
+                result.postValue(true);
+                if (changed) {
+                    syncManager.syncNow(userId);
+                }
+            } catch (Exception e) {
+                Log.e("NutritionRepository", "Failed to save nutrition profile", e);
+                result.postValue(false);
+            }
+        });
 
         return result;
     }
 
+    private static boolean sameInputs(NutritionProfileEntity profile, double weight, double height,
+                                      int age, String gender, String activityLevel, String goal) {
+        return profile.getWeight() == weight
+                && profile.getHeight() == height
+                && profile.getAge() == age
+                && TextUtils.equals(profile.getGender(), gender)
+                && TextUtils.equals(profile.getActivityLevel(), activityLevel)
+                && TextUtils.equals(profile.getGoal(), goal);
+    }
+
     // ==================== FOOD DATABASE ====================
 
     /**
-     * Search foods in database
+     * Search foods - local matches first, revalidated from Firestore when stale
      */
     public LiveData<List<Food>> searchFoods(String query) {
-        MutableLiveData<List<Food>> result = new MutableLiveData<>();
-
-        // Search in Firestore
-        firestore.collection("foodsDatabase")
-                .orderBy("foodName")
-                .startAt(query)
-                .endAt(query + "\uf8ff")
-                .limit(50)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
+        return new CachedResource<List<Food>, QuerySnapshot>(
+                database, "foodSearch:" + query.toLowerCase(Locale.US), Constants.TTL_FOODS_MS) {
+            @Override
+            protected LiveData<List<Food>> loadFromDb() {
+                return Transformations.map(foodDao.searchFoods(query), entities -> {
                     List<Food> foods = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc :  querySnapshot) {
-                        Food food = doc.toObject(Food.class);
-                        foods. add(food);
+                    for (FoodEntity entity : entities) {
+                        foods.add(foodEntityToModel(entity));
                     }
-                    result.setValue(foods);
-
-                    // Cache in Room
-                    executor.execute(() -> {
-                        for (Food f : foods) {
-                            foodDao.insertFood(foodModelToEntity(f));
-                        }
-                    });
-                })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
-
-        return result;
+                    return foods;
+                });
+            }
+
+            @Override
+            protected Task<QuerySnapshot> createCall() {
+                return singleFlight.get(firestore.collection("foodsDatabase")
+                        .orderBy("foodName")
+                        .startAt(query)
+                        .endAt(query + "\uf8ff")
+                        .limit(50));
+            }
+
+            @Override
+            protected void saveCallResult(QuerySnapshot querySnapshot) {
+                List<FoodEntity> entities = new ArrayList<>();
+                for (QueryDocumentSnapshot doc : querySnapshot) {
+                    Food food = doc.toObject(Food.class);
+                    food.setFoodId(doc.getId());
+                    FoodEntity entity = foodModelToEntity(food);
+                    entity.setSynced(true);
+                    entities.add(entity);
+                }
+                foodDao.insertFoods(entities);
+            }
+        }.load();
     }
 
     /**
-     * Get food by ID
+     * Get food by ID - Room first, revalidated from Firestore when stale
      */
     public LiveData<Food> getFoodById(String foodId) {
-        MutableLiveData<Food> result = new MutableLiveData<>();
-
-        firestore. collection("foodsDatabase")
-                .document(foodId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    Food food = documentSnapshot. toObject(Food.class);
-                    result.setValue(food);
-                })
-                .addOnFailureListener(e -> result.setValue(null));
-
-        return result;
+        return new CachedResource<Food, DocumentSnapshot>(
+                database, "food:" + foodId, Constants.TTL_FOODS_MS) {
+            @Override
+            protected LiveData<Food> loadFromDb() {
+                return Transformations.map(foodDao.getFoodById(foodId),
+                        NutritionRepository.this::foodEntityToModel);
+            }
+
+            @Override
+            protected Task<DocumentSnapshot> createCall() {
+                return singleFlight.get(firestore.collection("foodsDatabase")
+                        .document(foodId));
+            }
+
+            @Override
+            protected void saveCallResult(DocumentSnapshot documentSnapshot) {
+                Food food = documentSnapshot.toObject(Food.class);
+                if (food == null) return;
+                food.setFoodId(foodId);
+                FoodEntity entity = foodModelToEntity(food);
+                entity.setSynced(true);
+                foodDao.insertFood(entity);
+            }
+        }.load();
     }
 
     // ==================== MEAL LOGGING ====================
 
     /**
-     * Log a meal
+     * Log a meal - inserted into Room immediately, uploaded by DataSyncWorker
      */
     public LiveData<Boolean> logMeal(String userId, String foodId, String foodName, String mealType,
                                      double portionMultiplier, double calories, double protein,
                                      double carbs, double fats) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
 
-        String logId = firestore.collection("mealsLogged").document().getId();
-
-        MealLogged meal = new MealLogged();
-        meal.setLogId(logId);
+        MealLoggedEntity meal = new MealLoggedEntity();
+        meal.setLogId(firestore.collection("mealsLogged").document().getId());
         meal.setUserId(userId);
         meal.setFoodId(foodId);
         meal.setFoodName(foodName);
@@ -192,80 +305,96 @@ public class NutritionRepository {
         meal.setProtein(protein * portionMultiplier);
         meal.setCarbs(carbs * portionMultiplier);
         meal.setFats(fats * portionMultiplier);
-        meal.setLoggedAt(Timestamp.now());
-
-        firestore.collection("mealsLogged")
-                .document(logId)
-                .set(meal)
-                .addOnSuccessListener(aVoid -> result.setValue(true))
-                .addOnFailureListener(e -> result.setValue(false));
+        meal.setLoggedAt(System.currentTimeMillis());
+        meal.setSynced(false);
+
+        executor.execute(() -> {
+            try {
+                mealDao.insertMeal(meal);
+                result.postValue(true);
+                syncManager.syncNow(userId);
+            } catch (Exception e) {
+                Log.e("NutritionRepository", "Failed to log meal", e);
+                result.postValue(false);
+            }
+        });
 
         return result;
     }
 
     /**
-     * Get meals for today
+     * Get meals for today - Room first, revalidated from Firestore when stale
      */
     public LiveData<List<MealLogged>> getTodayMeals(String userId) {
-        MutableLiveData<List<MealLogged>> result = new MutableLiveData<>();
-
-        // Get start of today
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar. MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        Date startOfDay = calendar.getTime();
-
-        firestore.collection("mealsLogged")
-                .whereEqualTo("userId", userId)
-                .whereGreaterThanOrEqualTo("loggedAt", new Timestamp(startOfDay))
-                .orderBy("loggedAt", Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<MealLogged> meals = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        MealLogged meal = doc.toObject(MealLogged.class);
-                        meals.add(meal);
-                    }
-                    result.setValue(meals);
-                })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
-
-        return result;
+        long startOfDay = startOfToday();
+        return todayMealsResource(userId, startOfDay, mealDao.getMealsSince(userId, startOfDay));
     }
 
     /**
      * Get meals by meal type for today
      */
     public LiveData<List<MealLogged>> getTodayMealsByType(String userId, String mealType) {
-        MutableLiveData<List<MealLogged>> result = new MutableLiveData<>();
+        long startOfDay = startOfToday();
+        return todayMealsResource(userId, startOfDay, mealDao.getMealsByTypeSince(userId, mealType, startOfDay));
+    }
 
-        // Get start of today
+    /**
+     * Wraps a local meals query; all of today's views share one fetch timestamp and remote query
+     */
+    private LiveData<List<MealLogged>> todayMealsResource(String userId, long startOfDay,
+                                                          LiveData<List<MealLoggedEntity>> local) {
+        return new CachedResource<List<MealLogged>, QuerySnapshot>(
+                database, "todayMeals:" + userId + ":" + startOfDay, Constants.TTL_MEALS_MS) {
+            @Override
+            protected LiveData<List<MealLogged>> loadFromDb() {
+                return Transformations.map(local, NutritionRepository.this::mealEntitiesToModels);
+            }
+
+            @Override
+            protected Task<QuerySnapshot> createCall() {
+                return singleFlight.get(firestore.collection("mealsLogged")
+                        .whereEqualTo("userId", userId)
+                        .whereGreaterThanOrEqualTo("loggedAt", new Timestamp(new Date(startOfDay)))
+                        .orderBy("loggedAt", Query.Direction.ASCENDING));
+            }
+
+            @Override
+            protected void saveCallResult(QuerySnapshot querySnapshot) {
+                // Skip meals deleted locally and meals with pending local changes
+                Set<String> deleted = new HashSet<>(tombstoneDao.getDeletedIds(Constants.COLLECTION_MEALS_LOGGED));
+                for (QueryDocumentSnapshot doc : querySnapshot) {
+                    if (deleted.contains(doc.getId())) continue;
+                    MealLoggedEntity existing = mealDao.getMealByIdSync(doc.getId());
+                    if (existing != null && !existing.isSynced()) continue;
+
+                    MealLogged meal = doc.toObject(MealLogged.class);
+                    meal.setLogId(doc.getId());
+                    MealLoggedEntity entity = mealModelToEntity(meal);
+                    entity.setSynced(true);
+                    mealDao.insertMeal(entity);
+                }
+            }
+        }.load();
+    }
+
+    private static long startOfToday() {
         Calendar calendar = Calendar.getInstance();
         calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar. MINUTE, 0);
+        calendar.set(Calendar.MINUTE, 0);
         calendar.set(Calendar.SECOND, 0);
         calendar.set(Calendar.MILLISECOND, 0);
-        Date startOfDay = calendar.getTime();
-
-        firestore.collection("mealsLogged")
-                .whereEqualTo("userId", userId)
-                .whereEqualTo("mealType", mealType)
-                .whereGreaterThanOrEqualTo("loggedAt", new Timestamp(startOfDay))
-                .orderBy("loggedAt", Query.Direction. ASCENDING)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<MealLogged> meals = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        MealLogged meal = doc.toObject(MealLogged.class);
-                        meals.add(meal);
-                    }
-                    result.setValue(meals);
-                })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
+        return calendar.getTimeInMillis();
+    }
 
-        return result;
+    /**
+     * Delete a logged meal locally and queue the delete for sync
+     */
+    public void deleteMeal(String userId, String logId) {
+        executor.execute(() -> database.runInTransaction(() -> {
+            mealDao.deleteMealById(logId);
+            tombstoneDao.insertTombstone(TombstoneEntity.create(
+                    Constants.COLLECTION_MEALS_LOGGED, logId, userId));
+        }));
     }
 
     // ==================== CONVERSION HELPERS ====================
@@ -284,4 +413,144 @@ public class NutritionRepository {
         entity.setVerified(food.isVerified());
         return entity;
     }
+
+    private NutritionProfileEntity profileModelToEntity(NutritionProfile profile) {
+        NutritionProfileEntity entity = new NutritionProfileEntity();
+        entity.setUserId(profile.getUserId());
+        entity.setVersion(profile.getVersion());
+        entity.setWeight(profile.getWeight());
+        entity.setHeight(profile.getHeight());
+        entity.setAge(profile.getAge());
+        entity.setGender(profile.getGender());
+        entity.setActivityLevel(profile.getActivityLevel());
+        entity.setGoal(profile.getGoal());
+        entity.setBmr(profile.getBmr());
+        entity.setTdee(profile.getTdee());
+        entity.setTargetCalories(profile.getTargetCalories());
+        entity.setTargetProtein(profile.getTargetProtein());
+        entity.setTargetCarbs(profile.getTargetCarbs());
+        entity.setTargetFats(profile.getTargetFats());
+        entity.setCreatedAt(profile.getCreatedAt() != null ? profile.getCreatedAt().toDate().getTime() : 0);
+        entity.setUpdatedAt(profile.getUpdatedAt() != null ? profile.getUpdatedAt().toDate().getTime() : 0);
+        return entity;
+    }
+
+    private NutritionProfile profileEntityToModel(NutritionProfileEntity entity) {
+        if (entity == null) return null;
+        NutritionProfile profile = new NutritionProfile();
+        profile.setProfileId(entity.getUserId());
+        profile.setUserId(entity.getUserId());
+        profile.setVersion(entity.getVersion());
+        profile.setWeight(entity.getWeight());
+        profile.setHeight(entity.getHeight());
+        profile.setAge(entity.getAge());
+        profile.setGender(entity.getGender());
+        profile.setActivityLevel(entity.getActivityLevel());
+        profile.setGoal(entity.getGoal());
+        profile.setBmr(entity.getBmr());
+        profile.setTdee(entity.getTdee());
+        profile.setTargetCalories(entity.getTargetCalories());
+        profile.setTargetProtein(entity.getTargetProtein());
+        profile.setTargetCarbs(entity.getTargetCarbs());
+        profile.setTargetFats(entity.getTargetFats());
+        profile.setCreatedAt(new Timestamp(new Date(entity.getCreatedAt())));
+        profile.setUpdatedAt(new Timestamp(new Date(entity.getUpdatedAt())));
+        return profile;
+    }
+
+    private NutritionProfileHistoryEntity historyFromProfile(NutritionProfileEntity profile) {
+        NutritionProfileHistoryEntity history = new NutritionProfileHistoryEntity();
+        history.setHistoryId(profile.getUserId() + "_" + profile.getVersion());
+        history.setUserId(profile.getUserId());
+        history.setVersion(profile.getVersion());
+        history.setWeight(profile.getWeight());
+        history.setHeight(profile.getHeight());
+        history.setAge(profile.getAge());
+        history.setGender(profile.getGender());
+        history.setActivityLevel(profile.getActivityLevel());
+        history.setGoal(profile.getGoal());
+        history.setBmr(profile.getBmr());
+        history.setTdee(profile.getTdee());
+        history.setTargetCalories(profile.getTargetCalories());
+        history.setTargetProtein(profile.getTargetProtein());
+        history.setTargetCarbs(profile.getTargetCarbs());
+        history.setTargetFats(profile.getTargetFats());
+        history.setRecordedAt(profile.getUpdatedAt());
+        history.setSynced(false);
+        return history;
+    }
+
+    private NutritionProfile historyEntityToModel(NutritionProfileHistoryEntity history) {
+        NutritionProfile profile = new NutritionProfile();
+        profile.setProfileId(history.getHistoryId());
+        profile.setUserId(history.getUserId());
+        profile.setVersion(history.getVersion());
+        profile.setWeight(history.getWeight());
+        profile.setHeight(history.getHeight());
+        profile.setAge(history.getAge());
+        profile.setGender(history.getGender());
+        profile.setActivityLevel(history.getActivityLevel());
+        profile.setGoal(history.getGoal());
+        profile.setBmr(history.getBmr());
+        profile.setTdee(history.getTdee());
+        profile.setTargetCalories(history.getTargetCalories());
+        profile.setTargetProtein(history.getTargetProtein());
+        profile.setTargetCarbs(history.getTargetCarbs());
+        profile.setTargetFats(history.getTargetFats());
+        profile.setCreatedAt(new Timestamp(new Date(history.getRecordedAt())));
+        profile.setUpdatedAt(new Timestamp(new Date(history.getRecordedAt())));
+        return profile;
+    }
+
+    private MealLoggedEntity mealModelToEntity(MealLogged meal) {
+        MealLoggedEntity entity = new MealLoggedEntity();
+        entity.setLogId(meal.getLogId());
+        entity.setUserId(meal.getUserId());
+        entity.setFoodId(meal.getFoodId());
+        entity.setFoodName(meal.getFoodName());
+        entity.setMealType(meal.getMealType());
+        entity.setPortionMultiplier(meal.getPortionMultiplier());
+        entity.setCalories(meal.getCalories());
+        entity.setProtein(meal.getProtein());
+        entity.setCarbs(meal.getCarbs());
+        entity.setFats(meal.getFats());
+        entity.setLoggedAt(meal.getLoggedAt() != null ? meal.getLoggedAt().toDate().getTime() : 0);
+        return entity;
+    }
+
+    private List<MealLogged> mealEntitiesToModels(List<MealLoggedEntity> entities) {
+        List<MealLogged> meals = new ArrayList<>();
+        for (MealLoggedEntity entity : entities) {
+            MealLogged meal = new MealLogged();
+            meal.setLogId(entity.getLogId());
+            meal.setUserId(entity.getUserId());
+            meal.setFoodId(entity.getFoodId());
+            meal.setFoodName(entity.getFoodName());
+            meal.setMealType(entity.getMealType());
+            meal.setPortionMultiplier(entity.getPortionMultiplier());
+            meal.setCalories(entity.getCalories());
+            meal.setProtein(entity.getProtein());
+            meal.setCarbs(entity.getCarbs());
+            meal.setFats(entity.getFats());
+            meal.setLoggedAt(new Timestamp(new Date(entity.getLoggedAt())));
+            meals.add(meal);
+        }
+        return meals;
+    }
+
+    private Food foodEntityToModel(FoodEntity entity) {
+        if (entity == null) return null;
+        Food food = new Food();
+        food.setFoodId(entity.getFoodId());
+        food.setFoodName(entity.getFoodName());
+        food.setBrand(entity.getBrand());
+        food.setServingSize(entity.getServingSize());
+        food.setServingUnit(entity.getServingUnit());
+        food.setCalories(entity.getCalories());
+        food.setProtein(entity.getProtein());
+        food.setCarbs(entity.getCarbs());
+        food.setFats(entity.getFats());
+        food.setVerified(entity.isVerified());
+        return food;
+    }
 }
\ No newline at end of file
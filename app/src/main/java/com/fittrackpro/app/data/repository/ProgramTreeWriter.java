@@ -0,0 +1,309 @@
+package com.fittrackpro.app.data.repository;
+
+import android.util.Log;
+
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.WorkoutProgramDao;
+import com.fittrackpro.app.data.local.entity.WorkoutProgramEntity;
+import com.fittrackpro.app.data.model.ProgramExercise;
+import com.fittrackpro.app.data.model.WorkoutDay;
+import com.fittrackpro.app.data.model.WorkoutProgram;
+import com.fittrackpro.app.util.AppExecutors;
+import com.fittrackpro.app.util.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * ProgramTreeWriter writes a program, its days and their exercises as one change set.
+ *
+ * The change set is validated first (unique day numbers, unique exercise order per day,
+ * exercises only under known days), then committed as Firestore batches of up to 500
+ * operations. The program document goes into the last batch, so a program never appears
+ * without its days; writing a preset also bumps the preset catalog manifest in that batch.
+ * Exercises added to a day the change set does not write (such as a day a copy-on-write
+ * program inherits from its preset) get a stub day document, merged so an existing day is
+ * left as is. The stub has no dayNumber, so day listings skip it, but deletes that walk
+ * workoutDays still find the exercises under it.
+ * Once Firestore accepts the writes the program row is stored in Room in a single
+ * transaction, and the returned Task completes with the program ID.
+ */
+public class ProgramTreeWriter {
+
+    private static final String TAG = "ProgramTreeWriter";
+    private static final int MAX_BATCH_OPERATIONS = 500;
+
+    private final FirebaseFirestore firestore;
+    private final AppDatabase database;
+    private final WorkoutProgramDao programDao;
+    private final Executor executor;
+
+    public ProgramTreeWriter(AppDatabase database) {
+        this.firestore = FirebaseFirestore.getInstance();
+        this.database = database;
+        this.programDao = database.workoutProgramDao();
+        this.executor = AppExecutors.getInstance().newSerialDiskIO();
+    }
+
+    /**
+     * Validate and commit a change set, completing with the program ID
+     */
+    public Task<String> write(ChangeSet changes) {
+        try {
+            validate(changes);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Rejected change set for " + changes.programId + ": " + e.getMessage());
+            return Tasks.forException(e);
+        }
+
+        DocumentReference programRef = firestore.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
+                .document(changes.programId);
+        List<WriteBatch> batches = new ArrayList<>();
+        WriteBatch batch = firestore.batch();
+        int operations = 0;
+
+        for (WorkoutDay day : changes.days) {
+            if (operations == MAX_BATCH_OPERATIONS) {
+                batches.add(batch);
+                batch = firestore.batch();
+                operations = 0;
+            }
+            batch.set(programRef.collection(Constants.COLLECTION_WORKOUT_DAYS).document(day.getDayId()), day);
+            operations++;
+        }
+        Set<String> writtenDays = new HashSet<>();
+        for (WorkoutDay day : changes.days) writtenDays.add(day.getDayId());
+        for (Map.Entry<String, List<ProgramExercise>> entry : changes.exercises.entrySet()) {
+            DocumentReference dayRef = programRef.collection(Constants.COLLECTION_WORKOUT_DAYS)
+                    .document(entry.getKey());
+            if (!writtenDays.contains(entry.getKey())) {
+                if (operations == MAX_BATCH_OPERATIONS) {
+                    batches.add(batch);
+                    batch = firestore.batch();
+                    operations = 0;
+                }
+                batch.set(dayRef, dayStub(changes.programId, entry.getKey()), SetOptions.merge());
+                operations++;
+            }
+            for (ProgramExercise exercise : entry.getValue()) {
+                if (operations == MAX_BATCH_OPERATIONS) {
+                    batches.add(batch);
+                    batch = firestore.batch();
+                    operations = 0;
+                }
+                batch.set(dayRef.collection(Constants.COLLECTION_PROGRAM_EXERCISES)
+                        .document(exercise.getExerciseId()), exercise);
+                operations++;
+            }
+        }
+        if (changes.program != null) {
+            // Program document and, for presets, the catalog manifest bump
+            if (operations >= MAX_BATCH_OPERATIONS - 1) {
+                batches.add(batch);
+                batch = firestore.batch();
+            }
+            batch.set(programRef, changes.program);
+            if (changes.program.isPreset()) {
+                batch.set(presetCatalogManifest(), presetCatalogBump(), SetOptions.merge());
+            }
+        }
+        batches.add(batch);
+
+        return commitInOrder(batches, 0)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "Failed to write program tree " + changes.programId, task.getException());
+                        throw task.getException();
+                    }
+                    if (changes.program != null) {
+                        database.runInTransaction(() -> {
+                            WorkoutProgramEntity entity = changes.toEntity();
+                            entity.setSynced(true);
+                            programDao.insertProgram(entity);
+                        });
+                    }
+                    Log.d(TAG, "Wrote program tree " + changes.programId + ": " + changes.days.size()
+                            + " days, " + changes.exerciseCount() + " exercises");
+                    return changes.programId;
+                });
+    }
+
+    /**
+     * Manifest document whose version tells clients when to download the preset catalog again
+     */
+    public DocumentReference presetCatalogManifest() {
+        return firestore.collection(Constants.COLLECTION_CATALOG).document(Constants.CATALOG_PRESET_PROGRAMS);
+    }
+
+    private static Map<String, Object> dayStub(String programId, String dayId) {
+        Map<String, Object> stub = new HashMap<>();
+        stub.put("dayId", dayId);
+        stub.put("programId", programId);
+        return stub;
+    }
+
+    private static Map<String, Object> presetCatalogBump() {
+        Map<String, Object> manifest = new HashMap<>();
+        manifest.put(Constants.FIELD_CATALOG_VERSION, FieldValue.increment(1));
+        manifest.put("updatedAt", Timestamp.now());
+        return manifest;
+    }
+
+    /**
+     * Bump the preset catalog version after presets were changed outside a change set
+     */
+    public Task<Void> bumpPresetCatalogVersion() {
+        return presetCatalogManifest().set(presetCatalogBump(), SetOptions.merge());
+    }
+
+    /**
+     * Commit batches one after another so the program batch only lands after its days
+     */
+    private Task<Void> commitInOrder(List<WriteBatch> batches, int index) {
+        Task<Void> commit = batches.get(index).commit();
+        if (index == batches.size() - 1) return commit;
+        return commit.onSuccessTask(aVoid -> commitInOrder(batches, index + 1));
+    }
+
+    private static void validate(ChangeSet changes) {
+        if (changes.programId == null) {
+            throw new IllegalArgumentException("Program ID is required");
+        }
+
+        Set<String> dayIds = new HashSet<>();
+        Set<Integer> dayNumbers = new HashSet<>();
+        for (WorkoutDay day : changes.days) {
+            if (day.getDayNumber() < 1) {
+                throw new IllegalArgumentException("Day " + day.getDayId() + " has dayNumber " + day.getDayNumber());
+            }
+            if (!dayNumbers.add(day.getDayNumber())) {
+                throw new IllegalArgumentException("Duplicate dayNumber " + day.getDayNumber());
+            }
+            if (!dayIds.add(day.getDayId())) {
+                throw new IllegalArgumentException("Duplicate day " + day.getDayId());
+            }
+        }
+
+        for (Map.Entry<String, List<ProgramExercise>> entry : changes.exercises.entrySet()) {
+            // A new program must contain every day it adds exercises to
+            if (changes.program != null && !dayIds.contains(entry.getKey())) {
+                throw new IllegalArgumentException("Exercises added to unknown day " + entry.getKey());
+            }
+            Set<Integer> orderIndexes = new HashSet<>();
+            Set<String> exerciseIds = new HashSet<>();
+            for (ProgramExercise exercise : entry.getValue()) {
+                if (exercise.getOrderIndex() < 0) {
+                    throw new IllegalArgumentException("Exercise " + exercise.getExerciseName()
+                            + " has orderIndex " + exercise.getOrderIndex());
+                }
+                if (!orderIndexes.add(exercise.getOrderIndex())) {
+                    throw new IllegalArgumentException("Duplicate orderIndex " + exercise.getOrderIndex()
+                            + " in day " + entry.getKey());
+                }
+                if (!exerciseIds.add(exercise.getExerciseId())) {
+                    throw new IllegalArgumentException("Duplicate exercise " + exercise.getExerciseId()
+                            + " in day " + entry.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Program, days and exercises to write together.
+     * Build one with the program for a new tree, or with just the program ID to add
+     * days or exercises to an existing program. Missing day and exercise IDs are generated.
+     */
+    public static class ChangeSet {
+        final String programId;
+        final WorkoutProgram program;
+        final List<WorkoutDay> days = new ArrayList<>();
+        final Map<String, List<ProgramExercise>> exercises = new LinkedHashMap<>();
+
+        public ChangeSet(WorkoutProgram program) {
+            this.programId = program.getProgramId();
+            this.program = program;
+        }
+
+        public ChangeSet(String programId) {
+            this.programId = programId;
+            this.program = null;
+        }
+
+        public String getProgramId() {
+            return programId;
+        }
+
+        public ChangeSet addDay(WorkoutDay day) {
+            if (day.getDayId() == null) {
+                day.setDayId(FirebaseFirestore.getInstance()
+                        .collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
+                        .document(programId)
+                        .collection(Constants.COLLECTION_WORKOUT_DAYS)
+                        .document().getId());
+            }
+            day.setProgramId(programId);
+            days.add(day);
+            return this;
+        }
+
+        public ChangeSet addExercise(String dayId, ProgramExercise exercise) {
+            if (exercise.getExerciseId() == null) {
+                exercise.setExerciseId(FirebaseFirestore.getInstance()
+                        .collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
+                        .document(programId)
+                        .collection(Constants.COLLECTION_WORKOUT_DAYS)
+                        .document(dayId)
+                        .collection(Constants.COLLECTION_PROGRAM_EXERCISES)
+                        .document().getId());
+            }
+            exercise.setDayId(dayId);
+            List<ProgramExercise> dayExercises = exercises.get(dayId);
+            if (dayExercises == null) {
+                dayExercises = new ArrayList<>();
+                exercises.put(dayId, dayExercises);
+            }
+            dayExercises.add(exercise);
+            return this;
+        }
+
+        int exerciseCount() {
+            int count = 0;
+            for (List<ProgramExercise> dayExercises : exercises.values()) {
+                count += dayExercises.size();
+            }
+            return count;
+        }
+
+        WorkoutProgramEntity toEntity() {
+            WorkoutProgramEntity entity = new WorkoutProgramEntity();
+            entity.setProgramId(programId);
+            entity.setUserId(program.getUserId());
+            entity.setProgramName(program.getProgramName());
+            entity.setDescription(program.getDescription());
+            entity.setDifficulty(program.getDifficulty());
+            entity.setDurationWeeks(program.getDurationWeeks());
+            entity.setDaysPerWeek(program.getDaysPerWeek());
+            entity.setPreset(program.isPreset());
+            entity.setActive(program.isActive());
+            entity.setOriginalPresetId(program.getOriginalPresetId());
+            entity.setInheritsTemplate(program.isInheritsTemplate());
+            entity.setCreatedAt(program.getCreatedAt() != null ? program.getCreatedAt().toDate().getTime() : 0);
+            entity.setUpdatedAt(program.getUpdatedAt() != null ? program.getUpdatedAt().toDate().getTime() : 0);
+            return entity;
+        }
+    }
+}
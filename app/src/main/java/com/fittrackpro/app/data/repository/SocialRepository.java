@@ -1,16 +1,41 @@
 package com.fittrackpro. app.data.repository;
 
+import android.content.Context;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.LeaderboardDao;
+import com.fittrackpro.app.data.local.entity.LeaderboardEntryEntity;
+import com.fittrackpro.app.data.local.entity.LeaderboardHistogramEntity;
 import com.fittrackpro.app.data.model. Friendship;
 import com.fittrackpro.app.data.model.LeaderboardEntry;
+import com.fittrackpro.app.data.model.User;
+import com.fittrackpro.app.sync.SyncManager;
+import com.fittrackpro.app.util.AppExecutors;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.RankEstimator;
+import com.fittrackpro.app.util.SingleFlight;
+import com.fittrackpro.app.util.TimeUtils;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com. google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * SocialRepository manages friendships and leaderboards.
@@ -18,31 +43,50 @@ import java.util.List;
  * Key responsibilities:
  * - Search users by username
  * - Add/remove friends
- * - Fetch global leaderboard
+ * - Serve the materialized global leaderboard and rank estimates
  * - Fetch friends-only leaderboard
+ * - Fetch weekly and monthly volume leaderboards
  */
 public class SocialRepository {
 
+    private static final String FIELD_LIFETIME_VOLUME = "totalVolumeLifted";
+    private static final String FIELD_BUCKET_VOLUME = "volume";
+
     private final FirebaseFirestore firestore;
+    private final SingleFlight singleFlight;
+    private final AppDatabase database;
+    private final LeaderboardDao leaderboardDao;
+    private final Executor diskIO;
+    private final Executor computation;
+    private final SyncManager syncManager;
+    private final UserRepository userRepository;
 
-    public SocialRepository() {
+    public SocialRepository(AppDatabase database, Context context, UserRepository userRepository) {
         this.firestore = FirebaseFirestore.getInstance();
+        this.singleFlight = SingleFlight.getInstance();
+        this.database = database;
+        this.leaderboardDao = database.leaderboardDao();
+        this.diskIO = AppExecutors.getInstance().diskIO();
+        this.computation = AppExecutors.getInstance().computation();
+        this.syncManager = SyncManager.getInstance(context);
+        this.userRepository = userRepository;
     }
 
     // ==================== FRIEND MANAGEMENT ====================
 
     /**
-     * Search users by username
+     * Search users by username prefix (case-insensitive) using the usernames index.
+     * Index entries carry no stats, so totalVolume is left at 0.
      */
     public LiveData<List<LeaderboardEntry>> searchUsersByUsername(String query) {
         MutableLiveData<List<LeaderboardEntry>> result = new MutableLiveData<>();
+        String prefix = AuthRepository.normalizeUsername(query);
 
-        firestore.collection("users")
-                .orderBy("username")
-                .startAt(query)
-                .endAt(query + "\uf8ff")
-                .limit(20)
-                .get()
+        singleFlight.get(firestore.collection(Constants.COLLECTION_USERNAMES)
+                .orderBy(FieldPath.documentId())
+                .startAt(prefix)
+                .endAt(prefix + "\uf8ff")
+                .limit(20))
                 .addOnSuccessListener(querySnapshot -> {
                     List<LeaderboardEntry> users = new ArrayList<>();
                     for (QueryDocumentSnapshot doc : querySnapshot) {
@@ -50,8 +94,6 @@ public class SocialRepository {
                         entry.setUserId(doc. getString("userId"));
                         entry. setUsername(doc.getString("username"));
                         entry.setDisplayName(doc.getString("displayName"));
-                        entry.setTotalVolume(doc.getDouble("totalVolumeLifted") != null ?
-                                doc.getDouble("totalVolumeLifted") : 0.0);
                         users.add(entry);
                     }
                     result.setValue(users);
@@ -117,10 +159,9 @@ public class SocialRepository {
     public LiveData<List<Friendship>> getFriends(String userId) {
         MutableLiveData<List<Friendship>> result = new MutableLiveData<>();
 
-        firestore.collection("friendships")
+        singleFlight.get(firestore.collection("friendships")
                 .whereEqualTo("userId", userId)
-                .orderBy("friendUsername")
-                .get()
+                .orderBy("friendUsername"))
                 .addOnSuccessListener(querySnapshot -> {
                     List<Friendship> friends = new ArrayList<>();
                     for (QueryDocumentSnapshot doc : querySnapshot) {
@@ -137,85 +178,307 @@ public class SocialRepository {
     // ==================== LEADERBOARDS ====================
 
     /**
-     * Get global leaderboard
+     * Get global leaderboard from the local snapshot (see LeaderboardSnapshotWorker).
+     * The current user's row is appended with their exact or estimated rank when they
+     * fall outside the top {@code limit}.
      */
     public LiveData<List<LeaderboardEntry>> getGlobalLeaderboard(String currentUserId, int limit) {
-        MutableLiveData<List<LeaderboardEntry>> result = new MutableLiveData<>();
+        refreshGlobalSnapshotIfStale();
 
-        firestore.collection("users")
-                .orderBy("totalVolumeLifted", Query.Direction.DESCENDING)
-                .limit(limit)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<LeaderboardEntry> entries = new ArrayList<>();
-                    int rank = 1;
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        LeaderboardEntry entry = new LeaderboardEntry();
-                        entry.setUserId(doc.getString("userId"));
-                        entry.setUsername(doc.getString("username"));
-                        entry.setDisplayName(doc.getString("displayName"));
-                        entry.setTotalVolume(doc.getDouble("totalVolumeLifted") != null ?
-                                doc.getDouble("totalVolumeLifted") : 0.0);
-                        entry.setRank(rank++);
-                        entry.setCurrentUser(entry.getUserId().equals(currentUserId));
-                        entries.add(entry);
+        MediatorLiveData<List<LeaderboardEntry>> result = new MediatorLiveData<>();
+        result.addSource(leaderboardDao.getBoard(Constants.LEADERBOARD_GLOBAL), entities ->
+                diskIO.execute(() -> {
+                    List<LeaderboardEntry> board = entitiesToEntries(entities, currentUserId);
+                    List<LeaderboardEntry> window = visibleWindow(board, currentUserId, limit);
+                    if (!board.isEmpty() && !containsUser(window, currentUserId)) {
+                        LeaderboardEntry own = globalRankSync(currentUserId, board);
+                        if (own != null) window.add(own);
                     }
-                    result.setValue(entries);
-                })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
+                    result.postValue(window);
+                }));
+        return result;
+    }
+
+    /**
+     * Get user's global rank - exact inside the snapshot, estimated from the histogram outside it
+     */
+    public LiveData<LeaderboardEntry> getGlobalRank(String userId) {
+        MutableLiveData<LeaderboardEntry> result = new MutableLiveData<>();
+
+        diskIO.execute(() -> result.postValue(globalRankSync(userId,
+                entitiesToEntries(leaderboardDao.getBoardSync(Constants.LEADERBOARD_GLOBAL), userId))));
 
         return result;
     }
 
+    @WorkerThread
+    private LeaderboardEntry globalRankSync(String userId, List<LeaderboardEntry> board) {
+        for (LeaderboardEntry entry : board) {
+            if (userId.equals(entry.getUserId())) return entry;
+        }
+
+        User user = userRepository.getUserSync(userId);
+        List<LeaderboardHistogramEntity> histogram = leaderboardDao.getHistogramSync(Constants.LEADERBOARD_GLOBAL);
+        if (user == null || histogram.isEmpty()) return null;
+
+        // The snapshot cutoff is one more exact histogram point: board.size() users score at or above it
+        List<double[]> points = new ArrayList<>();
+        for (LeaderboardHistogramEntity bucket : histogram) {
+            points.add(new double[]{bucket.getLowerBound(), bucket.getCountAtOrAbove()});
+        }
+        if (!board.isEmpty()) {
+            points.add(new double[]{board.get(board.size() - 1).getTotalVolume(), board.size()});
+        }
+        Collections.sort(points, (a, b) -> Double.compare(a[0], b[0]));
+
+        double[] bounds = new double[points.size()];
+        long[] counts = new long[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            bounds[i] = points.get(i)[0];
+            counts[i] = (long) points.get(i)[1];
+        }
+
+        int rank = RankEstimator.estimateRank(user.getTotalVolumeLifted(), bounds, counts);
+        LeaderboardEntry entry = new LeaderboardEntry(userId, user.getUsername(),
+                user.getDisplayName(), user.getTotalVolumeLifted());
+        entry.setRank(Math.max(rank, board.size() + 1));
+        entry.setRankEstimated(true);
+        entry.setCurrentUser(true);
+        return entry;
+    }
+
+    /**
+     * Queue a snapshot refresh if the local global board is missing or stale
+     */
+    private void refreshGlobalSnapshotIfStale() {
+        diskIO.execute(() -> {
+            Long version = leaderboardDao.getBoardVersion(Constants.LEADERBOARD_GLOBAL);
+            if (version == null || System.currentTimeMillis() - version >= Constants.TTL_GLOBAL_LEADERBOARD_MS) {
+                syncManager.refreshLeaderboardNow();
+            }
+        });
+    }
+
+    private static boolean containsUser(List<LeaderboardEntry> entries, String userId) {
+        for (LeaderboardEntry entry : entries) {
+            if (userId.equals(entry.getUserId())) return true;
+        }
+        return false;
+    }
+
     /**
-     * Get friends-only leaderboard
+     * Get weekly or monthly leaderboard for the current period - Room first, revalidated
+     * from the volumeBuckets collection when stale
+     */
+    public LiveData<List<LeaderboardEntry>> getPeriodLeaderboard(String currentUserId, String period, int limit) {
+        String periodKey = TimeUtils.leaderboardPeriodKey(period, System.currentTimeMillis());
+        String boardKey = "period:" + periodKey;
+        return new CachedResource<List<LeaderboardEntry>, List<LeaderboardEntry>>(
+                database, "periodLeaderboard:" + periodKey, Constants.TTL_PERIOD_LEADERBOARD_MS) {
+            @Override
+            protected LiveData<List<LeaderboardEntry>> loadFromDb() {
+                return Transformations.map(leaderboardDao.getBoard(boardKey), entities ->
+                        visibleWindow(entitiesToEntries(entities, currentUserId), currentUserId, limit));
+            }
+
+            @Override
+            protected Task<List<LeaderboardEntry>> createCall() {
+                return singleFlight.get(firestore.collection(Constants.COLLECTION_VOLUME_BUCKETS)
+                        .whereEqualTo("periodKey", periodKey)
+                        .orderBy(FIELD_BUCKET_VOLUME, Query.Direction.DESCENDING)
+                        .limit(Constants.LEADERBOARD_SNAPSHOT_SIZE))
+                        .continueWith(computation, task -> {
+                            List<LeaderboardEntry> entries = new ArrayList<>();
+                            for (QueryDocumentSnapshot doc : task.getResult()) {
+                                LeaderboardEntry entry = documentToEntry(doc, FIELD_BUCKET_VOLUME);
+                                entry.setRank(entries.size() + 1);
+                                entries.add(entry);
+                            }
+                            return entries;
+                        });
+            }
+
+            @Override
+            protected void saveCallResult(List<LeaderboardEntry> entries) {
+                replaceBoard(boardKey, entries);
+            }
+        }.load();
+    }
+
+    /**
+     * Get all-time friends-only leaderboard
      */
     public LiveData<List<LeaderboardEntry>> getFriendsLeaderboard(String userId) {
-        MutableLiveData<List<LeaderboardEntry>> result = new MutableLiveData<>();
+        return getFriendsLeaderboard(userId, Constants.LEADERBOARD_PERIOD_ALL_TIME);
+    }
 
-        // First get friend IDs
-        firestore.collection("friendships")
-                .whereEqualTo("userId", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<String> friendIds = new ArrayList<>();
-                    friendIds.add(userId); // Include current user
+    /**
+     * Get friends-only leaderboard for a period - Room first, revalidated from Firestore when stale.
+     * Shows the top {@link Constants#LEADERBOARD_DEFAULT_LIMIT} plus the current user's row.
+     */
+    public LiveData<List<LeaderboardEntry>> getFriendsLeaderboard(String userId, String period) {
+        String periodKey = Constants.LEADERBOARD_PERIOD_ALL_TIME.equals(period) ? null
+                : TimeUtils.leaderboardPeriodKey(period, System.currentTimeMillis());
+        String suffix = periodKey != null ? ":" + periodKey : "";
+        String boardKey = "friends:" + userId + suffix;
+        return new CachedResource<List<LeaderboardEntry>, List<LeaderboardEntry>>(
+                database, "friendsLeaderboard:" + userId + suffix, Constants.TTL_FRIENDS_LEADERBOARD_MS) {
+            @Override
+            protected LiveData<List<LeaderboardEntry>> loadFromDb() {
+                return Transformations.map(leaderboardDao.getBoard(boardKey), entities ->
+                        visibleWindow(entitiesToEntries(entities, userId), userId,
+                                Constants.LEADERBOARD_DEFAULT_LIMIT));
+            }
 
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        friendIds.add(doc.getString("friendUserId"));
+            @Override
+            protected Task<List<LeaderboardEntry>> createCall() {
+                return fetchFriendsBoard(userId, periodKey);
+            }
+
+            @Override
+            protected void saveCallResult(List<LeaderboardEntry> entries) {
+                replaceBoard(boardKey, entries);
+            }
+        }.load();
+    }
+
+    /**
+     * Query every friend in parallel whereIn chunks and merge the sorted chunks.
+     * A null periodKey ranks by lifetime volume, otherwise by that period's bucket.
+     */
+    private Task<List<LeaderboardEntry>> fetchFriendsBoard(String userId, String periodKey) {
+        String volumeField = periodKey == null ? FIELD_LIFETIME_VOLUME : FIELD_BUCKET_VOLUME;
+        return singleFlight.get(firestore.collection("friendships")
+                .whereEqualTo("userId", userId))
+                .continueWithTask(task -> {
+                    Set<String> friendIds = new LinkedHashSet<>();
+                    friendIds.add(userId); // Include current user
+                    for (QueryDocumentSnapshot doc : task.getResult()) {
+                        String friendId = doc.getString("friendUserId");
+                        if (friendId != null) friendIds.add(friendId);
                     }
 
-                    if (friendIds.isEmpty()) {
-                        result.setValue(new ArrayList<>());
-                        return;
+                    List<String> ids = new ArrayList<>(friendIds);
+                    List<Task<QuerySnapshot>> chunks = new ArrayList<>();
+                    for (int i = 0; i < ids.size(); i += Constants.FIRESTORE_WHERE_IN_LIMIT) {
+                        List<String> chunk = ids.subList(i, Math.min(ids.size(), i + Constants.FIRESTORE_WHERE_IN_LIMIT));
+                        Query query = periodKey == null
+                                ? firestore.collection(Constants.COLLECTION_USERS)
+                                        .whereIn("userId", chunk)
+                                : firestore.collection(Constants.COLLECTION_VOLUME_BUCKETS)
+                                        .whereEqualTo("periodKey", periodKey)
+                                        .whereIn("userId", chunk);
+                        chunks.add(singleFlight.get(query.orderBy(volumeField, Query.Direction.DESCENDING)));
                     }
 
-                    // Fetch user data for all friends
-                    // Note:  Firestore has limit of 10 items in "in" query, need to batch if more friends
-                    firestore.collection("users")
-                            .whereIn("userId", friendIds. subList(0, Math.min(friendIds.size(), 10)))
-                            .orderBy("totalVolumeLifted", Query.Direction.DESCENDING)
-                            .get()
-                            .addOnSuccessListener(userSnapshot -> {
-                                List<LeaderboardEntry> entries = new ArrayList<>();
-                                int rank = 1;
-                                for (QueryDocumentSnapshot doc :  userSnapshot) {
-                                    LeaderboardEntry entry = new LeaderboardEntry();
-                                    entry. setUserId(doc.getString("userId"));
-                                    entry.setUsername(doc.getString("username"));
-                                    entry.setDisplayName(doc.getString("displayName"));
-                                    entry.setTotalVolume(doc.getDouble("totalVolumeLifted") != null ?
-                                            doc. getDouble("totalVolumeLifted") : 0.0);
-                                    entry.setRank(rank++);
-                                    entry.setCurrentUser(entry.getUserId().equals(userId));
-                                    entries.add(entry);
-                                }
-                                result. setValue(entries);
-                            })
-                            .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
+                    return Tasks.<QuerySnapshot>whenAllSuccess(chunks);
                 })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
+                .continueWith(computation, task -> {
+                    List<List<LeaderboardEntry>> sortedChunks = new ArrayList<>();
+                    for (QuerySnapshot snapshot : task.getResult()) {
+                        List<LeaderboardEntry> chunk = new ArrayList<>();
+                        for (QueryDocumentSnapshot doc : snapshot) {
+                            chunk.add(documentToEntry(doc, volumeField));
+                        }
+                        sortedChunks.add(chunk);
+                    }
+                    return mergeByVolume(sortedChunks, userId);
+                });
+    }
 
-        return result;
+    /**
+     * K-way merge of chunks already sorted by volume descending, assigning ranks
+     */
+    private static List<LeaderboardEntry> mergeByVolume(List<List<LeaderboardEntry>> sortedChunks,
+                                                        String currentUserId) {
+        // Heap holds {chunk index, position in chunk}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, sortedChunks.size()),
+                (a, b) -> Double.compare(
+                        sortedChunks.get(b[0]).get(b[1]).getTotalVolume(),
+                        sortedChunks.get(a[0]).get(a[1]).getTotalVolume()));
+        int total = 0;
+        for (int i = 0; i < sortedChunks.size(); i++) {
+            if (!sortedChunks.get(i).isEmpty()) heap.add(new int[]{i, 0});
+            total += sortedChunks.get(i).size();
+        }
+
+        List<LeaderboardEntry> merged = new ArrayList<>(total);
+        while (!heap.isEmpty()) {
+            int[] head = heap.poll();
+            LeaderboardEntry entry = sortedChunks.get(head[0]).get(head[1]);
+            entry.setRank(merged.size() + 1);
+            entry.setCurrentUser(currentUserId.equals(entry.getUserId()));
+            merged.add(entry);
+            if (head[1] + 1 < sortedChunks.get(head[0]).size()) {
+                heap.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Top {@code limit} entries, plus the current user's entry if they rank below the window
+     */
+    private static List<LeaderboardEntry> visibleWindow(List<LeaderboardEntry> board, String currentUserId,
+                                                        int limit) {
+        if (board.size() <= limit) return new ArrayList<>(board);
+
+        List<LeaderboardEntry> window = new ArrayList<>(board.subList(0, limit));
+        for (int i = limit; i < board.size(); i++) {
+            if (currentUserId.equals(board.get(i).getUserId())) {
+                window.add(board.get(i));
+                break;
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Replace a cached board in one transaction
+     */
+    private void replaceBoard(String boardKey, List<LeaderboardEntry> entries) {
+        long now = System.currentTimeMillis();
+        List<LeaderboardEntryEntity> entities = new ArrayList<>(entries.size());
+        for (LeaderboardEntry entry : entries) {
+            LeaderboardEntryEntity entity = new LeaderboardEntryEntity();
+            entity.setBoardKey(boardKey);
+            entity.setUserId(entry.getUserId());
+            entity.setUsername(entry.getUsername());
+            entity.setDisplayName(entry.getDisplayName());
+            entity.setTotalVolume(entry.getTotalVolume());
+            entity.setRank(entry.getRank());
+            entity.setVersion(now);
+            entities.add(entity);
+        }
+
+        database.runInTransaction(() -> {
+            leaderboardDao.deleteBoard(boardKey);
+            leaderboardDao.insertEntries(entities);
+        });
+    }
+
+    // Conversion helpers
+    private static LeaderboardEntry documentToEntry(DocumentSnapshot doc, String volumeField) {
+        LeaderboardEntry entry = new LeaderboardEntry();
+        entry.setUserId(doc.getString("userId"));
+        entry.setUsername(doc.getString("username"));
+        entry.setDisplayName(doc.getString("displayName"));
+        entry.setTotalVolume(doc.getDouble(volumeField) != null ?
+                doc.getDouble(volumeField) : 0.0);
+        return entry;
+    }
+
+    private static List<LeaderboardEntry> entitiesToEntries(List<LeaderboardEntryEntity> entities,
+                                                            String currentUserId) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (entities == null) return entries;
+        for (LeaderboardEntryEntity entity : entities) {
+            LeaderboardEntry entry = new LeaderboardEntry(entity.getUserId(), entity.getUsername(),
+                    entity.getDisplayName(), entity.getTotalVolume());
+            entry.setRank(entity.getRank());
+            entry.setCurrentUser(entity.getUserId().equals(currentUserId));
+            entries.add(entry);
+        }
+        return entries;
     }
-}
\ No newline at end of file
+}
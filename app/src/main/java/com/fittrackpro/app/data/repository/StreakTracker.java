@@ -0,0 +1,180 @@
+package com.fittrackpro.app.data.repository;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.StreakDao;
+import com.fittrackpro.app.data.local.dao.UserDao;
+import com.fittrackpro.app.data.local.entity.StreakDayEntity;
+import com.fittrackpro.app.data.local.entity.StreakEntity;
+import com.fittrackpro.app.data.local.entity.UserEntity;
+import com.fittrackpro.app.util.TimeUtils;
+
+import java.util.List;
+
+/**
+ * StreakTracker maintains each user's current and longest workout streak in Room.
+ *
+ * Every tracked workout is pinned to the local epoch day it was done on, so travelling
+ * across timezones later does not move it. Saving a workout on a new latest day extends or
+ * restarts the run in O(1); a backdated or deleted workout only repairs the run around its
+ * day. Tracking is idempotent per workout, so rows re-inserted by sync can be passed in again.
+ * The stored run is adjusted against today when read, so reads are O(1).
+ */
+public class StreakTracker {
+
+    private final AppDatabase database;
+    private final StreakDao streakDao;
+    private final UserDao userDao;
+
+    public StreakTracker(AppDatabase database) {
+        this.database = database;
+        this.streakDao = database.streakDao();
+        this.userDao = database.userDao();
+    }
+
+    /**
+     * Count a completed workout toward the streak
+     */
+    @WorkerThread
+    public void onWorkoutSaved(String userId, String workoutId, long startTimeMillis) {
+        long day = TimeUtils.localEpochDay(startTimeMillis);
+        database.runInTransaction(() -> {
+            boolean newDay = !streakDao.hasDay(userId, day);
+            if (streakDao.insertDay(new StreakDayEntity(workoutId, userId, day)) == -1 || !newDay) {
+                return;
+            }
+
+            StreakEntity streak = streakDao.getStreakSync(userId);
+            if (streak == null) streak = new StreakEntity(userId);
+
+            if (streak.getCurrentStreak() == 0 || day > streak.getLastEpochDay() + 1) {
+                streak.setCurrentStreak(1);
+                streak.setLastEpochDay(day);
+            } else if (day == streak.getLastEpochDay() + 1) {
+                streak.setCurrentStreak(streak.getCurrentStreak() + 1);
+                streak.setLastEpochDay(day);
+            } else {
+                // Backdated: the new day may bridge two runs, possibly into the current one
+                long first = firstDayOfRun(userId, day);
+                long last = lastDayOfRun(userId, day);
+                int run = (int) (last - first + 1);
+                if (last == streak.getLastEpochDay()) {
+                    streak.setCurrentStreak(run);
+                }
+                streak.setLongestStreak(Math.max(streak.getLongestStreak(), run));
+            }
+            streak.setLongestStreak(Math.max(streak.getLongestStreak(), streak.getCurrentStreak()));
+            save(streak);
+        });
+    }
+
+    /**
+     * Remove a deleted workout from the streak
+     */
+    @WorkerThread
+    public void onWorkoutDeleted(String workoutId) {
+        database.runInTransaction(() -> {
+            StreakDayEntity row = streakDao.getDay(workoutId);
+            if (row == null) return;
+            String userId = row.getUserId();
+            long day = row.getEpochDay();
+            int runBefore = (int) (lastDayOfRun(userId, day) - firstDayOfRun(userId, day) + 1);
+
+            streakDao.deleteDay(workoutId);
+            if (streakDao.hasDay(userId, day)) return; // Another workout keeps the day
+
+            StreakEntity streak = streakDao.getStreakSync(userId);
+            if (streak == null) return;
+
+            long last = streak.getLastEpochDay();
+            if (day == last) {
+                Long previous = streakDao.getLatestDayBefore(userId, day);
+                if (previous == null) {
+                    streak.setCurrentStreak(0);
+                    streak.setLastEpochDay(0);
+                } else {
+                    streak.setLastEpochDay(previous);
+                    streak.setCurrentStreak((int) (previous - firstDayOfRun(userId, previous) + 1));
+                }
+            } else if (day < last && day > last - streak.getCurrentStreak()) {
+                // Splits the current run; only the days after it still count
+                streak.setCurrentStreak((int) (last - day));
+            }
+
+            if (runBefore >= streak.getLongestStreak()) {
+                streak.setLongestStreak(longestRun(userId));
+            }
+            save(streak);
+        });
+    }
+
+    /**
+     * Streak as of today; 0 if the last workout day was before yesterday
+     */
+    @WorkerThread
+    public int getCurrentStreakSync(String userId) {
+        return currentAsOfToday(streakDao.getStreakSync(userId));
+    }
+
+    public LiveData<Integer> getCurrentStreak(String userId) {
+        return Transformations.map(streakDao.getStreak(userId), StreakTracker::currentAsOfToday);
+    }
+
+    public LiveData<Integer> getLongestStreak(String userId) {
+        return Transformations.map(streakDao.getStreak(userId),
+                streak -> streak == null ? 0 : streak.getLongestStreak());
+    }
+
+    public LiveData<StreakEntity> getStreak(String userId) {
+        return streakDao.getStreak(userId);
+    }
+
+    private static int currentAsOfToday(StreakEntity streak) {
+        if (streak == null) return 0;
+        long today = TimeUtils.localEpochDay(System.currentTimeMillis());
+        return today - streak.getLastEpochDay() <= 1 ? streak.getCurrentStreak() : 0;
+    }
+
+    private void save(StreakEntity streak) {
+        streakDao.upsertStreak(streak);
+
+        // Keep the profile's streak current; DataSyncWorker uploads the unsynced user row
+        UserEntity user = userDao.getUserByIdSync(streak.getUserId());
+        int current = currentAsOfToday(streak);
+        if (user != null && user.getCurrentStreak() != current) {
+            user.setCurrentStreak(current);
+            user.setUpdatedAt(System.currentTimeMillis());
+            user.setSynced(false);
+            userDao.updateUser(user);
+        }
+    }
+
+    private long firstDayOfRun(String userId, long day) {
+        while (streakDao.hasDay(userId, day - 1)) day--;
+        return day;
+    }
+
+    private long lastDayOfRun(String userId, long day) {
+        while (streakDao.hasDay(userId, day + 1)) day++;
+        return day;
+    }
+
+    /**
+     * Full scan, only needed when the longest run may have been shortened
+     */
+    private int longestRun(String userId) {
+        List<Long> days = streakDao.getDays(userId);
+        int longest = 0;
+        int run = 0;
+        long previous = Long.MIN_VALUE;
+        for (long day : days) {
+            run = day == previous + 1 ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,180 @@
+package com.fittrackpro.app.data.repository;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.WorkoutSetDao;
+import com.fittrackpro.app.data.local.entity.WorkoutSetEntity;
+import com.fittrackpro.app.data.model.ExerciseTemplate;
+import com.fittrackpro.app.data.model.TrainingLoad;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.ExerciseLibrary;
+import com.fittrackpro.app.util.RollingLoadWindow;
+import com.fittrackpro.app.util.TimeUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TrainingLoadTracker keeps rolling training load per user and per muscle group in memory.
+ *
+ * Load is set volume (weight × reps) on the local epoch day of the workout; muscle groups
+ * are weighted like the muscle heatmap. Each user's windows are built from the last five
+ * weeks of workout_sets in one pass on first use, then fed by every workout commit, so
+ * reading the acute:chronic ratio never rescans history. Deleting a workout marks the
+ * user stale and the next read rebuilds.
+ *
+ * The tracker's lock only guards the in-memory windows and is never held across a Room
+ * call, so it cannot deadlock with a caller's transaction. A rebuild that overlapped a
+ * change to history is returned but not kept.
+ */
+public class TrainingLoadTracker {
+
+    private final WorkoutSetDao setDao;
+    private final Map<String, UserLoad> users = new HashMap<>();
+    private final MutableLiveData<Long> changes = new MutableLiveData<>(0L);
+    private long generation;
+    private int pendingInserts;
+
+    public TrainingLoadTracker(AppDatabase database) {
+        this.setDao = database.workoutSetDao();
+    }
+
+    /**
+     * Call before the transaction that stores a workout's sets. Until the matching
+     * {@link #endInsert} a rebuild is not kept, so it cannot count the sets twice.
+     */
+    public void beginInsert() {
+        synchronized (this) {
+            pendingInserts++;
+        }
+    }
+
+    /**
+     * Call once the transaction committed, with its sets, or rolled back, with null; committed
+     * sets are added to the windows
+     */
+    public void endInsert(String userId, List<WorkoutSetEntity> sets) {
+        long version;
+        synchronized (this) {
+            pendingInserts--;
+            version = ++generation;
+            UserLoad load = users.get(userId);
+            // Without windows the sets are counted when history is rebuilt on first read
+            if (load != null && sets != null) {
+                for (WorkoutSetEntity set : sets) {
+                    if (Constants.SET_STATUS_COMPLETED.equals(set.getStatus())
+                            || Constants.SET_STATUS_MODIFIED.equals(set.getStatus())) {
+                        load.add(set);
+                    }
+                }
+            }
+        }
+        changes.postValue(version);
+    }
+
+    /**
+     * Forget a user's windows after history changed in a way that cannot be applied incrementally.
+     * Call after the change is committed, or a rebuild could keep the windows from before it.
+     */
+    public void invalidate(String userId) {
+        long version;
+        synchronized (this) {
+            users.remove(userId);
+            version = ++generation;
+        }
+        changes.postValue(version);
+    }
+
+    /**
+     * Emits after every change to the windows, for reads that should follow new workouts
+     */
+    public LiveData<Long> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Load for the user, or for one muscle group if {@code muscleGroup} is not null
+     */
+    @WorkerThread
+    public TrainingLoad getLoadSync(String userId, String muscleGroup) {
+        long today = TimeUtils.localEpochDay(System.currentTimeMillis());
+        UserLoad load;
+        long startGeneration;
+        boolean quiet;
+        synchronized (this) {
+            load = users.get(userId);
+            startGeneration = generation;
+            quiet = pendingInserts == 0;
+        }
+
+        if (load == null) {
+            load = rebuild(userId, today);
+            synchronized (this) {
+                if (quiet && pendingInserts == 0 && generation == startGeneration) {
+                    users.put(userId, load);
+                }
+            }
+        }
+
+        synchronized (this) {
+            RollingLoadWindow window = muscleGroup == null ? load.total : load.muscles.get(muscleGroup);
+            if (window == null) return new TrainingLoad(0, 0, 0, 0);
+            window.advanceTo(today);
+            return new TrainingLoad(window.getAcuteLoad(), window.getChronicLoad(),
+                    window.getPreviousAcuteLoad(), window.getPreviousChronicLoad());
+        }
+    }
+
+    /**
+     * One pass over the sets still inside the windows
+     */
+    private UserLoad rebuild(String userId, long today) {
+        long now = System.currentTimeMillis();
+        long from = TimeUtils.startOfDay(now - TimeUnit.DAYS.toMillis(
+                RollingLoadWindow.CHRONIC_DAYS + RollingLoadWindow.ACUTE_DAYS));
+        UserLoad load = new UserLoad(today);
+        for (WorkoutSetEntity set : setDao.getCompletedSetsInRange(userId, from, TimeUtils.startOfNextDay(now))) {
+            load.add(set);
+        }
+        return load;
+    }
+
+    private static class UserLoad {
+        final RollingLoadWindow total = new RollingLoadWindow();
+        final Map<String, RollingLoadWindow> muscles = new HashMap<>();
+        final long createdDay;
+
+        UserLoad(long today) {
+            this.createdDay = today;
+            total.advanceTo(today);
+        }
+
+        void add(WorkoutSetEntity set) {
+            long day = TimeUtils.localEpochDay(set.getPerformedAt());
+            double volume = set.getWeight() * set.getReps();
+            total.add(day, volume);
+
+            ExerciseTemplate exercise = ExerciseLibrary.findByName(set.getExerciseName());
+            if (exercise == null) return;
+            muscle(exercise.getMuscleGroup()).add(day, volume);
+            for (String secondary : exercise.getSecondaryMuscles()) {
+                muscle(secondary).add(day, volume * Constants.MUSCLE_SECONDARY_WEIGHT);
+            }
+        }
+
+        private RollingLoadWindow muscle(String muscleGroup) {
+            RollingLoadWindow window = muscles.get(muscleGroup);
+            if (window == null) {
+                window = new RollingLoadWindow();
+                window.advanceTo(createdDay);
+                muscles.put(muscleGroup, window);
+            }
+            return window;
+        }
+    }
+}
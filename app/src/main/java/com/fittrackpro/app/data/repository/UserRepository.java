@@ -2,19 +2,24 @@ package com.fittrackpro.app.data.repository;
 
 import android.content.Context;
 import android.util.Log;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Transformations;
 import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.RoomObjectCache;
 import com.fittrackpro.app.data.local.dao.UserDao;
 import com.fittrackpro.app.data.local.entity.UserEntity;
 import com.fittrackpro.app.data.model.User;
 import com.fittrackpro.app.sync.SyncManager;
+import com.fittrackpro.app.util.AppExecutors;
 import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.SingleFlight;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * UserRepository manages user data sync between Firestore and Room.
@@ -25,46 +30,69 @@ import java.util.concurrent.Executors;
 public class UserRepository {
 
     private final FirebaseFirestore firestore;
+    private final SingleFlight singleFlight;
+    private final AppDatabase database;
     private final UserDao userDao;
+    private final RoomObjectCache<String, User> userCache;
     private final Executor executor;
+    private final Executor callbackExecutor;
     private final SyncManager syncManager;
+    private final StreakTracker streakTracker;
 
     public UserRepository(AppDatabase database, Context context) {
         this.firestore = FirebaseFirestore.getInstance();
+        this.singleFlight = SingleFlight.getInstance();
+        this.database = database;
         this.userDao = database.userDao();
-        this.executor = Executors.newSingleThreadExecutor();
+        this.userCache = new RoomObjectCache<>("users", database, Constants.CACHE_USERS_BYTES,
+                user -> 128 + RoomObjectCache.stringBytes(user.getUserId(), user.getEmail(),
+                        user.getUsername(), user.getDisplayName()),
+                "users");
+        this.executor = AppExecutors.getInstance().newSerialDiskIO();
+        this.callbackExecutor = AppExecutors.getInstance().networkIO();
         this.syncManager = SyncManager.getInstance(context);
+        this.streakTracker = new StreakTracker(database);
     }
 
     /**
-     * Get user - reads from Room, syncs from Firestore in background
+     * Get user - reads from Room, revalidates from Firestore in background when stale
      */
     public LiveData<User> getUser(String userId) {
-        // Return Room LiveData immediately for instant UI
-        LiveData<UserEntity> localData = userDao.getUserById(userId);
+        return new CachedResource<User, DocumentSnapshot>(
+                database, "user:" + userId, Constants.TTL_USER_MS) {
+            @Override
+            protected LiveData<User> loadFromDb() {
+                return Transformations.map(userDao.getUserById(userId), UserRepository.this::convertToModel);
+            }
+
+            @Override
+            protected Task<DocumentSnapshot> createCall() {
+                return singleFlight.get(firestore.collection(Constants.COLLECTION_USERS)
+                        .document(userId));
+            }
 
-        // Fetch from Firestore in background and update Room
-        fetchUserFromFirestore(userId);
+            @Override
+            protected void saveCallResult(DocumentSnapshot documentSnapshot) {
+                if (!documentSnapshot.exists()) return;
+                UserEntity local = userDao.getUserByIdSync(userId);
+                if (local != null && !local.isSynced()) return; // pending local edit wins
 
-        // Transform Entity to Model
-        return Transformations.map(localData, this::convertToModel);
+                User user = documentSnapshot.toObject(User.class);
+                if (user != null) {
+                    UserEntity entity = convertToEntity(user);
+                    entity.setSynced(true);
+                    userDao.insertUser(entity);
+                }
+            }
+        }.load();
     }
 
-    private void fetchUserFromFirestore(String userId) {
-        firestore.collection(Constants.COLLECTION_USERS)
-                .document(userId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
-                        if (user != null) {
-                            // Update Room with fresh data
-                            UserEntity entity = convertToEntity(user);
-                            entity.setSynced(true);
-                            executor.execute(() -> userDao.insertUser(entity));
-                        }
-                    }
-                });
+    /**
+     * Get user from the in-memory cache, falling back to Room. The result is shared; do not modify it
+     */
+    @WorkerThread
+    public User getUserSync(String userId) {
+        return userCache.get(userId, id -> convertToModel(userDao.getUserByIdSync(id)));
     }
 
     /**
@@ -74,7 +102,7 @@ public class UserRepository {
         UserEntity entity = convertToEntity(user);
         entity.setSynced(false);
         
-        new Thread(() -> {
+        executor.execute(() -> {
             try {
                 userDao.updateUser(entity);
                 syncManager.syncNow(user.getUserId());
@@ -83,7 +111,7 @@ public class UserRepository {
                 // Still attempt Firestore sync
                 syncManager.syncNow(user.getUserId());
             }
-        }).start();
+        });
     }
 
     /**
@@ -102,7 +130,7 @@ public class UserRepository {
                 firestore.collection(Constants.COLLECTION_USERS)
                         .document(userId)
                         .update("displayName", displayName, "updatedAt", Timestamp.now())
-                        .addOnSuccessListener(aVoid -> {
+                        .addOnSuccessListener(callbackExecutor, aVoid -> {
                             user.setSynced(true);
                             userDao.updateUser(user);
                             if (listener != null) listener.onSuccess();
@@ -120,11 +148,12 @@ public class UserRepository {
 
     /**
      * Update user stats in Firestore
-     * Call this after completing a workout
+     * Call this after completing a workout; the streak comes from the maintained StreakTracker
      */
-    public void updateUserStats(String userId, int totalWorkouts, int currentStreak,
-                                double totalVolume, int activePrograms) {
+    public void updateUserStats(String userId, int totalWorkouts, double totalVolume, int activePrograms) {
         executor.execute(() -> {
+            int currentStreak = streakTracker.getCurrentStreakSync(userId);
+
             // Update Room first
             UserEntity user = userDao.getUserByIdSync(userId);
             if (user != null) {
@@ -146,7 +175,7 @@ public class UserRepository {
                                 "activePrograms", activePrograms,
                                 "updatedAt", Timestamp.now()
                         )
-                        .addOnSuccessListener(aVoid -> {
+                        .addOnSuccessListener(callbackExecutor, aVoid -> {
                             user.setSynced(true);
                             userDao.updateUser(user);
                         })
@@ -164,7 +193,7 @@ public class UserRepository {
     public void createUser(User user, OnCompleteListener listener) {
         UserEntity entity = convertToEntity(user);
         
-        new Thread(() -> {
+        executor.execute(() -> {
             try {
                 userDao.insertUser(entity);
                 
@@ -172,7 +201,7 @@ public class UserRepository {
                 firestore.collection(Constants.COLLECTION_USERS)
                     .document(user.getUserId())
                     .set(user)
-                    .addOnSuccessListener(aVoid -> {
+                    .addOnSuccessListener(callbackExecutor, aVoid -> {
                         entity.setSynced(true);
                         try {
                             userDao.updateUser(entity);
@@ -192,7 +221,7 @@ public class UserRepository {
                 Log.e("UserRepository", "Failed to insert user in Room", e);
                 if (listener != null) listener.onFailure(e);
             }
-        }).start();
+        });
     }
 
     /**
@@ -201,6 +230,9 @@ public class UserRepository {
     public void clearCache() {
         executor.execute(() -> {
             userDao.deleteAllUsers();
+            database.fetchTimestampDao().deleteAll();
+            database.leaderboardDao().deleteAll();
+            database.leaderboardDao().deleteAllHistograms();
         });
     }
 
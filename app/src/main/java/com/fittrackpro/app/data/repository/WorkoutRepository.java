@@ -1,31 +1,70 @@
 package com.fittrackpro.app.data.repository;
 
 import android.util.Log;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.RoomObjectCache;
+import com.fittrackpro.app.data.local.dao.CatalogVersionDao;
 import com.fittrackpro.app.data.local.dao.CompletedWorkoutDao;
+import com.fittrackpro.app.data.local.dao.ExerciseDailyStatsDao;
 import com.fittrackpro.app.data.local.dao.PersonalRecordDao;
+import com.fittrackpro.app.data.local.dao.TombstoneDao;
 import com.fittrackpro.app.data.local.dao.WorkoutProgramDao;
+import com.fittrackpro.app.data.local.dao.WorkoutSetDao;
+import com.fittrackpro.app.data.local.entity.CatalogVersionEntity;
 import com.fittrackpro.app.data.local.entity.CompletedWorkoutEntity;
+import com.fittrackpro.app.data.local.entity.ExerciseDailyStatsEntity;
 import com.fittrackpro.app.data.local.entity.PersonalRecordEntity;
+import com.fittrackpro.app.data.local.entity.TombstoneEntity;
 import com.fittrackpro.app.data.local.entity.WorkoutProgramEntity;
+import com.fittrackpro.app.data.local.entity.WorkoutSetEntity;
 import com.fittrackpro.app.data.model.CompletedWorkout;
+import com.fittrackpro.app.data.model.MuscleHeatmap;
 import com.fittrackpro.app.data.model.PersonalRecord;
 import com.fittrackpro.app.data.model.ProgramExercise;
+import com.fittrackpro.app.data.model.ProgressionPoint;
+import com.fittrackpro.app.data.model.TrainingLoad;
 import com.fittrackpro.app.data.model.WorkoutDay;
 import com.fittrackpro.app.data.model.WorkoutProgram;
+import com.fittrackpro.app.data.model.WorkoutPeriodStats;
 import com.fittrackpro.app.data.model.WorkoutSet;
+import com.fittrackpro.app.sync.VolumeBuckets;
+import com.fittrackpro.app.util.AppExecutors;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.Downsampler;
+import com.fittrackpro.app.util.PRDetector;
+import com.fittrackpro.app.util.ProgramTemplateResolver;
+import com.fittrackpro.app.util.SingleFlight;
+import com.fittrackpro.app.util.TimeUtils;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * WorkoutRepository manages workout programs, days, exercises, and completed workouts.
@@ -41,141 +80,226 @@ import java.util.concurrent.Executors;
 public class WorkoutRepository {
 
     private final FirebaseFirestore firestore;
+    private final SingleFlight singleFlight;
+    private final AppDatabase database;
     private final WorkoutProgramDao programDao;
     private final CompletedWorkoutDao workoutDao;
     private final PersonalRecordDao recordDao;
+    private final WorkoutSetDao setDao;
+    private final ExerciseDailyStatsDao dailyStatsDao;
+    private final StreakTracker streakTracker;
+    private final MuscleVolumeAggregator muscleAggregator;
+    private final TrainingLoadTracker trainingLoad;
+    private final TombstoneDao tombstoneDao;
+    private final CatalogVersionDao catalogDao;
+    private final ProgramTreeWriter treeWriter;
+    private final RoomObjectCache<String, WorkoutProgram> programCache;
+    private final RoomObjectCache<String, PRDetector.Index> prIndexCache;
     private final Executor executor;
+    private volatile String oneRepMaxFormula = Constants.DEFAULT_E1RM_FORMULA;
 
     public WorkoutRepository(AppDatabase database) {
         this.firestore = FirebaseFirestore.getInstance();
+        this.singleFlight = SingleFlight.getInstance();
+        this.database = database;
         this.programDao = database.workoutProgramDao();
         this.workoutDao = database.completedWorkoutDao();
+        this.setDao = database.workoutSetDao();
+        this.dailyStatsDao = database.exerciseDailyStatsDao();
+        this.streakTracker = new StreakTracker(database);
+        this.muscleAggregator = new MuscleVolumeAggregator(database);
+        this.trainingLoad = new TrainingLoadTracker(database);
         this.recordDao = database.personalRecordDao();
-        this.executor = Executors.newSingleThreadExecutor();
+        this.tombstoneDao = database.tombstoneDao();
+        this.catalogDao = database.catalogVersionDao();
+        this.treeWriter = new ProgramTreeWriter(database);
+        this.programCache = new RoomObjectCache<>("programs", database, Constants.CACHE_PROGRAMS_BYTES,
+                program -> 160 + RoomObjectCache.stringBytes(program.getProgramId(), program.getUserId(),
+                        program.getProgramName(), program.getDescription(), program.getDifficulty(),
+                        program.getOriginalPresetId()),
+                "workout_programs");
+        this.prIndexCache = new RoomObjectCache<>("prIndex", database, Constants.CACHE_PR_INDEX_BYTES,
+                index -> 64 + 480 * index.size(), "personal_records");
+        this.executor = AppExecutors.getInstance().newSerialDiskIO();
     }
 
     // ==================== WORKOUT PROGRAMS ====================
 
     /**
-     * Fetch all preset programs from Firestore
+     * Fetch all preset programs - Room first. When stale only the catalog manifest is read,
+     * and the catalog is downloaded again only if its version differs from the local copy
      */
     public LiveData<List<WorkoutProgram>> getPresetPrograms() {
-        MutableLiveData<List<WorkoutProgram>> result = new MutableLiveData<>();
+        return new CachedResource<List<WorkoutProgram>, PresetCatalog>(
+                database, "presetPrograms", Constants.TTL_PRESET_MANIFEST_MS) {
+            @Override
+            protected LiveData<List<WorkoutProgram>> loadFromDb() {
+                return Transformations.map(programDao.getPresetPrograms(),
+                        WorkoutRepository.this::programEntitiesToModels);
+            }
 
-        firestore.collection("workoutPrograms")
-                .whereEqualTo("isPreset", true)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<WorkoutProgram> programs = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        WorkoutProgram program = doc.toObject(WorkoutProgram.class);
-                        programs.add(program);
-                    }
-                    result.setValue(programs);
+            @Override
+            protected Task<PresetCatalog> createCall() {
+                return singleFlight.get(treeWriter.presetCatalogManifest())
+                        .continueWithTask(executor, manifestTask -> {
+                            long remoteVersion = catalogVersion(manifestTask.getResult());
+                            Long localVersion = catalogDao.getVersion(Constants.CATALOG_PRESET_PROGRAMS);
+                            if (remoteVersion > 0 && localVersion != null && localVersion == remoteVersion) {
+                                Log.d("WorkoutRepository", "Preset catalog v" + remoteVersion + " is current");
+                                return Tasks.forResult(new PresetCatalog(remoteVersion, null));
+                            }
+                            return singleFlight.get(firestore.collection("workoutPrograms")
+                                            .whereEqualTo("isPreset", true))
+                                    .continueWith(task -> new PresetCatalog(remoteVersion, task.getResult()));
+                        });
+            }
 
-                    // Cache in Room
-                    executor.execute(() -> {
-                        List<WorkoutProgramEntity> entities = new ArrayList<>();
-                        for (WorkoutProgram p : programs) {
-                            entities.add(programModelToEntity(p));
-                        }
-                        programDao.insertPrograms(entities);
-                    });
-                })
-                .addOnFailureListener(e -> {
-                    result.setValue(new ArrayList<>());
+            @Override
+            protected void saveCallResult(PresetCatalog catalog) {
+                if (catalog.programs == null || catalog.programs.isEmpty()) return;
+                database.runInTransaction(() -> {
+                    programDao.deletePresetPrograms();
+                    programDao.insertPrograms(programSnapshotToEntities(catalog.programs));
+                    catalogDao.upsert(new CatalogVersionEntity(Constants.CATALOG_PRESET_PROGRAMS,
+                            catalog.version, System.currentTimeMillis()));
                 });
+                Log.d("WorkoutRepository", "Downloaded preset catalog v" + catalog.version
+                        + " (" + catalog.programs.size() + " programs)");
+            }
+        }.load();
+    }
 
-        return result;
+    private static long catalogVersion(DocumentSnapshot manifest) {
+        Long version = manifest.getLong(Constants.FIELD_CATALOG_VERSION);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Preset catalog download; programs is null when the local copy is already current
+     */
+    private static class PresetCatalog {
+        final long version;
+        final QuerySnapshot programs;
+
+        PresetCatalog(long version, QuerySnapshot programs) {
+            this.version = version;
+            this.programs = programs;
+        }
     }
 
     /**
-     * Fetch user's active programs
+     * Fetch user's active programs - Room first, revalidated from Firestore when stale
      */
     public LiveData<List<WorkoutProgram>> getUserActivePrograms(String userId) {
-        MutableLiveData<List<WorkoutProgram>> result = new MutableLiveData<>();
+        return new CachedResource<List<WorkoutProgram>, QuerySnapshot>(
+                database, "activePrograms:" + userId, Constants.TTL_ACTIVE_PROGRAMS_MS) {
+            @Override
+            protected LiveData<List<WorkoutProgram>> loadFromDb() {
+                return Transformations.map(programDao.getActivePrograms(userId),
+                        WorkoutRepository.this::programEntitiesToModels);
+            }
 
-        firestore.collection("workoutPrograms")
-                .whereEqualTo("userId", userId)
-                .whereEqualTo("isActive", true)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<WorkoutProgram> programs = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        WorkoutProgram program = doc. toObject(WorkoutProgram. class);
-                        programs.add(program);
-                    }
-                    result.setValue(programs);
+            @Override
+            protected Task<QuerySnapshot> createCall() {
+                return singleFlight.get(firestore.collection("workoutPrograms")
+                        .whereEqualTo("userId", userId)
+                        .whereEqualTo("isActive", true));
+            }
 
-                    // Cache in Room
-                    executor.execute(() -> {
-                        List<WorkoutProgramEntity> entities = new ArrayList<>();
-                        for (WorkoutProgram p : programs) {
-                            entities.add(programModelToEntity(p));
+            @Override
+            protected void saveCallResult(QuerySnapshot querySnapshot) {
+                database.runInTransaction(() -> {
+                    Set<String> remoteIds = new HashSet<>();
+                    for (QueryDocumentSnapshot doc : querySnapshot) remoteIds.add(doc.getId());
+
+                    // Deactivated or deleted on another device; unsynced local edits are kept
+                    List<WorkoutProgramEntity> dropped = new ArrayList<>();
+                    for (WorkoutProgramEntity local : programDao.getActiveProgramsSync(userId)) {
+                        if (local.isSynced() && !remoteIds.contains(local.getProgramId())) {
+                            local.setActive(false);
+                            dropped.add(local);
                         }
-                        programDao.insertPrograms(entities);
-                    });
-                })
-                .addOnFailureListener(e -> {
-                    result. setValue(new ArrayList<>());
+                    }
+                    programDao.insertPrograms(dropped);
+                    programDao.insertPrograms(programSnapshotToEntities(querySnapshot));
                 });
-
-        return result;
+            }
+        }.load();
     }
 
     /**
-     * Get program by ID
+     * Get program by ID - Room first, revalidated from Firestore when stale
      */
     public LiveData<WorkoutProgram> getProgramById(String programId) {
-        MutableLiveData<WorkoutProgram> result = new MutableLiveData<>();
+        return new CachedResource<WorkoutProgram, DocumentSnapshot>(
+                database, "program:" + programId, Constants.TTL_ACTIVE_PROGRAMS_MS) {
+            @Override
+            protected LiveData<WorkoutProgram> loadFromDb() {
+                return Transformations.map(programDao.getProgramById(programId),
+                        WorkoutRepository.this::programEntityToModel);
+            }
 
-        firestore.collection("workoutPrograms")
-                .document(programId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    WorkoutProgram program = documentSnapshot.toObject(WorkoutProgram.class);
-                    result.setValue(program);
+            @Override
+            protected Task<DocumentSnapshot> createCall() {
+                return singleFlight.get(firestore.collection("workoutPrograms")
+                        .document(programId));
+            }
 
-                    if (program != null) {
-                        executor.execute(() -> {
-                            programDao.insertProgram(programModelToEntity(program));
-                        });
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    result. setValue(null);
-                });
+            @Override
+            protected void saveCallResult(DocumentSnapshot documentSnapshot) {
+                if (!documentSnapshot.exists()) return;
+                if (deletedIds(Constants.COLLECTION_WORKOUT_PROGRAMS).contains(programId)) return;
+                WorkoutProgramEntity local = programDao.getProgramByIdSync(programId);
+                if (local != null && !local.isSynced()) return;
+
+                WorkoutProgram program = documentSnapshot.toObject(WorkoutProgram.class);
+                if (program == null) return;
+                program.setProgramId(programId);
+                WorkoutProgramEntity entity = programModelToEntity(program);
+                entity.setSynced(true);
+                programDao.insertProgram(entity);
+            }
+        }.load();
+    }
 
-        return result;
+    /**
+     * Convert a program query to entities, skipping local deletes and unsynced local edits
+     */
+    private List<WorkoutProgramEntity> programSnapshotToEntities(QuerySnapshot querySnapshot) {
+        Set<String> deleted = deletedIds(Constants.COLLECTION_WORKOUT_PROGRAMS);
+        List<WorkoutProgramEntity> entities = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : querySnapshot) {
+            if (deleted.contains(doc.getId())) continue;
+            WorkoutProgramEntity local = programDao.getProgramByIdSync(doc.getId());
+            if (local != null && !local.isSynced()) continue;
+
+            WorkoutProgram program = doc.toObject(WorkoutProgram.class);
+            program.setProgramId(doc.getId());
+            WorkoutProgramEntity entity = programModelToEntity(program);
+            entity.setSynced(true);
+            entities.add(entity);
+        }
+        return entities;
     }
 
     /**
-     * Duplicate preset program for user editing
+     * Duplicate preset program for user editing.
+     * The copy references the preset and stores no days or exercises of its own until the
+     * user changes one, so starting a program is a single document write.
      */
     public LiveData<String> duplicatePresetProgram(String presetId, String userId) {
         MutableLiveData<String> result = new MutableLiveData<>();
-        
-        Log.d("WorkoutRepository", "duplicatePresetProgram called - presetId: " + presetId + ", userId: " + userId);
 
-        // Fetch preset program
-        firestore.collection("workoutPrograms")
-                .document(presetId)
-                .get()
+        singleFlight.get(firestore.collection("workoutPrograms").document(presetId))
                 .addOnSuccessListener(documentSnapshot -> {
-                    Log.d("WorkoutRepository", "Successfully fetched preset document");
-                    
                     WorkoutProgram preset = documentSnapshot.toObject(WorkoutProgram.class);
                     if (preset == null) {
-                        Log.e("WorkoutRepository", "Preset program is null - document might not exist or has invalid data");
+                        Log.e("WorkoutRepository", "Preset program not found: " + presetId);
                         result.setValue(null);
                         return;
                     }
-                    
-                    Log.d("WorkoutRepository", "Preset program found: " + preset.getProgramName());
 
-                    // Create new program document
                     String newProgramId = firestore.collection("workoutPrograms").document().getId();
-                    Log.d("WorkoutRepository", "Generated new program ID: " + newProgramId);
 
                     WorkoutProgram newProgram = new WorkoutProgram();
                     newProgram.setProgramId(newProgramId);
@@ -188,19 +312,14 @@ public class WorkoutRepository {
                     newProgram.setPreset(false);
                     newProgram.setActive(true);
                     newProgram.setOriginalPresetId(presetId);
+                    newProgram.setInheritsTemplate(true);
                     newProgram.setCreatedAt(Timestamp.now());
                     newProgram.setUpdatedAt(Timestamp.now());
 
-                    Log.d("WorkoutRepository", "Saving new program to Firestore: " + newProgram.getProgramName());
-                    
-                    // Save new program
-                    firestore.collection("workoutPrograms")
-                            .document(newProgramId)
-                            .set(newProgram)
-                            .addOnSuccessListener(aVoid -> {
-                                Log.d("WorkoutRepository", "New program saved successfully, now duplicating workout days");
-                                // Now duplicate workout days
-                                duplicateWorkoutDays(presetId, newProgramId, result);
+                    treeWriter.write(new ProgramTreeWriter.ChangeSet(newProgram))
+                            .addOnSuccessListener(programId -> {
+                                Log.d("WorkoutRepository", "Program " + programId + " created from preset " + presetId);
+                                result.setValue(programId);
                             })
                             .addOnFailureListener(e -> {
                                 Log.e("WorkoutRepository", "Failed to save new program", e);
@@ -216,116 +335,28 @@ public class WorkoutRepository {
     }
 
     /**
-     * Helper to duplicate workout days from preset
+     * Get program from the in-memory cache, falling back to Room. The result is shared; do not modify it
      */
-    private void duplicateWorkoutDays(String sourceId, String targetId, MutableLiveData<String> result) {
-        Log.d("WorkoutRepository", "duplicateWorkoutDays - sourceId: " + sourceId + ", targetId: " + targetId);
-        
-        firestore.collection("workoutPrograms")
-                .document(sourceId)
-                .collection("workoutDays")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    Log.d("WorkoutRepository", "Found " + querySnapshot.size() + " workout days to duplicate");
-                    
-                    if (querySnapshot.isEmpty()) {
-                        Log.w("WorkoutRepository", "No workout days found, completing duplication");
-                        result.setValue(targetId);
-                        return;
-                    }
-
-                    int[] counter = {0};
-                    int total = querySnapshot.size();
-
-                    for (QueryDocumentSnapshot dayDoc : querySnapshot) {
-                        WorkoutDay day = dayDoc.toObject(WorkoutDay.class);
-                        String newDayId = firestore.collection("workoutPrograms")
-                                .document(targetId)
-                                .collection("workoutDays")
-                                .document().getId();
-
-                        Log.d("WorkoutRepository", "Duplicating day: " + day.getDayName() + " -> " + newDayId);
-
-                        day.setDayId(newDayId);
-                        day.setProgramId(targetId);
-
-                        firestore.collection("workoutPrograms")
-                                .document(targetId)
-                                .collection("workoutDays")
-                                .document(newDayId)
-                                .set(day)
-                                .addOnSuccessListener(aVoid -> {
-                                    Log.d("WorkoutRepository", "Day saved successfully, duplicating exercises");
-                                    // Duplicate exercises for this day
-                                    duplicateExercises(sourceId, dayDoc.getId(), targetId, newDayId);
-
-                                    counter[0]++;
-                                    Log.d("WorkoutRepository", "Progress: " + counter[0] + "/" + total + " days duplicated");
-                                    if (counter[0] == total) {
-                                        Log.d("WorkoutRepository", "All workout days duplicated successfully!");
-                                        result.setValue(targetId);
-                                    }
-                                })
-                                .addOnFailureListener(e -> {
-                                    Log.e("WorkoutRepository", "Failed to save workout day", e);
-                                    result.setValue(null);
-                                });
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("WorkoutRepository", "Failed to fetch workout days", e);
-                    result.setValue(null);
-                });
+    @WorkerThread
+    public WorkoutProgram getProgramSync(String programId) {
+        return programCache.get(programId, id -> programEntityToModel(programDao.getProgramByIdSync(id)));
     }
 
     /**
-     * Helper to duplicate exercises
+     * Program from the local cache, else the Firestore document, or null if neither could be read
      */
-    private void duplicateExercises(String sourceProgramId, String sourceDayId,
-                                    String targetProgramId, String targetDayId) {
-        Log.d("WorkoutRepository", "duplicateExercises - sourceDayId: " + sourceDayId + ", targetDayId: " + targetDayId);
-        
-        firestore.collection("workoutPrograms")
-                .document(sourceProgramId)
-                .collection("workoutDays")
-                .document(sourceDayId)
-                .collection("programExercises")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    Log.d("WorkoutRepository", "Found " + querySnapshot.size() + " exercises to duplicate");
-                    
-                    for (QueryDocumentSnapshot exDoc : querySnapshot) {
-                        ProgramExercise exercise = exDoc.toObject(ProgramExercise.class);
-                        String newExId = firestore.collection("workoutPrograms")
-                                .document(targetProgramId)
-                                .collection("workoutDays")
-                                .document(targetDayId)
-                                .collection("programExercises")
-                                .document().getId();
-
-                        Log.d("WorkoutRepository", "Duplicating exercise: " + exercise.getExerciseName() + " -> " + newExId);
-
-                        exercise.setExerciseId(newExId);
-                        exercise.setDayId(targetDayId);
-
-                        firestore.collection("workoutPrograms")
-                                .document(targetProgramId)
-                                .collection("workoutDays")
-                                .document(targetDayId)
-                                .collection("programExercises")
-                                .document(newExId)
-                                .set(exercise)
-                                .addOnSuccessListener(aVoid -> {
-                                    Log.d("WorkoutRepository", "Exercise saved successfully: " + exercise.getExerciseName());
-                                })
-                                .addOnFailureListener(e -> {
-                                    Log.e("WorkoutRepository", "Failed to save exercise: " + exercise.getExerciseName(), e);
-                                });
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("WorkoutRepository", "Failed to fetch exercises for day " + sourceDayId, e);
-                });
+    private Task<WorkoutProgram> loadProgram(String programId) {
+        TaskCompletionSource<WorkoutProgram> local = new TaskCompletionSource<>();
+        executor.execute(() -> local.setResult(getProgramSync(programId)));
+        return local.getTask().continueWithTask(localTask -> {
+            if (localTask.getResult() != null) return Tasks.forResult(localTask.getResult());
+            return singleFlight.get(firestore.collection("workoutPrograms").document(programId))
+                    .continueWith(task -> task.isSuccessful() ? task.getResult().toObject(WorkoutProgram.class) : null);
+        });
+    }
+
+    private static boolean inheritsTemplate(WorkoutProgram program) {
+        return program != null && program.isInheritsTemplate() && program.getOriginalPresetId() != null;
     }
 
     /**
@@ -350,10 +381,8 @@ public class WorkoutRepository {
         program.setCreatedAt(Timestamp.now());
         program.setUpdatedAt(Timestamp.now());
 
-        firestore. collection("workoutPrograms")
-                .document(programId)
-                .set(program)
-                .addOnSuccessListener(aVoid -> result.setValue(programId))
+        treeWriter.write(new ProgramTreeWriter.ChangeSet(program))
+                .addOnSuccessListener(result::setValue)
                 .addOnFailureListener(e -> result.setValue(null));
 
         return result;
@@ -362,54 +391,60 @@ public class WorkoutRepository {
     // ==================== WORKOUT DAYS ====================
 
     /**
-     * Get workout days for a program
+     * Get workout days for a program, resolved against its preset for copy-on-write programs
      */
     public LiveData<List<WorkoutDay>> getWorkoutDays(String programId) {
         MutableLiveData<List<WorkoutDay>> result = new MutableLiveData<>();
 
-        firestore. collection("workoutPrograms")
-                .document(programId)
-                .collection("workoutDays")
-                .orderBy("dayNumber")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<WorkoutDay> days = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        WorkoutDay day = doc. toObject(WorkoutDay.class);
-                        days.add(day);
+        loadProgram(programId)
+                .continueWithTask(programTask -> {
+                    WorkoutProgram program = programTask.getResult();
+                    Task<QuerySnapshot> own = singleFlight.get(workoutDaysQuery(programId));
+                    if (!inheritsTemplate(program)) {
+                        return own.continueWith(task -> toWorkoutDays(task.getResult()));
                     }
-                    result.setValue(days);
+                    Task<QuerySnapshot> template = singleFlight.get(workoutDaysQuery(program.getOriginalPresetId()));
+                    return Tasks.whenAllSuccess(template, own).continueWith(task ->
+                            ProgramTemplateResolver.resolveDays(programId,
+                                    toWorkoutDays(template.getResult()), toWorkoutDays(own.getResult())));
                 })
+                .addOnSuccessListener(result::setValue)
                 .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
 
         return result;
     }
 
+    private Query workoutDaysQuery(String programId) {
+        return firestore.collection("workoutPrograms")
+                .document(programId)
+                .collection("workoutDays")
+                .orderBy("dayNumber");
+    }
+
+    private static List<WorkoutDay> toWorkoutDays(QuerySnapshot querySnapshot) {
+        List<WorkoutDay> days = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : querySnapshot) {
+            WorkoutDay day = doc.toObject(WorkoutDay.class);
+            if (day.getDayId() == null) day.setDayId(doc.getId());
+            days.add(day);
+        }
+        return days;
+    }
+
     /**
      * Add workout day to program
      */
     public LiveData<Boolean> addWorkoutDay(String programId, String dayName, int dayNumber) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
 
-        String dayId = firestore.collection("workoutPrograms")
-                .document(programId)
-                .collection("workoutDays")
-                .document().getId();
-
         WorkoutDay day = new WorkoutDay();
-        day.setDayId(dayId);
-        day.setProgramId(programId);
         day.setDayName(dayName);
         day.setDayNumber(dayNumber);
         day.setWarmupEnabled(true);
         day.setCooldownEnabled(true);
 
-        firestore.collection("workoutPrograms")
-                .document(programId)
-                .collection("workoutDays")
-                .document(dayId)
-                .set(day)
-                .addOnSuccessListener(aVoid -> result.setValue(true))
+        treeWriter.write(new ProgramTreeWriter.ChangeSet(programId).addDay(day))
+                .addOnSuccessListener(id -> result.setValue(true))
                 .addOnFailureListener(e -> result.setValue(false));
 
         return result;
@@ -418,55 +453,59 @@ public class WorkoutRepository {
     // ==================== EXERCISES ====================
 
     /**
-     * Get exercises for a workout day
+     * Get exercises for a workout day, resolved against the preset for copy-on-write programs
      */
     public LiveData<List<ProgramExercise>> getExercisesForDay(String programId, String dayId) {
         MutableLiveData<List<ProgramExercise>> result = new MutableLiveData<>();
 
-        firestore.collection("workoutPrograms")
-                .document(programId)
-                .collection("workoutDays")
-                .document(dayId)
-                .collection("programExercises")
-                .orderBy("orderIndex")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<ProgramExercise> exercises = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        ProgramExercise exercise = doc.toObject(ProgramExercise.class);
-                        exercises.add(exercise);
+        loadProgram(programId)
+                .continueWithTask(programTask -> {
+                    WorkoutProgram program = programTask.getResult();
+                    Task<QuerySnapshot> own = singleFlight.get(exercisesQuery(programId, dayId));
+                    if (!inheritsTemplate(program)) {
+                        return own.continueWith(task -> toProgramExercises(task.getResult()));
                     }
-                    result.setValue(exercises);
+                    Task<QuerySnapshot> template = singleFlight.get(
+                            exercisesQuery(program.getOriginalPresetId(), dayId));
+                    return Tasks.whenAllSuccess(template, own).continueWith(task ->
+                            ProgramTemplateResolver.resolveExercises(dayId,
+                                    toProgramExercises(template.getResult()), toProgramExercises(own.getResult())));
                 })
+                .addOnSuccessListener(result::setValue)
                 .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
 
         return result;
     }
 
+    private Query exercisesQuery(String programId, String dayId) {
+        return firestore.collection("workoutPrograms")
+                .document(programId)
+                .collection("workoutDays")
+                .document(dayId)
+                .collection("programExercises")
+                .orderBy("orderIndex");
+    }
+
+    private static List<ProgramExercise> toProgramExercises(QuerySnapshot querySnapshot) {
+        List<ProgramExercise> exercises = new ArrayList<>();
+        for (QueryDocumentSnapshot doc : querySnapshot) {
+            ProgramExercise exercise = doc.toObject(ProgramExercise.class);
+            if (exercise.getExerciseId() == null) exercise.setExerciseId(doc.getId());
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+
     /**
      * Add exercise to workout day
      */
     public LiveData<Boolean> addExercise(String programId, String dayId, ProgramExercise exercise) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
 
-        String exerciseId = firestore.collection("workoutPrograms")
-                .document(programId)
-                .collection("workoutDays")
-                .document(dayId)
-                .collection("programExercises")
-                .document().getId();
-
-        exercise.setExerciseId(exerciseId);
-        exercise.setDayId(dayId);
+        exercise.setExerciseId(null); // always added as a new exercise
 
-        firestore.collection("workoutPrograms")
-                .document(programId)
-                .collection("workoutDays")
-                .document(dayId)
-                .collection("programExercises")
-                .document(exerciseId)
-                .set(exercise)
-                .addOnSuccessListener(aVoid -> result.setValue(true))
+        treeWriter.write(new ProgramTreeWriter.ChangeSet(programId).addExercise(dayId, exercise))
+                .addOnSuccessListener(id -> result.setValue(true))
                 .addOnFailureListener(e -> result.setValue(false));
 
         return result;
@@ -490,10 +529,11 @@ public class WorkoutRepository {
 
         // Save to Room FIRST for instant UI update
         executor.execute(() -> {
-            workoutDao.insertWorkout(workoutModelToEntity(workout));
+            saveWorkoutHistorySync(userId, workout, sets);
             
             // Detect PRs from sets
-            detectAndSavePersonalRecords(userId, sets);
+            savePersonalRecordsSync(PRDetector.detectPRs(userId, sets, personalRecordIndex(userId),
+                    oneRepMaxFormula));
             
             result.postValue(true); // Immediately return success
             
@@ -531,136 +571,514 @@ public class WorkoutRepository {
                 continue; // Don't save skipped sets
             }
 
-            String setId = firestore.collection("completedWorkouts")
-                    .document(workoutId)
-                    .collection("workoutSets")
-                    .document().getId();
-
-            set.setSetId(setId);
+            if (set.getSetId() == null) {
+                set.setSetId(newSetId(workoutId));
+            }
             set.setWorkoutId(workoutId);
 
             firestore.collection("completedWorkouts")
                     .document(workoutId)
                     .collection("workoutSets")
-                    .document(setId)
+                    .document(set.getSetId())
                     .set(set);
         }
     }
 
+    private String newSetId(String workoutId) {
+        return firestore.collection("completedWorkouts")
+                .document(workoutId)
+                .collection("workoutSets")
+                .document().getId();
+    }
+
     /**
-     * Detect personal records from workout sets
+     * Save a finished workout: its history goes to Room first, then the workout, its sets, the
+     * user's totals and the leaderboard buckets commit to Firestore in one batch. The batch
+     * creates the workout document under a new ID, so the buckets count it exactly once.
      */
-    private void detectAndSavePersonalRecords(String userId, List<WorkoutSet> sets) {
+    public LiveData<Boolean> saveFinishedWorkout(String userId, CompletedWorkout workout,
+                                                 List<WorkoutSet> sets) {
+        MutableLiveData<Boolean> result = new MutableLiveData<>();
+        String workoutId = firestore.collection(Constants.COLLECTION_COMPLETED_WORKOUTS).document().getId();
+        workout.setWorkoutId(workoutId);
+        workout.setUserId(userId);
+        // Firestore keeps the batch in its offline queue until it commits, so the Room row is
+        // stored as synced; DataSyncWorker only uploads it if the server rejects the batch
+        workout.setSynced(true);
+
         executor.execute(() -> {
-            for (WorkoutSet set : sets) {
-                if (! set.getStatus().equals("completed") && !set.getStatus().equals("modified")) {
-                    continue;
-                }
+            saveWorkoutHistorySync(userId, workout, sets);
+            uploadFinishedWorkout(userId, workout, sets)
+                    .addOnSuccessListener(aVoid -> result.postValue(true))
+                    .addOnFailureListener(e -> {
+                        Log.e("WorkoutRepository", "Failed to save workout to Firestore", e);
+                        executor.execute(() -> workoutDao.markUnsynced(workoutId, e.getMessage()));
+                        result.postValue(false);
+                    });
+        });
+        return result;
+    }
 
-                String exerciseName = set.getExerciseName();
-                double weight = set.getWeight();
-                int reps = set.getReps();
-                double volume = weight * reps;
+    @WorkerThread
+    private Task<Void> uploadFinishedWorkout(String userId, CompletedWorkout workout, List<WorkoutSet> sets) {
+        WriteBatch batch = firestore.batch();
+        DocumentReference workoutRef = firestore.collection(Constants.COLLECTION_COMPLETED_WORKOUTS)
+                .document(workout.getWorkoutId());
+        batch.set(workoutRef, workout);
+        batch.update(workoutRef, Constants.FIELD_LEADERBOARD_COUNTED, true);
 
-                // Check weight PR
-                PersonalRecordEntity weightPR = recordDao.getBestRecord(userId, exerciseName, "weight");
-                if (weightPR == null || weight > weightPR.getValue()) {
-                    savePersonalRecord(userId, exerciseName, "weight", weight, reps);
-                }
+        for (WorkoutSet set : sets) {
+            if (Constants.SET_STATUS_SKIPPED.equals(set.getStatus())) continue;
+            set.setWorkoutId(workout.getWorkoutId());
+            batch.set(workoutRef.collection(Constants.COLLECTION_WORKOUT_SETS).document(set.getSetId()), set);
+        }
 
-                // Check rep PR (at same weight)
-                PersonalRecordEntity repPR = recordDao. getBestRecord(userId, exerciseName, "reps");
-                if (repPR == null || (weight == repPR.getValue() && reps > repPR.getReps())) {
-                    savePersonalRecord(userId, exerciseName, "reps", weight, reps);
-                }
+        batch.update(firestore.collection(Constants.COLLECTION_USERS).document(userId),
+                "totalWorkouts", FieldValue.increment(1),
+                "totalVolumeLifted", FieldValue.increment(workout.getTotalVolume()));
 
-                // Check volume PR (single set)
-                PersonalRecordEntity volumePR = recordDao.getBestRecord(userId, exerciseName, "volume");
-                if (volumePR == null || volume > volumePR.getValue()) {
-                    savePersonalRecord(userId, exerciseName, "volume", volume, reps);
-                }
+        long completedAt = workout.getEndTime() != null ? workout.getEndTime().toDate().getTime()
+                : System.currentTimeMillis();
+        for (Map.Entry<DocumentReference, Map<String, Object>> bucket : VolumeBuckets.increments(firestore,
+                userId, database.userDao().getUserByIdSync(userId), completedAt,
+                workout.getTotalVolume(), 1).entrySet()) {
+            batch.set(bucket.getKey(), bucket.getValue(), SetOptions.merge());
+        }
+        return batch.commit();
+    }
+
+    /**
+     * Store the workout row, which the dashboard rollups read, and its logged sets in Room, so
+     * PRs can be rebuilt from history (see PRRecomputeWorker), and count the workout toward
+     * the streak. Sets without an ID get the one they will be uploaded with. Rows, rollups and
+     * streak commit together; training load picks the sets up after the commit.
+     */
+    @WorkerThread
+    private void saveWorkoutHistorySync(String userId, CompletedWorkout workout, List<WorkoutSet> sets) {
+        long performedAt = workout.getStartTime() != null ? workout.getStartTime().toDate().getTime()
+                : System.currentTimeMillis();
+        List<WorkoutSetEntity> entities = new ArrayList<>();
+        for (WorkoutSet set : sets) {
+            if (Constants.SET_STATUS_SKIPPED.equals(set.getStatus())) continue;
+            if (set.getSetId() == null) {
+                set.setSetId(newSetId(workout.getWorkoutId()));
             }
+
+            WorkoutSetEntity entity = new WorkoutSetEntity();
+            entity.setSetId(set.getSetId());
+            entity.setWorkoutId(workout.getWorkoutId());
+            entity.setUserId(userId);
+            entity.setExerciseName(set.getExerciseName());
+            entity.setSetNumber(set.getSetNumber());
+            entity.setWeight(set.getWeight());
+            entity.setReps(set.getReps());
+            entity.setStatus(set.getStatus());
+            entity.setPerformedAt(performedAt);
+            entities.add(entity);
+        }
+
+        trainingLoad.beginInsert();
+        boolean committed = false;
+        try {
+            database.runInTransaction(() -> {
+                workoutDao.insertWorkout(workoutModelToEntity(workout));
+                setDao.insertSets(entities);
+                refreshDailyStatsSync(userId, Collections.singleton(TimeUtils.startOfDay(performedAt)));
+                muscleAggregator.refreshWeek(userId, performedAt);
+                streakTracker.onWorkoutSaved(userId, workout.getWorkoutId(), performedAt);
+            });
+            committed = true;
+        } finally {
+            trainingLoad.endInsert(userId, committed ? entities : null);
+        }
+    }
+
+    /**
+     * Current workout streak, 0 once a day without a workout has passed
+     */
+    public LiveData<Integer> getCurrentStreak(String userId) {
+        return streakTracker.getCurrentStreak(userId);
+    }
+
+    /**
+     * Longest run of consecutive workout days ever
+     */
+    public LiveData<Integer> getLongestStreak(String userId) {
+        return streakTracker.getLongestStreak(userId);
+    }
+
+    // ==================== ROLLUPS ====================
+
+    /**
+     * Exact workout count, duration and volume for workouts started in [start, end).
+     * Aggregated in Room over the (userId, startTime) index and re-emitted on every change.
+     */
+    public LiveData<WorkoutPeriodStats> getPeriodStats(String userId, long start, long end) {
+        return workoutDao.getPeriodStats(userId, start, end);
+    }
+
+    /**
+     * Stats for consecutive periods, e.g. the last 12 weeks for a chart.
+     * Period i spans [boundaries[i], boundaries[i + 1]); one indexed aggregate per period.
+     */
+    public LiveData<List<WorkoutPeriodStats>> getPeriodStats(String userId, long[] boundaries) {
+        MutableLiveData<List<WorkoutPeriodStats>> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            List<WorkoutPeriodStats> periods = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                periods.add(workoutDao.getPeriodStatsSync(userId, boundaries[i], boundaries[i + 1]));
+            }
+            result.postValue(periods);
         });
+        return result;
     }
 
     /**
-     * Save personal record
+     * Weighted sets and volume per muscle group for the last {@code weeks} ISO weeks
      */
-    private void savePersonalRecord(String userId, String exerciseName, String recordType,
-                                    double value, int reps) {
-        String recordId = firestore.collection("personalRecords").document().getId();
+    public LiveData<MuscleHeatmap> getMuscleHeatmap(String userId, int weeks) {
+        return muscleAggregator.getHeatmap(userId, weeks);
+    }
 
-        PersonalRecord record = new PersonalRecord();
-        record.setRecordId(recordId);
-        record.setUserId(userId);
-        record.setExerciseName(exerciseName);
-        record.setRecordType(recordType);
-        record.setValue(value);
-        record.setReps(reps);
-        record.setAchievedAt(Timestamp.now());
+    /**
+     * Acute:chronic training load for the user, or for one muscle group if not null
+     */
+    public LiveData<TrainingLoad> getTrainingLoad(String userId, String muscleGroup) {
+        MediatorLiveData<TrainingLoad> result = new MediatorLiveData<>();
+        // Re-read after every workout commit, delete or backfill that touches the windows
+        result.addSource(trainingLoad.getChanges(), version -> executor.execute(() ->
+                result.postValue(trainingLoad.getLoadSync(userId, muscleGroup))));
+        return result;
+    }
 
-        firestore.collection("personalRecords")
-                .document(recordId)
-                .set(record)
-                .addOnSuccessListener(aVoid -> {
-                    executor.execute(() -> {
-                        recordDao.insertRecord(recordModelToEntity(record));
-                    });
-                });
+    // ==================== PROGRESSION ====================
+
+    /**
+     * Daily progression of an exercise from local history, downsampled with
+     * largest-triangle-three-buckets on the plotted metric
+     * @param metric one of {@code Constants.PROGRESSION_METRIC_*}
+     * @param maxPoints most points to return, usually the chart width in pixels
+     */
+    public LiveData<List<ProgressionPoint>> getExerciseProgression(String userId, String exerciseName,
+                                                                   String metric, int maxPoints) {
+        MediatorLiveData<List<ProgressionPoint>> result = new MediatorLiveData<>();
+        // Downsampled off the main thread on every change to the series
+        result.addSource(dailyStatsDao.getSeries(userId, exerciseName), stats -> executor.execute(() ->
+                result.postValue(downsampleProgression(stats, metric, maxPoints))));
+        return result;
+    }
+
+    private static List<ProgressionPoint> downsampleProgression(List<ExerciseDailyStatsEntity> stats,
+                                                                String metric, int maxPoints) {
+        int n = stats.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        List<ProgressionPoint> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ExerciseDailyStatsEntity day = stats.get(i);
+            ProgressionPoint point = new ProgressionPoint(day.getDayStart(), day.getTopWeight(),
+                    day.getTopWeightReps(), day.getE1rm(), day.getVolume());
+            x[i] = point.getDayStart();
+            y[i] = point.getValue(metric);
+            points.add(point);
+        }
+
+        List<ProgressionPoint> sampled = new ArrayList<>();
+        for (int index : Downsampler.largestTriangleThreeBuckets(x, y, maxPoints)) {
+            sampled.add(points.get(index));
+        }
+        return sampled;
     }
 
     /**
-     * Get recent workouts
+     * Recompute the precomputed daily series for the given days from the logged sets.
+     * Only the touched days are rebuilt, so this stays cheap however long the history is.
      */
-    public LiveData<List<CompletedWorkout>> getRecentWorkouts(String userId, int limit) {
-        MutableLiveData<List<CompletedWorkout>> result = new MutableLiveData<>();
-
-        firestore.collection("completedWorkouts")
-                .whereEqualTo("userId", userId)
-                .orderBy("startTime", Query.Direction.DESCENDING)
-                .limit(limit)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<CompletedWorkout> workouts = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        CompletedWorkout workout = doc.toObject(CompletedWorkout.class);
-                        workouts.add(workout);
+    @WorkerThread
+    private void refreshDailyStatsSync(String userId, Set<Long> dayStarts) {
+        database.runInTransaction(() -> {
+            List<ExerciseDailyStatsEntity> rows = new ArrayList<>();
+            for (long dayStart : dayStarts) {
+                Map<String, ExerciseDailyStatsEntity> byExercise = new HashMap<>();
+                for (WorkoutSetEntity set : setDao.getCompletedSetsInRange(userId, dayStart,
+                        TimeUtils.startOfNextDay(dayStart))) {
+                    ExerciseDailyStatsEntity row = byExercise.get(set.getExerciseName());
+                    if (row == null) {
+                        row = new ExerciseDailyStatsEntity();
+                        row.setUserId(userId);
+                        row.setExerciseName(set.getExerciseName());
+                        row.setDayStart(dayStart);
+                        byExercise.put(set.getExerciseName(), row);
+                    }
+                    // Top set is the heaviest, then the one with more reps
+                    if (set.getWeight() > row.getTopWeight() || (set.getWeight() == row.getTopWeight()
+                            && set.getReps() > row.getTopWeightReps())) {
+                        row.setTopWeight(set.getWeight());
+                        row.setTopWeightReps(set.getReps());
                     }
-                    result.setValue(workouts);
+                    row.setE1rm(Math.max(row.getE1rm(),
+                            PRDetector.estimateOneRepMax(set.getWeight(), set.getReps(), oneRepMaxFormula)));
+                    row.setVolume(row.getVolume() + set.getWeight() * set.getReps());
+                    row.setSetCount(row.getSetCount() + 1);
+                }
+                rows.addAll(byExercise.values());
+            }
+            dailyStatsDao.deleteDays(userId, new ArrayList<>(dayStarts));
+            dailyStatsDao.upsert(rows);
+        });
+    }
 
-                    // Cache in Room
-                    executor.execute(() -> {
-                        for (CompletedWorkout w : workouts) {
-                            workoutDao.insertWorkout(workoutModelToEntity(w));
-                        }
-                    });
-                })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
+    /**
+     * Rebuild the daily, weekly and rolling aggregates after sets were added to history outside
+     * a workout save (backfilled by PRRecomputeWorker)
+     */
+    @WorkerThread
+    public void refreshHistorySync(String userId, Collection<Long> performedAts) {
+        Set<Long> days = new HashSet<>();
+        Set<Long> weeks = new HashSet<>();
+        for (long performedAt : performedAts) {
+            days.add(TimeUtils.startOfDay(performedAt));
+            weeks.add(TimeUtils.startOfIsoWeek(performedAt));
+        }
+        refreshDailyStatsSync(userId, days);
+        for (long weekStart : weeks) {
+            muscleAggregator.refreshWeek(userId, weekStart);
+        }
+        trainingLoad.invalidate(userId);
+    }
 
-        return result;
+    /**
+     * Rebuild the aggregates of every day with stored sets, a few hundred days per transaction
+     */
+    @WorkerThread
+    public void refreshAllHistorySync(String userId) {
+        List<Long> performedAts = setDao.getPerformedAts(userId);
+        for (int i = 0; i < performedAts.size(); i += Constants.HISTORY_REFRESH_CHUNK_SIZE) {
+            refreshHistorySync(userId, performedAts.subList(i,
+                    Math.min(i + Constants.HISTORY_REFRESH_CHUNK_SIZE, performedAts.size())));
+        }
     }
 
     /**
-     * Get personal records for user
+     * Detect PRs for a session against the user's current bests, without network access
      */
-    public LiveData<List<PersonalRecord>> getPersonalRecords(String userId) {
+    public LiveData<List<PersonalRecord>> detectPersonalRecords(String userId, List<WorkoutSet> sets) {
         MutableLiveData<List<PersonalRecord>> result = new MutableLiveData<>();
+        executor.execute(() -> result.postValue(
+                PRDetector.detectPRs(userId, sets, personalRecordIndex(userId), oneRepMaxFormula)));
+        return result;
+    }
+
+    /**
+     * Formula used for estimated 1RM PRs ({@link Constants#E1RM_FORMULA_EPLEY} or
+     * {@link Constants#E1RM_FORMULA_BRZYCKI}); existing records and daily stats keep their values
+     * until PRRecomputeWorker rebuilds them
+     */
+    public void setOneRepMaxFormula(String formula) {
+        this.oneRepMaxFormula = formula;
+    }
+
+    /**
+     * Save new personal records - Room in one transaction, then one Firestore batch
+     */
+    public void savePersonalRecords(List<PersonalRecord> records) {
+        executor.execute(() -> savePersonalRecordsSync(records));
+    }
+
+    /**
+     * Current bests of a user, built once from Room and kept until personal_records changes
+     */
+    @WorkerThread
+    private PRDetector.Index personalRecordIndex(String userId) {
+        return prIndexCache.get(userId, id -> {
+            PRDetector.Index index = new PRDetector.Index();
+            for (PersonalRecordEntity record : recordDao.getAllRecordsSync(id)) {
+                index.offer(record.getExerciseName(), record.getRecordType(), record.getValue(), record.getReps());
+            }
+            return index;
+        });
+    }
+
+    @WorkerThread
+    private void savePersonalRecordsSync(List<PersonalRecord> records) {
+        if (records.isEmpty()) return;
+
+        List<PersonalRecordEntity> entities = new ArrayList<>();
+        WriteBatch batch = firestore.batch();
+        for (PersonalRecord record : records) {
+            if (record.getRecordId() == null) {
+                record.setRecordId(firestore.collection(Constants.COLLECTION_PERSONAL_RECORDS).document().getId());
+            }
+            entities.add(recordModelToEntity(record));
+            batch.set(firestore.collection(Constants.COLLECTION_PERSONAL_RECORDS)
+                    .document(record.getRecordId()), record);
+        }
 
-        firestore.collection("personalRecords")
-                .whereEqualTo("userId", userId)
-                .orderBy("achievedAt", Query.Direction. DESCENDING)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<PersonalRecord> records = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        PersonalRecord record = doc.toObject(PersonalRecord.class);
-                        records. add(record);
+        // Unsynced in Room first, so the records survive offline and reach the index immediately
+        database.runInTransaction(() -> {
+            for (PersonalRecordEntity entity : entities) {
+                recordDao.insertRecord(entity);
+            }
+        });
+
+        batch.commit()
+                .addOnSuccessListener(executor, aVoid -> database.runInTransaction(() -> {
+                    for (PersonalRecordEntity entity : entities) {
+                        // Skip records deleted while the upload was in flight
+                        if (recordDao.getRecordByIdSync(entity.getRecordId()) == null) continue;
+                        entity.setSynced(true);
+                        entity.setLastSyncAttempt(System.currentTimeMillis());
+                        recordDao.insertRecord(entity);
                     }
-                    result.setValue(records);
-                })
-                .addOnFailureListener(e -> result.setValue(new ArrayList<>()));
+                }))
+                .addOnFailureListener(e ->
+                        // Still in Room unsynced, SyncWorker retries
+                        Log.e("WorkoutRepository", "Failed to upload personal records", e));
+    }
 
-        return result;
+    /**
+     * Get recent workouts - Room first, revalidated from Firestore when stale
+     */
+    public LiveData<List<CompletedWorkout>> getRecentWorkouts(String userId, int limit) {
+        return new CachedResource<List<CompletedWorkout>, QuerySnapshot>(
+                database, "recentWorkouts:" + userId + ":" + limit, Constants.TTL_RECENT_WORKOUTS_MS) {
+            @Override
+            protected LiveData<List<CompletedWorkout>> loadFromDb() {
+                return Transformations.map(workoutDao.getRecentWorkouts(userId, limit),
+                        WorkoutRepository.this::workoutEntitiesToModels);
+            }
+
+            @Override
+            protected Task<QuerySnapshot> createCall() {
+                return singleFlight.get(firestore.collection("completedWorkouts")
+                        .whereEqualTo("userId", userId)
+                        .orderBy("startTime", Query.Direction.DESCENDING)
+                        .limit(limit));
+            }
+
+            @Override
+            protected void saveCallResult(QuerySnapshot querySnapshot) {
+                Set<String> deleted = deletedIds(Constants.COLLECTION_COMPLETED_WORKOUTS);
+                for (QueryDocumentSnapshot doc : querySnapshot) {
+                    if (deleted.contains(doc.getId())) continue;
+                    CompletedWorkoutEntity local = workoutDao.getWorkoutByIdSync(doc.getId());
+                    if (local != null && !local.isSynced()) continue; // local edit wins
+
+                    CompletedWorkout workout = doc.toObject(CompletedWorkout.class);
+                    workout.setWorkoutId(doc.getId());
+                    CompletedWorkoutEntity entity = workoutModelToEntity(workout);
+                    entity.setSynced(true);
+                    workoutDao.insertWorkout(entity);
+                    streakTracker.onWorkoutSaved(userId, entity.getWorkoutId(), entity.getStartTime());
+                }
+            }
+        }.load();
+    }
+
+    /**
+     * Get personal records for user - Room first, revalidated from Firestore when stale
+     */
+    public LiveData<List<PersonalRecord>> getPersonalRecords(String userId) {
+        return new CachedResource<List<PersonalRecord>, QuerySnapshot>(
+                database, "personalRecords:" + userId, Constants.TTL_PERSONAL_RECORDS_MS) {
+            @Override
+            protected LiveData<List<PersonalRecord>> loadFromDb() {
+                return Transformations.map(recordDao.getAllRecords(userId),
+                        WorkoutRepository.this::recordEntitiesToModels);
+            }
+
+            @Override
+            protected Task<QuerySnapshot> createCall() {
+                return singleFlight.get(firestore.collection("personalRecords")
+                        .whereEqualTo("userId", userId)
+                        .orderBy("achievedAt", Query.Direction.DESCENDING));
+            }
+
+            @Override
+            protected void saveCallResult(QuerySnapshot querySnapshot) {
+                Set<String> deleted = deletedIds(Constants.COLLECTION_PERSONAL_RECORDS);
+                for (QueryDocumentSnapshot doc : querySnapshot) {
+                    if (deleted.contains(doc.getId())) continue;
+                    PersonalRecordEntity local = recordDao.getRecordByIdSync(doc.getId());
+                    if (local != null && !local.isSynced()) continue;
+
+                    PersonalRecord record = doc.toObject(PersonalRecord.class);
+                    record.setRecordId(doc.getId());
+                    PersonalRecordEntity entity = recordModelToEntity(record);
+                    entity.setSynced(true);
+                    recordDao.insertRecord(entity);
+                }
+            }
+        }.load();
+    }
+
+    // ==================== DELETES ====================
+
+    /**
+     * Delete a completed workout locally and queue the delete for sync
+     */
+    public void deleteCompletedWorkout(String userId, String workoutId) {
+        executor.execute(() -> removeWorkout(userId, workoutId, true));
+    }
+
+    /**
+     * Remove a workout, its sets and everything derived from them, without queueing a delete.
+     * Applies workouts deleted on another device (see DataSyncWorker); not for use inside a
+     * transaction, since training load is invalidated once the removal is committed.
+     */
+    @WorkerThread
+    public void removeWorkoutHistorySync(String userId, String workoutId) {
+        removeWorkout(userId, workoutId, false);
+    }
+
+    @WorkerThread
+    private void removeWorkout(String userId, String workoutId, boolean writeTombstone) {
+        boolean removed = database.runInTransaction(() -> {
+            CompletedWorkoutEntity workout = workoutDao.getWorkoutByIdSync(workoutId);
+            workoutDao.deleteWorkoutById(workoutId);
+            setDao.deleteSetsForWorkout(workoutId);
+            if (workout != null) {
+                refreshDailyStatsSync(userId,
+                        Collections.singleton(TimeUtils.startOfDay(workout.getStartTime())));
+                muscleAggregator.refreshWeek(userId, workout.getStartTime());
+            }
+            streakTracker.onWorkoutDeleted(workoutId);
+            if (writeTombstone) {
+                tombstoneDao.insertTombstone(TombstoneEntity.create(
+                        Constants.COLLECTION_COMPLETED_WORKOUTS, workoutId, userId));
+            }
+            return workout != null;
+        });
+        if (removed) trainingLoad.invalidate(userId);
+    }
+
+    /**
+     * Delete a personal record locally and queue the delete for sync
+     */
+    public void deletePersonalRecord(String userId, String recordId) {
+        executor.execute(() -> database.runInTransaction(() -> {
+            recordDao.deleteRecordById(recordId);
+            tombstoneDao.insertTombstone(TombstoneEntity.create(
+                    Constants.COLLECTION_PERSONAL_RECORDS, recordId, userId));
+        }));
+    }
+
+    /**
+     * Delete a user program locally and queue the delete (with its days and exercises) for sync
+     */
+    public void deleteProgram(String userId, String programId) {
+        executor.execute(() -> database.runInTransaction(() -> {
+            programDao.deleteProgramById(programId);
+            tombstoneDao.insertTombstone(TombstoneEntity.create(
+                    Constants.COLLECTION_WORKOUT_PROGRAMS, programId, userId));
+        }));
+    }
+
+    /**
+     * Ids deleted on this device, used to keep stale Firestore reads from resurrecting rows
+     */
+    private Set<String> deletedIds(String collection) {
+        return new HashSet<>(tombstoneDao.getDeletedIds(collection));
     }
 
     // ==================== CONVERSION HELPERS ====================
@@ -677,6 +1095,7 @@ public class WorkoutRepository {
         entity.setPreset(program.isPreset());
         entity.setActive(program.isActive());
         entity.setOriginalPresetId(program.getOriginalPresetId());
+        entity.setInheritsTemplate(program.isInheritsTemplate());
         entity.setCreatedAt(program.getCreatedAt() != null ? program.getCreatedAt().toDate().getTime() : 0);
         entity.setUpdatedAt(program.getUpdatedAt() != null ? program.getUpdatedAt().toDate().getTime() : 0);
         return entity;
@@ -711,6 +1130,74 @@ public class WorkoutRepository {
         return entity;
     }
 
+    private WorkoutProgram programEntityToModel(WorkoutProgramEntity entity) {
+        if (entity == null) return null;
+        WorkoutProgram program = new WorkoutProgram();
+        program.setProgramId(entity.getProgramId());
+        program.setUserId(entity.getUserId());
+        program.setProgramName(entity.getProgramName());
+        program.setDescription(entity.getDescription());
+        program.setDifficulty(entity.getDifficulty());
+        program.setDurationWeeks(entity.getDurationWeeks());
+        program.setDaysPerWeek(entity.getDaysPerWeek());
+        program.setPreset(entity.isPreset());
+        program.setActive(entity.isActive());
+        program.setOriginalPresetId(entity.getOriginalPresetId());
+        program.setInheritsTemplate(entity.isInheritsTemplate());
+        program.setCreatedAt(toTimestamp(entity.getCreatedAt()));
+        program.setUpdatedAt(toTimestamp(entity.getUpdatedAt()));
+        return program;
+    }
+
+    private List<WorkoutProgram> programEntitiesToModels(List<WorkoutProgramEntity> entities) {
+        List<WorkoutProgram> programs = new ArrayList<>();
+        for (WorkoutProgramEntity entity : entities) {
+            programs.add(programEntityToModel(entity));
+        }
+        return programs;
+    }
+
+    private List<CompletedWorkout> workoutEntitiesToModels(List<CompletedWorkoutEntity> entities) {
+        List<CompletedWorkout> workouts = new ArrayList<>();
+        for (CompletedWorkoutEntity entity : entities) {
+            CompletedWorkout workout = new CompletedWorkout();
+            workout.setWorkoutId(entity.getWorkoutId());
+            workout.setUserId(entity.getUserId());
+            workout.setProgramId(entity.getProgramId());
+            workout.setDayId(entity.getDayId());
+            workout.setWorkoutName(entity.getWorkoutName());
+            workout.setStartTime(toTimestamp(entity.getStartTime()));
+            workout.setEndTime(toTimestamp(entity.getEndTime()));
+            workout.setDurationSeconds(entity.getDurationSeconds());
+            workout.setTotalVolume(entity.getTotalVolume());
+            workout.setTotalSets(entity.getTotalSets());
+            workout.setTotalExercises(entity.getTotalExercises());
+            workout.setSynced(entity.isSynced());
+            workouts.add(workout);
+        }
+        return workouts;
+    }
+
+    private List<PersonalRecord> recordEntitiesToModels(List<PersonalRecordEntity> entities) {
+        List<PersonalRecord> records = new ArrayList<>();
+        for (PersonalRecordEntity entity : entities) {
+            PersonalRecord record = new PersonalRecord();
+            record.setRecordId(entity.getRecordId());
+            record.setUserId(entity.getUserId());
+            record.setExerciseName(entity.getExerciseName());
+            record.setRecordType(entity.getRecordType());
+            record.setValue(entity.getValue());
+            record.setReps(entity.getReps());
+            record.setAchievedAt(toTimestamp(entity.getAchievedAt()));
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static Timestamp toTimestamp(long millis) {
+        return millis > 0 ? new Timestamp(new Date(millis)) : null;
+    }
+
     /**
      * Add preset program to user by duplicating it and activating it
      */
@@ -742,9 +1229,28 @@ public class WorkoutRepository {
     }
 
     /**
-     * Initialize preset programs with correct difficulty levels
+     * Initialize preset programs with correct difficulty levels.
+     * Only the catalog manifest is read unless the built-in definitions are newer than the
+     * ones it records as applied.
      */
     public void initializePresetPrograms() {
+        singleFlight.get(treeWriter.presetCatalogManifest())
+                .addOnSuccessListener(manifest -> {
+                    Long applied = manifest.getLong(Constants.FIELD_CATALOG_DEFINITIONS_VERSION);
+                    if (applied != null && applied >= Constants.PRESET_DEFINITIONS_VERSION) {
+                        Log.d("WorkoutRepository", "Preset definitions v" + applied + " already applied");
+                        return;
+                    }
+                    applyPresetDefinitions();
+                })
+                .addOnFailureListener(e ->
+                        Log.e("WorkoutRepository", "Failed to read preset catalog manifest", e));
+    }
+
+    /**
+     * Create or update each built-in preset, then record the definitions version in the manifest
+     */
+    private void applyPresetDefinitions() {
         // Define preset programs with correct difficulties
         Object[][] presets = {
             {"Full Body Starter", "Beginner", 3, 12, 
@@ -757,6 +1263,7 @@ public class WorkoutRepository {
                 "Advanced periodized training for elite athletes. Maximum strength and size gains."}
         };
 
+        List<Task<Void>> writes = new ArrayList<>();
         for (Object[] preset : presets) {
             String name = (String) preset[0];
             String difficulty = (String) preset[1];
@@ -765,38 +1272,47 @@ public class WorkoutRepository {
             String description = (String) preset[4];
 
             // Check if program already exists
-            firestore.collection("workoutPrograms")
+            writes.add(firestore.collection("workoutPrograms")
                     .whereEqualTo("programName", name)
                     .whereEqualTo("isPreset", true)
                     .get()
-                    .addOnSuccessListener(querySnapshot -> {
+                    .continueWithTask(task -> {
+                        QuerySnapshot querySnapshot = task.getResult();
                         if (querySnapshot.isEmpty()) {
                             // Create new preset program
-                            createPresetProgram(name, difficulty, daysPerWeek, durationWeeks, description);
-                        } else {
-                            // Update existing program's difficulty
-                            for (com.google.firebase.firestore.QueryDocumentSnapshot doc : querySnapshot) {
-                                firestore.collection("workoutPrograms")
-                                        .document(doc.getId())
-                                        .update("difficulty", difficulty, "daysPerWeek", daysPerWeek, 
-                                                "description", description, "updatedAt", Timestamp.now())
-                                        .addOnSuccessListener(aVoid -> 
-                                            Log.d("WorkoutRepository", "Updated preset: " + name + " -> " + difficulty))
-                                        .addOnFailureListener(e -> 
-                                            Log.e("WorkoutRepository", "Failed to update: " + name, e));
-                            }
+                            return Tasks.whenAll(createPresetProgram(name, difficulty, daysPerWeek,
+                                    durationWeeks, description));
                         }
-                    })
-                    .addOnFailureListener(e -> 
-                        Log.e("WorkoutRepository", "Failed to check existing preset: " + name, e));
+                        // Update existing program's difficulty
+                        List<Task<Void>> updates = new ArrayList<>();
+                        for (QueryDocumentSnapshot doc : querySnapshot) {
+                            updates.add(firestore.collection("workoutPrograms")
+                                    .document(doc.getId())
+                                    .update("difficulty", difficulty, "daysPerWeek", daysPerWeek,
+                                            "description", description, "updatedAt", Timestamp.now())
+                                    .addOnSuccessListener(aVoid ->
+                                        Log.d("WorkoutRepository", "Updated preset: " + name + " -> " + difficulty))
+                                    .addOnFailureListener(e ->
+                                        Log.e("WorkoutRepository", "Failed to update: " + name, e)));
+                        }
+                        return Tasks.whenAll(updates);
+                    }));
         }
+
+        Tasks.whenAll(writes)
+                .onSuccessTask(aVoid -> treeWriter.bumpPresetCatalogVersion())
+                .onSuccessTask(aVoid -> treeWriter.presetCatalogManifest().update(
+                        Constants.FIELD_CATALOG_DEFINITIONS_VERSION, Constants.PRESET_DEFINITIONS_VERSION))
+                .addOnSuccessListener(aVoid -> Log.d("WorkoutRepository",
+                        "Applied preset definitions v" + Constants.PRESET_DEFINITIONS_VERSION))
+                .addOnFailureListener(e -> Log.e("WorkoutRepository", "Failed to apply preset definitions", e));
     }
 
     /**
      * Create a new preset program
      */
-    private void createPresetProgram(String name, String difficulty, int daysPerWeek, 
-                                    int durationWeeks, String description) {
+    private Task<String> createPresetProgram(String name, String difficulty, int daysPerWeek,
+                                             int durationWeeks, String description) {
         String programId = firestore.collection("workoutPrograms").document().getId();
 
         WorkoutProgram program = new WorkoutProgram();
@@ -812,12 +1328,10 @@ public class WorkoutRepository {
         program.setCreatedAt(Timestamp.now());
         program.setUpdatedAt(Timestamp.now());
 
-        firestore.collection("workoutPrograms")
-                .document(programId)
-                .set(program)
-                .addOnSuccessListener(aVoid -> 
+        return treeWriter.write(new ProgramTreeWriter.ChangeSet(program))
+                .addOnSuccessListener(id ->
                     Log.d("WorkoutRepository", "Created preset: " + name + " -> " + difficulty))
-                .addOnFailureListener(e -> 
+                .addOnFailureListener(e ->
                     Log.e("WorkoutRepository", "Failed to create preset: " + name, e));
     }
 
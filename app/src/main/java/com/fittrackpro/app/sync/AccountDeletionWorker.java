@@ -0,0 +1,276 @@
+package com.fittrackpro.app.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.util.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * AccountDeletionWorker erases a user's data locally and in Firestore, then deletes
+ * the Firebase Auth account.
+ *
+ * Work runs in stages. Each stage pages through one collection and deletes the
+ * user's documents, including their subcollections, in batches of up to 500
+ * operations. The last completed stage is checkpointed in SharedPreferences, so a
+ * run interrupted by process death resumes where it stopped. Every stage is safe to
+ * repeat because it re-queries whatever is left. From scheduling until the last stage
+ * succeeds the account counts as pending deletion (see {@link #isPending}), so app start
+ * neither schedules sync for it nor opens the main screen.
+ */
+public class AccountDeletionWorker extends Worker {
+
+    private static final String TAG = "AccountDeletionWorker";
+    private static final int MAX_RUN_ATTEMPTS = 5;
+    private static final int MAX_BATCH_OPERATIONS = 500;
+    private static final int PAGE_SIZE = 100;
+    private static final String DELETION_PREFS = "account_deletion";
+    private static final String PENDING_PREFIX = "pending_";
+    private static final String CHECKPOINT_PREFIX = "completed_stage_";
+
+    // Stages in order; the index of the last completed stage is the checkpoint
+    private static final int STAGE_LOCAL = 0;
+    private static final int STAGE_COMPLETED_WORKOUTS = 1;
+    private static final int STAGE_WORKOUT_PROGRAMS = 2;
+    private static final int STAGE_PERSONAL_RECORDS = 3;
+    private static final int STAGE_NUTRITION_PROFILES = 4;
+    private static final int STAGE_MEALS = 5;
+    private static final int STAGE_FRIENDSHIPS = 6;
+    private static final int STAGE_VOLUME_BUCKETS = 7;
+    private static final int STAGE_TOMBSTONES = 8;
+    private static final int STAGE_USERNAME_AND_DIGESTS = 9;
+    private static final int STAGE_USER_DOCUMENT = 10;
+    private static final int STAGE_AUTH = 11;
+
+    private final AppDatabase db;
+    private final FirebaseFirestore firestore;
+    private final SharedPreferences checkpoints;
+
+    private WriteBatch batch;
+    private int batchOperations;
+
+    public AccountDeletionWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        this.db = AppDatabase.getInstance(context);
+        this.firestore = FirebaseFirestore.getInstance();
+        this.checkpoints = context.getSharedPreferences(DELETION_PREFS, Context.MODE_PRIVATE);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String userId = getInputData().getString("userId");
+        if (userId == null) {
+            Log.e(TAG, "No userId provided");
+            return Result.failure();
+        }
+
+        String checkpointKey = CHECKPOINT_PREFIX + userId;
+        int stage = checkpoints.getInt(checkpointKey, -1) + 1;
+        if (stage > 0) {
+            Log.d(TAG, "Resuming account deletion at stage " + stage);
+        }
+
+        try {
+            for (; stage <= STAGE_AUTH; stage++) {
+                runStage(stage, userId);
+                // commit() so the checkpoint survives an immediate process death
+                checkpoints.edit().putInt(checkpointKey, stage).commit();
+            }
+            checkpoints.edit().remove(checkpointKey).remove(PENDING_PREFIX + userId).apply();
+            Log.d(TAG, "Account deletion completed for user: " + userId);
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Account deletion failed at stage " + stage, e);
+            if (getRunAttemptCount() < MAX_RUN_ATTEMPTS) {
+                return Result.retry();
+            }
+            return Result.failure();
+        }
+    }
+
+    /**
+     * Record that deletion was requested, before the work is enqueued
+     */
+    static void markPending(Context context, String userId) {
+        context.getSharedPreferences(DELETION_PREFS, Context.MODE_PRIVATE)
+                .edit().putBoolean(PENDING_PREFIX + userId, true).commit();
+    }
+
+    /**
+     * Whether deletion of the account was requested or is part way through
+     */
+    static boolean isPending(Context context, String userId) {
+        SharedPreferences prefs = context.getSharedPreferences(DELETION_PREFS, Context.MODE_PRIVATE);
+        return prefs.contains(PENDING_PREFIX + userId) || prefs.contains(CHECKPOINT_PREFIX + userId);
+    }
+
+    private void runStage(int stage, String userId) throws Exception {
+        switch (stage) {
+            case STAGE_LOCAL:
+                wipeLocalData();
+                break;
+            case STAGE_COMPLETED_WORKOUTS:
+                deleteOwnedDocuments(Constants.COLLECTION_COMPLETED_WORKOUTS, "userId", userId);
+                break;
+            case STAGE_WORKOUT_PROGRAMS:
+                deleteOwnedDocuments(Constants.COLLECTION_WORKOUT_PROGRAMS, "userId", userId);
+                break;
+            case STAGE_PERSONAL_RECORDS:
+                deleteOwnedDocuments(Constants.COLLECTION_PERSONAL_RECORDS, "userId", userId);
+                break;
+            case STAGE_NUTRITION_PROFILES:
+                deleteOwnedDocuments(Constants.COLLECTION_NUTRITION_PROFILES, "userId", userId);
+                break;
+            case STAGE_MEALS:
+                deleteOwnedDocuments(Constants.COLLECTION_MEALS_LOGGED, "userId", userId);
+                break;
+            case STAGE_FRIENDSHIPS:
+                // Both the user's own friend list and other users' links to them
+                deleteOwnedDocuments(Constants.COLLECTION_FRIENDSHIPS, "userId", userId);
+                deleteOwnedDocuments(Constants.COLLECTION_FRIENDSHIPS, "friendUserId", userId);
+                break;
+            case STAGE_VOLUME_BUCKETS:
+                deleteOwnedDocuments(Constants.COLLECTION_VOLUME_BUCKETS, "userId", userId);
+                break;
+            case STAGE_TOMBSTONES:
+                deleteOwnedDocuments(Constants.COLLECTION_TOMBSTONES, "userId", userId);
+                break;
+            case STAGE_USERNAME_AND_DIGESTS:
+                deleteOwnedDocuments(Constants.COLLECTION_USERNAMES, "userId", userId);
+                for (String type : new String[]{ReconciliationWorker.TYPE_WORKOUTS,
+                        ReconciliationWorker.TYPE_PERSONAL_RECORDS, ReconciliationWorker.TYPE_MEALS}) {
+                    delete(firestore.collection(Constants.COLLECTION_SYNC_DIGESTS).document(userId + "_" + type));
+                }
+                flush();
+                break;
+            case STAGE_USER_DOCUMENT:
+                delete(firestore.collection(Constants.COLLECTION_USERS).document(userId));
+                flush();
+                break;
+            case STAGE_AUTH:
+                deleteAuthAccount(userId);
+                break;
+        }
+    }
+
+    /**
+     * Stop pending sync and clear every Room table and sync cursor in one step,
+     * so nothing is re-uploaded while the remote data is being erased
+     */
+    private void wipeLocalData() {
+        SyncManager.getInstance(getApplicationContext()).cancelSync();
+        db.clearAllTables();
+        getApplicationContext().getSharedPreferences("sync_prefs", Context.MODE_PRIVATE)
+                .edit().clear().commit();
+    }
+
+    /**
+     * Page through documents where field == userId and delete them with their subcollections.
+     * Each page is committed before the next query, so the query itself acts as the cursor.
+     */
+    private void deleteOwnedDocuments(String collection, String field, String userId) throws Exception {
+        Query query = firestore.collection(collection)
+                .whereEqualTo(field, userId)
+                .limit(PAGE_SIZE);
+
+        int deleted = 0;
+        while (true) {
+            QuerySnapshot page = Tasks.await(query.get());
+            if (page.isEmpty()) break;
+
+            for (DocumentSnapshot doc : page.getDocuments()) {
+                deleteWithSubcollections(collection, doc);
+            }
+            flush();
+            deleted += page.size();
+        }
+        Log.d(TAG, "Deleted " + deleted + " documents from " + collection + " by " + field);
+    }
+
+    private void deleteWithSubcollections(String collection, DocumentSnapshot doc) throws Exception {
+        DocumentReference root = doc.getReference();
+        if (Constants.COLLECTION_COMPLETED_WORKOUTS.equals(collection)) {
+            deleteAll(root.collection(Constants.COLLECTION_WORKOUT_SETS).get());
+        } else if (Constants.COLLECTION_WORKOUT_PROGRAMS.equals(collection)) {
+            for (String dayId : programDayIds(doc)) {
+                DocumentReference day = root.collection(Constants.COLLECTION_WORKOUT_DAYS).document(dayId);
+                deleteAll(day.collection(Constants.COLLECTION_PROGRAM_EXERCISES).get());
+                delete(day);
+            }
+        } else if (Constants.COLLECTION_NUTRITION_PROFILES.equals(collection)) {
+            deleteAll(root.collection(Constants.COLLECTION_PROFILE_HISTORY).get());
+        }
+        delete(root);
+    }
+
+    /**
+     * The program's own days plus, for a copy-on-write program, its preset's days, which may
+     * hold override exercises without a day document of their own
+     */
+    private Set<String> programDayIds(DocumentSnapshot program) throws Exception {
+        Set<String> dayIds = new LinkedHashSet<>();
+        for (DocumentSnapshot day : Tasks.await(program.getReference()
+                .collection(Constants.COLLECTION_WORKOUT_DAYS).get()).getDocuments()) {
+            dayIds.add(day.getId());
+        }
+        String presetId = program.getString("originalPresetId");
+        if (Boolean.TRUE.equals(program.getBoolean("inheritsTemplate")) && presetId != null) {
+            for (DocumentSnapshot day : Tasks.await(firestore.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
+                    .document(presetId).collection(Constants.COLLECTION_WORKOUT_DAYS).get()).getDocuments()) {
+                dayIds.add(day.getId());
+            }
+        }
+        return dayIds;
+    }
+
+    private void deleteAll(Task<QuerySnapshot> query) throws Exception {
+        for (DocumentSnapshot doc : Tasks.await(query).getDocuments()) {
+            delete(doc.getReference());
+        }
+    }
+
+    private void delete(DocumentReference reference) throws Exception {
+        if (batch == null) {
+            batch = firestore.batch();
+        }
+        batch.delete(reference);
+        if (++batchOperations >= MAX_BATCH_OPERATIONS) {
+            flush();
+        }
+    }
+
+    private void flush() throws Exception {
+        if (batch != null && batchOperations > 0) {
+            Tasks.await(batch.commit());
+        }
+        batch = null;
+        batchOperations = 0;
+    }
+
+    private void deleteAuthAccount(String userId) throws Exception {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null || !userId.equals(user.getUid())) {
+            // Already deleted or signed out; nothing left to remove
+            return;
+        }
+        Tasks.await(user.delete());
+    }
+}
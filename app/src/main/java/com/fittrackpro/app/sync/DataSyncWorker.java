@@ -1,37 +1,59 @@
 package com.fittrackpro.app.sync;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.local.AppDatabase;
 import com.fittrackpro.app.data.local.dao.*;
 import com.fittrackpro.app.data.local.entity.*;
+import com.fittrackpro.app.data.repository.WorkoutRepository;
 import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.TimeUtils;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * DataSyncWorker handles background synchronization of unsynced data to Firestore.
- * Processes all data types: users, workouts, PRs, meals, and programs.
+ * Processes all data types: users, workouts, PRs, meals, nutrition profiles, and programs.
  */
 public class DataSyncWorker extends Worker {
 
     private static final String TAG = "DataSyncWorker";
     private static final int MAX_SYNC_ATTEMPTS = 3;
+    private static final int MAX_BATCH_OPERATIONS = 500;
+    private static final long TOMBSTONE_RETENTION_MS = TimeUnit.DAYS.toMillis(30);
+    private static final long TOMBSTONE_COMPACTION_INTERVAL_MS = TimeUnit.DAYS.toMillis(1);
+    private static final String SYNC_PREFS = "sync_prefs";
 
     private final AppDatabase db;
     private final FirebaseFirestore firestore;
+    private final WorkoutRepository workoutRepository;
 
     public DataSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
         this.db = AppDatabase.getInstance(context);
+        this.workoutRepository = AppContainer.from(context).getWorkoutRepository();
         this.firestore = FirebaseFirestore.getInstance();
     }
 
@@ -59,6 +81,9 @@ public class DataSyncWorker extends Worker {
     private void syncAllData(String userId) {
         Log.d(TAG, "Starting sync for user: " + userId);
 
+        // Apply deletes made on other devices before uploading anything
+        pullRemoteTombstones(userId);
+
         // Sync completed workouts
         syncCompletedWorkouts(userId);
 
@@ -71,9 +96,18 @@ public class DataSyncWorker extends Worker {
         // Sync meal logs
         syncMealLogs(userId);
 
+        // Sync nutrition profile and its history
+        syncNutritionProfile(userId);
+
         // Sync custom programs
         syncCustomPrograms(userId);
 
+        // Propagate local deletes
+        syncTombstones(userId);
+
+        // Drop acknowledged tombstones past the retention window
+        compactTombstones(userId);
+
         Log.d(TAG, "Sync completed for user: " + userId);
     }
 
@@ -103,10 +137,26 @@ public class DataSyncWorker extends Worker {
                 data.put("totalSets", workout.getTotalSets());
                 data.put("totalExercises", workout.getTotalExercises());
                 data.put("synced", true);
-
-                Tasks.await(firestore.collection(Constants.COLLECTION_COMPLETED_WORKOUTS)
-                        .document(workout.getWorkoutId())
-                        .set(data));
+                data.put(Constants.FIELD_LEADERBOARD_COUNTED, true);
+
+                // A re-upload (e.g. after reconciliation requeues the row) must not count the
+                // workout twice, so the bucket increments depend on the remote marker
+                DocumentReference workoutRef = firestore.collection(Constants.COLLECTION_COMPLETED_WORKOUTS)
+                        .document(workout.getWorkoutId());
+                Map<DocumentReference, Map<String, Object>> buckets = VolumeBuckets.increments(firestore,
+                        userId, db.userDao().getUserByIdSync(userId), workout.getEndTime(),
+                        workout.getTotalVolume(), 1);
+                Tasks.await(firestore.runTransaction(transaction -> {
+                    DocumentSnapshot remote = transaction.get(workoutRef);
+                    boolean counted = Boolean.TRUE.equals(remote.getBoolean(Constants.FIELD_LEADERBOARD_COUNTED));
+                    transaction.set(workoutRef, data);
+                    if (!counted) {
+                        for (Map.Entry<DocumentReference, Map<String, Object>> bucket : buckets.entrySet()) {
+                            transaction.set(bucket.getKey(), bucket.getValue(), SetOptions.merge());
+                        }
+                    }
+                    return null;
+                }));
 
                 // Mark as synced in Room
                 workout.setSynced(true);
@@ -265,6 +315,101 @@ public class DataSyncWorker extends Worker {
         }
     }
 
+    /**
+     * Upload the current profile to nutritionProfiles/{userId} and each new version
+     * to its history subcollection in one batch
+     */
+    private void syncNutritionProfile(String userId) {
+        NutritionProfileDao dao = db.nutritionProfileDao();
+        List<NutritionProfileEntity> unsyncedProfiles = dao.getUnsyncedProfiles(userId);
+        if (unsyncedProfiles.isEmpty()) return;
+
+        NutritionProfileEntity profile = unsyncedProfiles.get(0);
+        if (profile.getSyncAttempts() >= MAX_SYNC_ATTEMPTS) {
+            Log.w(TAG, "Skipping nutrition profile after " + MAX_SYNC_ATTEMPTS + " attempts: " + userId);
+            return;
+        }
+
+        List<NutritionProfileHistoryEntity> history = dao.getUnsyncedHistory(userId);
+        Log.d(TAG, "Syncing nutrition profile v" + profile.getVersion() + " with " + history.size() + " history rows");
+
+        DocumentReference profileRef = firestore.collection(Constants.COLLECTION_NUTRITION_PROFILES)
+                .document(userId);
+        long now = System.currentTimeMillis();
+
+        try {
+            Map<String, Object> data = new HashMap<>();
+            data.put("profileId", userId);
+            data.put("userId", userId);
+            data.put("version", profile.getVersion());
+            data.put("weight", profile.getWeight());
+            data.put("height", profile.getHeight());
+            data.put("age", profile.getAge());
+            data.put("gender", profile.getGender());
+            data.put("activityLevel", profile.getActivityLevel());
+            data.put("goal", profile.getGoal());
+            data.put("bmr", profile.getBmr());
+            data.put("tdee", profile.getTdee());
+            data.put("targetCalories", profile.getTargetCalories());
+            data.put("targetProtein", profile.getTargetProtein());
+            data.put("targetCarbs", profile.getTargetCarbs());
+            data.put("targetFats", profile.getTargetFats());
+            data.put("createdAt", new Timestamp(new Date(profile.getCreatedAt())));
+            data.put("updatedAt", new Timestamp(new Date(profile.getUpdatedAt())));
+
+            WriteBatch batch = firestore.batch();
+            batch.set(profileRef, data);
+            // Leave room for the profile write itself
+            List<NutritionProfileHistoryEntity> batched = history.size() < MAX_BATCH_OPERATIONS
+                    ? history : history.subList(history.size() - (MAX_BATCH_OPERATIONS - 1), history.size());
+            for (NutritionProfileHistoryEntity row : batched) {
+                batch.set(profileRef.collection(Constants.COLLECTION_PROFILE_HISTORY)
+                        .document(String.valueOf(row.getVersion())), historyToMap(row));
+            }
+            Tasks.await(batch.commit());
+
+            // A newer save during the upload keeps its row unsynced
+            dao.markProfileSynced(userId, profile.getVersion(), now);
+            for (NutritionProfileHistoryEntity row : batched) {
+                row.setSynced(true);
+                row.setLastSyncAttempt(now);
+                row.setSyncError(null);
+            }
+            dao.updateHistory(batched);
+
+            Log.d(TAG, "Successfully synced nutrition profile: " + userId);
+
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to sync nutrition profile: " + userId, e);
+            NutritionProfileEntity latest = dao.getProfileSync(userId);
+            if (latest == null || latest.getVersion() != profile.getVersion()) return;
+            profile.setSyncAttempts(profile.getSyncAttempts() + 1);
+            profile.setLastSyncAttempt(now);
+            profile.setSyncError(e.getMessage());
+            dao.updateProfile(profile);
+        }
+    }
+
+    private Map<String, Object> historyToMap(NutritionProfileHistoryEntity row) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", row.getUserId());
+        data.put("version", row.getVersion());
+        data.put("weight", row.getWeight());
+        data.put("height", row.getHeight());
+        data.put("age", row.getAge());
+        data.put("gender", row.getGender());
+        data.put("activityLevel", row.getActivityLevel());
+        data.put("goal", row.getGoal());
+        data.put("bmr", row.getBmr());
+        data.put("tdee", row.getTdee());
+        data.put("targetCalories", row.getTargetCalories());
+        data.put("targetProtein", row.getTargetProtein());
+        data.put("targetCarbs", row.getTargetCarbs());
+        data.put("targetFats", row.getTargetFats());
+        data.put("recordedAt", new Timestamp(new Date(row.getRecordedAt())));
+        return data;
+    }
+
     private void syncCustomPrograms(String userId) {
         WorkoutProgramDao dao = db.workoutProgramDao();
         List<WorkoutProgramEntity> unsyncedPrograms = dao.getUnsyncedPrograms();
@@ -294,6 +439,7 @@ public class DataSyncWorker extends Worker {
                 data.put("isPreset", program.isPreset());
                 data.put("isActive", program.isActive());
                 data.put("originalPresetId", program.getOriginalPresetId());
+                data.put("inheritsTemplate", program.isInheritsTemplate());
                 data.put("createdAt", new Timestamp(new Date(program.getCreatedAt())));
                 data.put("updatedAt", new Timestamp(new Date(program.getUpdatedAt())));
 
@@ -318,4 +464,285 @@ public class DataSyncWorker extends Worker {
             }
         }
     }
+
+    // ==================== DELETES ====================
+
+    /**
+     * Upload pending local deletes as batched Firestore deletes.
+     * Each delete also writes a remote tombstone so other devices can apply it.
+     */
+    private void syncTombstones(String userId) {
+        TombstoneDao dao = db.tombstoneDao();
+        List<TombstoneEntity> pending = dao.getUnsyncedTombstones(userId);
+
+        Log.d(TAG, "Syncing " + pending.size() + " deletes");
+
+        WriteBatch batch = firestore.batch();
+        List<TombstoneEntity> inBatch = new ArrayList<>();
+        int operations = 0;
+
+        for (TombstoneEntity tombstone : pending) {
+            if (tombstone.getSyncAttempts() >= MAX_SYNC_ATTEMPTS) {
+                Log.w(TAG, "Skipping delete after " + MAX_SYNC_ATTEMPTS + " attempts: " + tombstone.getTombstoneId());
+                continue;
+            }
+
+            List<DocumentReference> targets;
+            DocumentSnapshot removedWorkout = null;
+            try {
+                targets = collectDeleteTargets(tombstone);
+                if (Constants.COLLECTION_COMPLETED_WORKOUTS.equals(tombstone.getCollection())) {
+                    removedWorkout = Tasks.await(firestore.collection(Constants.COLLECTION_COMPLETED_WORKOUTS)
+                            .document(tombstone.getDocumentId()).get());
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to resolve delete: " + tombstone.getTombstoneId(), e);
+                tombstone.setSyncAttempts(tombstone.getSyncAttempts() + 1);
+                tombstone.setLastSyncAttempt(System.currentTimeMillis());
+                tombstone.setSyncError(e.getMessage());
+                List<TombstoneEntity> failed = new ArrayList<>();
+                failed.add(tombstone);
+                dao.updateTombstones(failed);
+                continue;
+            }
+
+            // Tombstone write plus the two bucket decrements for a workout
+            int needed = targets.size() + 1 + (removedWorkout != null ? 2 : 0);
+            if (operations + needed > MAX_BATCH_OPERATIONS && !inBatch.isEmpty()) {
+                commitTombstoneBatch(batch, inBatch);
+                batch = firestore.batch();
+                inBatch = new ArrayList<>();
+                operations = 0;
+            }
+
+            for (DocumentReference target : targets) {
+                batch.delete(target);
+            }
+            batch.set(remoteTombstoneRef(tombstone), tombstoneToMap(tombstone));
+            operations += needed;
+
+            // Take a deleted workout back out of its leaderboard buckets, if it was ever counted
+            if (removedWorkout != null && removedWorkout.exists()
+                    && Boolean.TRUE.equals(removedWorkout.getBoolean(Constants.FIELD_LEADERBOARD_COUNTED))) {
+                Timestamp endTime = removedWorkout.getTimestamp("endTime");
+                Double volume = removedWorkout.getDouble("totalVolume");
+                if (endTime != null && volume != null) {
+                    for (Map.Entry<DocumentReference, Map<String, Object>> bucket : VolumeBuckets.increments(
+                            firestore, userId, null, endTime.toDate().getTime(), -volume, -1).entrySet()) {
+                        batch.set(bucket.getKey(), bucket.getValue(), SetOptions.merge());
+                    }
+                }
+            }
+            inBatch.add(tombstone);
+        }
+
+        if (!inBatch.isEmpty()) {
+            commitTombstoneBatch(batch, inBatch);
+        }
+    }
+
+    /**
+     * Documents to delete for a tombstone, including known subcollections
+     * (Firestore does not cascade deletes)
+     */
+    private List<DocumentReference> collectDeleteTargets(TombstoneEntity tombstone) throws Exception {
+        List<DocumentReference> targets = new ArrayList<>();
+        DocumentReference root = firestore.collection(tombstone.getCollection())
+                .document(tombstone.getDocumentId());
+
+        if (Constants.COLLECTION_COMPLETED_WORKOUTS.equals(tombstone.getCollection())) {
+            QuerySnapshot sets = Tasks.await(root.collection(Constants.COLLECTION_WORKOUT_SETS).get());
+            for (DocumentSnapshot set : sets.getDocuments()) {
+                targets.add(set.getReference());
+            }
+        } else if (Constants.COLLECTION_WORKOUT_PROGRAMS.equals(tombstone.getCollection())) {
+            Set<String> dayIds = new LinkedHashSet<>();
+            for (DocumentSnapshot day : Tasks.await(root.collection(Constants.COLLECTION_WORKOUT_DAYS).get())
+                    .getDocuments()) {
+                dayIds.add(day.getId());
+            }
+            // Override exercises of a copy-on-write program may sit under an inherited day id
+            // with no day document (written before the writer added stubs)
+            DocumentSnapshot program = Tasks.await(root.get());
+            String presetId = program.getString("originalPresetId");
+            if (Boolean.TRUE.equals(program.getBoolean("inheritsTemplate")) && presetId != null) {
+                for (DocumentSnapshot day : Tasks.await(firestore.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
+                        .document(presetId).collection(Constants.COLLECTION_WORKOUT_DAYS).get()).getDocuments()) {
+                    dayIds.add(day.getId());
+                }
+            }
+            for (String dayId : dayIds) {
+                DocumentReference day = root.collection(Constants.COLLECTION_WORKOUT_DAYS).document(dayId);
+                QuerySnapshot exercises = Tasks.await(day.collection(Constants.COLLECTION_PROGRAM_EXERCISES).get());
+                for (DocumentSnapshot exercise : exercises.getDocuments()) {
+                    targets.add(exercise.getReference());
+                }
+                targets.add(day);
+            }
+        }
+
+        targets.add(root);
+        return targets;
+    }
+
+    private void commitTombstoneBatch(WriteBatch batch, List<TombstoneEntity> tombstones) {
+        long now = System.currentTimeMillis();
+        try {
+            Tasks.await(batch.commit());
+            for (TombstoneEntity tombstone : tombstones) {
+                tombstone.setSynced(true);
+                tombstone.setAcknowledgedAt(now);
+                tombstone.setLastSyncAttempt(now);
+                tombstone.setSyncError(null);
+            }
+            Log.d(TAG, "Successfully synced " + tombstones.size() + " deletes");
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to sync delete batch", e);
+            for (TombstoneEntity tombstone : tombstones) {
+                tombstone.setSyncAttempts(tombstone.getSyncAttempts() + 1);
+                tombstone.setLastSyncAttempt(now);
+                tombstone.setSyncError(e.getMessage());
+            }
+        }
+        db.tombstoneDao().updateTombstones(tombstones);
+    }
+
+    /**
+     * Apply deletes made on other devices since the last pull.
+     * The cursor follows the server's commit time ({@code syncedAt}), not the deleting device's
+     * clock, so a delete uploaded late or from a skewed clock is still picked up.
+     */
+    private void pullRemoteTombstones(String userId) {
+        SharedPreferences prefs = getApplicationContext().getSharedPreferences(SYNC_PREFS, Context.MODE_PRIVATE);
+        String secondsKey = "tombstone_synced_cursor_s_" + userId;
+        String nanosKey = "tombstone_synced_cursor_ns_" + userId;
+        Timestamp cursor = new Timestamp(prefs.getLong(secondsKey, 0), prefs.getInt(nanosKey, 0));
+
+        try {
+            QuerySnapshot snapshot = Tasks.await(firestore.collection(Constants.COLLECTION_TOMBSTONES)
+                    .whereEqualTo("userId", userId)
+                    .whereGreaterThan("syncedAt", cursor)
+                    .orderBy("syncedAt", Query.Direction.ASCENDING)
+                    .get(Source.SERVER));
+
+            if (snapshot.isEmpty()) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            List<TombstoneEntity> applied = new ArrayList<>();
+            Timestamp newCursor = cursor;
+
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                String collection = doc.getString("collection");
+                String documentId = doc.getString("documentId");
+                Timestamp deletedAt = doc.getTimestamp("deletedAt");
+                Timestamp syncedAt = doc.getTimestamp("syncedAt");
+                if (collection == null || documentId == null || deletedAt == null || syncedAt == null) {
+                    continue;
+                }
+
+                TombstoneEntity tombstone = TombstoneEntity.create(collection, documentId, userId);
+                tombstone.setDeletedAt(deletedAt.toDate().getTime());
+                tombstone.setSynced(true);
+                tombstone.setAcknowledgedAt(now);
+                applied.add(tombstone);
+                if (syncedAt.compareTo(newCursor) > 0) newCursor = syncedAt;
+            }
+
+            // Workouts commit their own cleanup, then invalidate training load; re-applying one
+            // after a crash before the tombstones are stored is a no-op
+            for (TombstoneEntity tombstone : applied) {
+                if (Constants.COLLECTION_COMPLETED_WORKOUTS.equals(tombstone.getCollection())) {
+                    workoutRepository.removeWorkoutHistorySync(userId, tombstone.getDocumentId());
+                }
+            }
+            db.runInTransaction(() -> {
+                for (TombstoneEntity tombstone : applied) {
+                    deleteLocalRow(tombstone.getCollection(), tombstone.getDocumentId());
+                }
+                db.tombstoneDao().insertTombstones(applied);
+            });
+
+            prefs.edit()
+                    .putLong(secondsKey, newCursor.getSeconds())
+                    .putInt(nanosKey, newCursor.getNanoseconds())
+                    .apply();
+            Log.d(TAG, "Applied " + applied.size() + " remote deletes");
+
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to pull remote deletes", e);
+        }
+    }
+
+    private void deleteLocalRow(String collection, String documentId) {
+        switch (collection) {
+            case Constants.COLLECTION_COMPLETED_WORKOUTS:
+                break; // Removed above with everything derived from it
+            case Constants.COLLECTION_PERSONAL_RECORDS:
+                db.personalRecordDao().deleteRecordById(documentId);
+                break;
+            case Constants.COLLECTION_MEALS_LOGGED:
+                db.mealLoggedDao().deleteMealById(documentId);
+                break;
+            case Constants.COLLECTION_WORKOUT_PROGRAMS:
+                db.workoutProgramDao().deleteProgramById(documentId);
+                break;
+            default:
+                Log.w(TAG, "No local table for deleted collection: " + collection);
+        }
+    }
+
+    /**
+     * Once a day, drop acknowledged tombstones (local and remote) older than the retention window.
+     * Devices offline for longer than the window will not receive those deletes.
+     */
+    private void compactTombstones(String userId) {
+        SharedPreferences prefs = getApplicationContext().getSharedPreferences(SYNC_PREFS, Context.MODE_PRIVATE);
+        String compactedKey = "tombstone_compacted_at_" + userId;
+        long now = System.currentTimeMillis();
+        if (now - prefs.getLong(compactedKey, 0) < TOMBSTONE_COMPACTION_INTERVAL_MS) {
+            return;
+        }
+
+        long cutoff = now - TOMBSTONE_RETENTION_MS;
+        int removedLocal = db.tombstoneDao().deleteAcknowledgedBefore(cutoff);
+
+        try {
+            QuerySnapshot expired = Tasks.await(firestore.collection(Constants.COLLECTION_TOMBSTONES)
+                    .whereEqualTo("userId", userId)
+                    .whereLessThan("syncedAt", new Timestamp(new Date(cutoff)))
+                    .get());
+
+            List<DocumentSnapshot> docs = expired.getDocuments();
+            for (int start = 0; start < docs.size(); start += MAX_BATCH_OPERATIONS) {
+                WriteBatch batch = firestore.batch();
+                for (DocumentSnapshot doc : docs.subList(start, Math.min(docs.size(), start + MAX_BATCH_OPERATIONS))) {
+                    batch.delete(doc.getReference());
+                }
+                Tasks.await(batch.commit());
+            }
+
+            prefs.edit().putLong(compactedKey, now).apply();
+            Log.d(TAG, "Compacted " + removedLocal + " local and " + docs.size() + " remote tombstones");
+
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to compact remote tombstones", e);
+        }
+    }
+
+    private DocumentReference remoteTombstoneRef(TombstoneEntity tombstone) {
+        return firestore.collection(Constants.COLLECTION_TOMBSTONES)
+                .document(tombstone.getCollection() + "_" + tombstone.getDocumentId());
+    }
+
+    private Map<String, Object> tombstoneToMap(TombstoneEntity tombstone) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", tombstone.getUserId());
+        data.put("collection", tombstone.getCollection());
+        data.put("documentId", tombstone.getDocumentId());
+        data.put("deletedAt", new Timestamp(new Date(tombstone.getDeletedAt())));
+        data.put("syncedAt", FieldValue.serverTimestamp());
+        return data;
+    }
 }
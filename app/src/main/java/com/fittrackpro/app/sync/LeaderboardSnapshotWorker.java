@@ -0,0 +1,121 @@
+package com.fittrackpro.app.sync;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.LeaderboardDao;
+import com.fittrackpro.app.data.local.entity.LeaderboardEntryEntity;
+import com.fittrackpro.app.data.local.entity.LeaderboardHistogramEntity;
+import com.fittrackpro.app.util.Constants;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LeaderboardSnapshotWorker materializes the global leaderboard into Room.
+ *
+ * Each run stores the top {@link Constants#LEADERBOARD_SNAPSHOT_SIZE} users and a
+ * cumulative volume histogram built from count() aggregations, all stamped with the
+ * same version. Leaderboard screens render from this snapshot and estimate the rank
+ * of users outside the top entries from the histogram.
+ */
+public class LeaderboardSnapshotWorker extends Worker {
+
+    private static final String TAG = "LeaderboardSnapshot";
+    private static final int MAX_RUN_ATTEMPTS = 3;
+
+    private final AppDatabase db;
+    private final FirebaseFirestore firestore;
+
+    public LeaderboardSnapshotWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        this.db = AppDatabase.getInstance(context);
+        this.firestore = FirebaseFirestore.getInstance();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            materializeGlobalBoard();
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Leaderboard snapshot failed", e);
+            if (getRunAttemptCount() < MAX_RUN_ATTEMPTS) {
+                return Result.retry();
+            }
+            return Result.failure();
+        }
+    }
+
+    private void materializeGlobalBoard() throws Exception {
+        CollectionReference users = firestore.collection(Constants.COLLECTION_USERS);
+
+        // Top page and histogram counts run in parallel
+        Task<QuerySnapshot> topTask = users
+                .orderBy("totalVolumeLifted", Query.Direction.DESCENDING)
+                .limit(Constants.LEADERBOARD_SNAPSHOT_SIZE)
+                .get();
+        List<Task<AggregateQuerySnapshot>> countTasks = new ArrayList<>();
+        for (double bound : Constants.LEADERBOARD_HISTOGRAM_BOUNDS) {
+            countTasks.add(users.whereGreaterThanOrEqualTo("totalVolumeLifted", bound)
+                    .count()
+                    .get(AggregateSource.SERVER));
+        }
+
+        QuerySnapshot top = Tasks.await(topTask);
+        Tasks.await(Tasks.whenAll(countTasks));
+
+        long version = System.currentTimeMillis();
+
+        List<LeaderboardEntryEntity> entries = new ArrayList<>();
+        int rank = 1;
+        for (QueryDocumentSnapshot doc : top) {
+            String userId = doc.getString("userId");
+            if (userId == null) continue;
+
+            LeaderboardEntryEntity entry = new LeaderboardEntryEntity();
+            entry.setBoardKey(Constants.LEADERBOARD_GLOBAL);
+            entry.setUserId(userId);
+            entry.setUsername(doc.getString("username"));
+            entry.setDisplayName(doc.getString("displayName"));
+            entry.setTotalVolume(doc.getDouble("totalVolumeLifted") != null ?
+                    doc.getDouble("totalVolumeLifted") : 0.0);
+            entry.setRank(rank++);
+            entry.setVersion(version);
+            entries.add(entry);
+        }
+
+        List<LeaderboardHistogramEntity> buckets = new ArrayList<>();
+        for (int i = 0; i < countTasks.size(); i++) {
+            LeaderboardHistogramEntity bucket = new LeaderboardHistogramEntity();
+            bucket.setBoardKey(Constants.LEADERBOARD_GLOBAL);
+            bucket.setLowerBound(Constants.LEADERBOARD_HISTOGRAM_BOUNDS[i]);
+            bucket.setCountAtOrAbove(countTasks.get(i).getResult().getCount());
+            bucket.setVersion(version);
+            buckets.add(bucket);
+        }
+
+        LeaderboardDao dao = db.leaderboardDao();
+        db.runInTransaction(() -> {
+            dao.deleteBoard(Constants.LEADERBOARD_GLOBAL);
+            dao.insertEntries(entries);
+            dao.deleteHistogram(Constants.LEADERBOARD_GLOBAL);
+            dao.insertHistogram(buckets);
+        });
+
+        Log.d(TAG, "Materialized " + entries.size() + " entries and " + buckets.size()
+                + " histogram buckets, version " + version);
+    }
+}
@@ -0,0 +1,115 @@
+package com.fittrackpro.app.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * MerkleDigest builds the two-level hash tree used for anti-entropy checks.
+ *
+ * Leaves are per-record fingerprints, bucketed by calendar month (UTC so that
+ * every device agrees on the bucket boundaries). Each month hashes to a bucket
+ * hash, and the sorted bucket hashes roll up into a single root hash.
+ */
+public final class MerkleDigest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private MerkleDigest() {
+    }
+
+    /**
+     * Bucket key ("yyyy-MM", UTC) for a timestamp in millis
+     */
+    public static String monthKey(long millis) {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.setTimeInMillis(millis);
+        return String.format(Locale.US, "%04d-%02d",
+                calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1);
+    }
+
+    /**
+     * Returns [start, end) in millis for a bucket key produced by {@link #monthKey(long)}
+     */
+    public static long[] monthRange(String monthKey) {
+        int year = Integer.parseInt(monthKey.substring(0, 4));
+        int month = Integer.parseInt(monthKey.substring(5, 7)) - 1;
+
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.set(year, month, 1);
+        long start = calendar.getTimeInMillis();
+        calendar.add(Calendar.MONTH, 1);
+        return new long[]{start, calendar.getTimeInMillis()};
+    }
+
+    /**
+     * Adds a record fingerprint to its month bucket
+     */
+    public static void addLeaf(Map<String, List<String>> leavesByMonth, long millis, String fingerprint) {
+        String month = monthKey(millis);
+        List<String> leaves = leavesByMonth.get(month);
+        if (leaves == null) {
+            leaves = new ArrayList<>();
+            leavesByMonth.put(month, leaves);
+        }
+        leaves.add(fingerprint);
+    }
+
+    /**
+     * Hash of a single bucket. Leaves are sorted so row order never matters.
+     */
+    public static String bucketHash(List<String> leaves) {
+        List<String> sorted = new ArrayList<>(leaves);
+        Collections.sort(sorted);
+        return sha256(String.join("\n", sorted));
+    }
+
+    /**
+     * Bucket hashes for every non-empty month
+     */
+    public static Map<String, String> bucketHashes(Map<String, List<String>> leavesByMonth) {
+        Map<String, String> hashes = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : leavesByMonth.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                hashes.put(entry.getKey(), bucketHash(entry.getValue()));
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Root hash over all buckets
+     */
+    public static String rootHash(Map<String, String> bucketHashes) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : new TreeMap<>(bucketHashes).entrySet()) {
+            builder.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        return sha256(builder.toString());
+    }
+
+    public static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format(Locale.US, "%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is guaranteed on every Android release
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.fittrackpro.app.sync;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.fittrackpro.app.AppContainer;
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.PersonalRecordDao;
+import com.fittrackpro.app.data.local.dao.TombstoneDao;
+import com.fittrackpro.app.data.local.dao.WorkoutSetDao;
+import com.fittrackpro.app.data.local.entity.PersonalRecordEntity;
+import com.fittrackpro.app.data.local.entity.TombstoneEntity;
+import com.fittrackpro.app.data.local.entity.WorkoutSetEntity;
+import com.fittrackpro.app.data.model.PersonalRecord;
+import com.fittrackpro.app.data.model.WorkoutSet;
+import com.fittrackpro.app.util.AppExecutors;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.PRDetector;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+/**
+ * PRRecomputeWorker rebuilds a user's personal_records from their full set history.
+ *
+ * Workouts whose sets are not in workout_sets yet (logged before the table existed, or on
+ * another device) are first copied down from Firestore; if that fails the run is retried and
+ * nothing is replaced. Sets are streamed from Room in chronological pages of {@link Constants#PR_RECOMPUTE_CHUNK_SIZE}.
+ * Each page is split by exercise and the exercises are replayed in parallel on the compute
+ * pool, every exercise always on its own {@link PRDetector.Replay}. When the stream ends the
+ * rebuilt records are merged into the stored ones of the same exercise, type and rep count in
+ * one transaction: a stored record keeps its ID and is only rewritten, unsynced so DataSyncWorker
+ * uploads it, when its value or date changed; surplus duplicates get tombstones. Stored records
+ * the history does not cover are kept. Every
+ * exercise_daily_stats day is then rebuilt, so the e1RM progression uses one formula
+ * throughout. A stopped or failed run leaves the existing tables untouched.
+ *
+ * Progress is published as {@link #PROGRESS_PROCESSED} of {@link #PROGRESS_TOTAL} sets; the
+ * output reports the record count and throughput in sets per second.
+ */
+public class PRRecomputeWorker extends Worker {
+
+    private static final String TAG = "PRRecomputeWorker";
+
+    public static final String KEY_USER_ID = "userId";
+    public static final String KEY_E1RM_FORMULA = "e1rmFormula";
+    public static final String PROGRESS_PROCESSED = "processedSets";
+    public static final String PROGRESS_TOTAL = "totalSets";
+    public static final String OUTPUT_RECORDS = "records";
+    public static final String OUTPUT_SETS_PER_SECOND = "setsPerSecond";
+
+    private final AppDatabase db;
+    private final Executor computation;
+    private int processedSets;
+
+    public PRRecomputeWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        this.db = AppDatabase.getInstance(context);
+        this.computation = AppExecutors.getInstance().computation();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String userId = getInputData().getString(KEY_USER_ID);
+        if (userId == null) {
+            return Result.failure();
+        }
+        String formula = getInputData().getString(KEY_E1RM_FORMULA);
+        if (formula == null) formula = Constants.DEFAULT_E1RM_FORMULA;
+
+        try {
+            int backfilled = backfillHistory(userId);
+            Log.d(TAG, "Backfilled " + backfilled + " sets from Firestore");
+        } catch (Exception e) {
+            Log.w(TAG, "History backfill failed, existing records kept", e);
+            return Result.retry();
+        }
+
+        try {
+            long start = SystemClock.elapsedRealtime();
+            Map<String, PRDetector.Replay> replays = replayHistory(userId, formula);
+            if (replays == null) {
+                Log.d(TAG, "Stopped before finishing, existing records kept");
+                return Result.failure();
+            }
+
+            List<PersonalRecord> records = new ArrayList<>();
+            for (PRDetector.Replay replay : replays.values()) {
+                records.addAll(replay.getRecords());
+            }
+            swapRecords(userId, records);
+            // Daily e1RM rows hold whichever formula was active when each day was saved
+            AppContainer.from(getApplicationContext()).getWorkoutRepository().refreshAllHistorySync(userId);
+
+            long elapsedMs = Math.max(1, SystemClock.elapsedRealtime() - start);
+            double setsPerSecond = processedSets * 1000.0 / elapsedMs;
+            Log.i(TAG, "Rebuilt " + records.size() + " records from " + processedSets + " sets in "
+                    + elapsedMs + " ms (" + Math.round(setsPerSecond) + " sets/s)");
+
+            return Result.success(new Data.Builder()
+                    .putInt(OUTPUT_RECORDS, records.size())
+                    .putDouble(OUTPUT_SETS_PER_SECOND, setsPerSecond)
+                    .build());
+        } catch (Exception e) {
+            Log.e(TAG, "PR recomputation failed", e);
+            return Result.failure();
+        }
+    }
+
+    /**
+     * Copy down the sets of every remote workout that has none in workout_sets; returns the count
+     */
+    private int backfillHistory(String userId) throws Exception {
+        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+        Set<String> local = new HashSet<>(db.workoutSetDao().getWorkoutIds(userId));
+        local.addAll(db.tombstoneDao().getDeletedIds(Constants.COLLECTION_COMPLETED_WORKOUTS));
+
+        QuerySnapshot workouts = Tasks.await(firestore.collection(Constants.COLLECTION_COMPLETED_WORKOUTS)
+                .whereEqualTo("userId", userId)
+                .get(Source.SERVER));
+        List<DocumentSnapshot> missing = new ArrayList<>();
+        for (DocumentSnapshot workout : workouts.getDocuments()) {
+            if (!local.contains(workout.getId()) && workout.getTimestamp("startTime") != null) {
+                missing.add(workout);
+            }
+        }
+
+        int backfilled = 0;
+        List<Long> performedAts = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += Constants.PR_BACKFILL_PARALLEL_READS) {
+            List<DocumentSnapshot> chunk = missing.subList(from,
+                    Math.min(missing.size(), from + Constants.PR_BACKFILL_PARALLEL_READS));
+            List<Task<QuerySnapshot>> reads = new ArrayList<>();
+            for (DocumentSnapshot workout : chunk) {
+                reads.add(workout.getReference().collection(Constants.COLLECTION_WORKOUT_SETS).get(Source.SERVER));
+            }
+            Tasks.await(Tasks.whenAllSuccess(reads));
+
+            List<WorkoutSetEntity> entities = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                DocumentSnapshot workout = chunk.get(i);
+                long performedAt = workout.getTimestamp("startTime").toDate().getTime();
+                for (DocumentSnapshot doc : reads.get(i).getResult().getDocuments()) {
+                    WorkoutSet set = doc.toObject(WorkoutSet.class);
+                    if (set == null || Constants.SET_STATUS_SKIPPED.equals(set.getStatus())) continue;
+
+                    WorkoutSetEntity entity = new WorkoutSetEntity();
+                    entity.setSetId(doc.getId());
+                    entity.setWorkoutId(workout.getId());
+                    entity.setUserId(userId);
+                    entity.setExerciseName(set.getExerciseName());
+                    entity.setSetNumber(set.getSetNumber());
+                    entity.setWeight(set.getWeight());
+                    entity.setReps(set.getReps());
+                    entity.setStatus(set.getStatus());
+                    entity.setPerformedAt(performedAt);
+                    entities.add(entity);
+                }
+                performedAts.add(performedAt);
+            }
+            db.workoutSetDao().insertSets(entities);
+            backfilled += entities.size();
+            if (isStopped()) throw new CancellationException("Stopped during backfill");
+        }
+
+        if (!performedAts.isEmpty()) {
+            AppContainer.from(getApplicationContext()).getWorkoutRepository()
+                    .refreshHistorySync(userId, performedAts);
+        }
+        return backfilled;
+    }
+
+    /**
+     * Stream the history page by page, returning one replay per exercise or null if stopped
+     */
+    private Map<String, PRDetector.Replay> replayHistory(String userId, String formula) throws Exception {
+        WorkoutSetDao setDao = db.workoutSetDao();
+        int total = setDao.countCompletedSets(userId);
+        Map<String, PRDetector.Replay> replays = new HashMap<>();
+
+        long afterTime = Long.MIN_VALUE;
+        String afterSetId = "";
+        processedSets = 0;
+        setProgressAsync(progress(0, total));
+
+        while (true) {
+            List<WorkoutSetEntity> page = setDao.getCompletedSetsAfter(userId, afterTime, afterSetId,
+                    Constants.PR_RECOMPUTE_CHUNK_SIZE);
+            if (page.isEmpty()) break;
+
+            // Group by exercise, keeping chronological order inside each group
+            Map<String, List<WorkoutSetEntity>> byExercise = new LinkedHashMap<>();
+            for (WorkoutSetEntity set : page) {
+                List<WorkoutSetEntity> sets = byExercise.get(set.getExerciseName());
+                if (sets == null) {
+                    sets = new ArrayList<>();
+                    byExercise.put(set.getExerciseName(), sets);
+                }
+                sets.add(set);
+            }
+
+            List<Task<Void>> tasks = new ArrayList<>();
+            for (Map.Entry<String, List<WorkoutSetEntity>> entry : byExercise.entrySet()) {
+                PRDetector.Replay replay = replays.get(entry.getKey());
+                if (replay == null) {
+                    replay = new PRDetector.Replay(userId, entry.getKey(), formula);
+                    replays.put(entry.getKey(), replay);
+                }
+                PRDetector.Replay target = replay;
+                tasks.add(Tasks.call(computation, () -> {
+                    for (WorkoutSetEntity set : entry.getValue()) {
+                        target.add(set.getWeight(), set.getReps(), set.getPerformedAt());
+                    }
+                    return null;
+                }));
+            }
+            Tasks.await(Tasks.whenAll(tasks));
+
+            WorkoutSetEntity last = page.get(page.size() - 1);
+            afterTime = last.getPerformedAt();
+            afterSetId = last.getSetId();
+            processedSets += page.size();
+            setProgressAsync(progress(processedSets, total));
+
+            if (isStopped()) return null;
+            if (page.size() < Constants.PR_RECOMPUTE_CHUNK_SIZE) break;
+        }
+        return replays;
+    }
+
+    /**
+     * Merge the rebuilt records into the stored ones they cover, keeping the rest, in one transaction
+     */
+    private void swapRecords(String userId, List<PersonalRecord> records) {
+        Map<String, PersonalRecord> rebuilt = new HashMap<>();
+        for (PersonalRecord record : records) {
+            rebuilt.put(recordKey(record.getExerciseName(), record.getRecordType(), record.getReps()), record);
+        }
+
+        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+        PersonalRecordDao recordDao = db.personalRecordDao();
+        TombstoneDao tombstoneDao = db.tombstoneDao();
+        db.runInTransaction(() -> {
+            Set<String> stored = new HashSet<>();
+            List<PersonalRecordEntity> changed = new ArrayList<>();
+            for (PersonalRecordEntity old : recordDao.getAllRecordsSync(userId)) {
+                String key = recordKey(old.getExerciseName(), old.getRecordType(), old.getReps());
+                PersonalRecord record = rebuilt.get(key);
+                if (record == null) continue; // Not covered by the history
+
+                if (!stored.add(key)) {
+                    // A second record for the same key; the first one carries the rebuilt value
+                    tombstoneDao.insertTombstone(TombstoneEntity.create(
+                            Constants.COLLECTION_PERSONAL_RECORDS, old.getRecordId(), userId));
+                    recordDao.deleteRecordById(old.getRecordId());
+                    continue;
+                }
+
+                long achievedAt = record.getAchievedAt().toDate().getTime();
+                if (Double.compare(old.getValue(), record.getValue()) != 0
+                        || old.getAchievedAt() != achievedAt || old.getReps() != record.getReps()) {
+                    old.setValue(record.getValue());
+                    old.setReps(record.getReps());
+                    old.setAchievedAt(achievedAt);
+                    old.setSynced(false);
+                    old.setSyncAttempts(0);
+                    old.setSyncError(null);
+                    changed.add(old);
+                }
+            }
+
+            for (Map.Entry<String, PersonalRecord> entry : rebuilt.entrySet()) {
+                if (stored.contains(entry.getKey())) continue;
+                PersonalRecord record = entry.getValue();
+                PersonalRecordEntity entity = new PersonalRecordEntity();
+                entity.setRecordId(firestore.collection(Constants.COLLECTION_PERSONAL_RECORDS).document().getId());
+                entity.setUserId(userId);
+                entity.setExerciseName(record.getExerciseName());
+                entity.setRecordType(record.getRecordType());
+                entity.setValue(record.getValue());
+                entity.setReps(record.getReps());
+                entity.setAchievedAt(record.getAchievedAt().toDate().getTime());
+                entity.setSynced(false);
+                changed.add(entity);
+            }
+            recordDao.insertRecords(changed);
+            Log.d(TAG, "Rewrote " + changed.size() + " of " + rebuilt.size() + " rebuilt records");
+        });
+    }
+
+    /**
+     * Exercise, type and, for rep-max records, rep count
+     */
+    private static String recordKey(String exerciseName, String recordType, int reps) {
+        String key = exerciseName + '|' + recordType;
+        return Constants.PR_TYPE_REP_MAX.equals(recordType) ? key + '|' + reps : key;
+    }
+
+    private static Data progress(int processed, int total) {
+        return new Data.Builder()
+                .putInt(PROGRESS_PROCESSED, processed)
+                .putInt(PROGRESS_TOTAL, total)
+                .build();
+    }
+}
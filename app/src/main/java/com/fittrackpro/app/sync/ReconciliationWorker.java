@@ -0,0 +1,485 @@
+package com.fittrackpro.app.sync;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.data.local.dao.*;
+import com.fittrackpro.app.data.local.entity.*;
+import com.fittrackpro.app.data.repository.StreakTracker;
+import com.fittrackpro.app.util.Constants;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * ReconciliationWorker runs a Merkle-style anti-entropy check between Room and Firestore.
+ *
+ * For workouts, PRs and meals it hashes the local rows into monthly buckets and compares
+ * them with the digest document stored in {@code syncDigests/{userId}_{type}}. Only the
+ * months whose hashes differ are queried from Firestore and repaired:
+ * - rows missing locally are pulled into Room
+ * - rows missing or different remotely are re-queued for DataSyncWorker
+ *
+ * A clean run costs one digest read per data type.
+ */
+public class ReconciliationWorker extends Worker {
+
+    private static final String TAG = "ReconciliationWorker";
+    private static final int MAX_RUN_ATTEMPTS = 3;
+
+    static final String TYPE_WORKOUTS = "workouts";
+    static final String TYPE_PERSONAL_RECORDS = "personalRecords";
+    static final String TYPE_MEALS = "meals";
+
+    private final AppDatabase db;
+    private final FirebaseFirestore firestore;
+    private final StreakTracker streakTracker;
+
+    public ReconciliationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        this.db = AppDatabase.getInstance(context);
+        this.streakTracker = new StreakTracker(db);
+        this.firestore = FirebaseFirestore.getInstance();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String userId = getInputData().getString("userId");
+        if (userId == null) {
+            Log.e(TAG, "No userId provided");
+            return Result.failure();
+        }
+
+        try {
+            int requeued = 0;
+            requeued += reconcileWorkouts(userId);
+            requeued += reconcilePersonalRecords(userId);
+            requeued += reconcileMeals(userId);
+
+            if (requeued > 0) {
+                Log.d(TAG, "Re-queued " + requeued + " rows for upload");
+                SyncManager.getInstance(getApplicationContext()).syncNow(userId);
+            }
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Reconciliation failed", e);
+            if (getRunAttemptCount() < MAX_RUN_ATTEMPTS) {
+                return Result.retry();
+            }
+            return Result.failure();
+        }
+    }
+
+    // ==================== COMPLETED WORKOUTS ====================
+
+    private int reconcileWorkouts(String userId) throws Exception {
+        CompletedWorkoutDao dao = db.completedWorkoutDao();
+        Set<String> deleted = new HashSet<>(db.tombstoneDao().getDeletedIds(Constants.COLLECTION_COMPLETED_WORKOUTS));
+
+        Map<String, List<String>> leaves = new HashMap<>();
+        for (CompletedWorkoutEntity workout : dao.getAllWorkoutsSync(userId)) {
+            MerkleDigest.addLeaf(leaves, workout.getStartTime(), fingerprint(workout));
+        }
+
+        RemoteDigest remote = RemoteDigest.fetch(firestore, userId, TYPE_WORKOUTS);
+        Set<String> mismatched = remote.mismatchedBuckets(MerkleDigest.bucketHashes(leaves));
+        Log.d(TAG, "Workouts: " + mismatched.size() + " mismatched months");
+
+        int requeued = 0;
+        Map<String, String> converged = new HashMap<>();
+
+        for (String month : mismatched) {
+            long[] range = MerkleDigest.monthRange(month);
+            QuerySnapshot snapshot = Tasks.await(queryMonth(
+                    Constants.COLLECTION_COMPLETED_WORKOUTS, "startTime", userId, range));
+
+            Map<String, CompletedWorkoutEntity> localRows = new HashMap<>();
+            for (CompletedWorkoutEntity workout : dao.getWorkoutsInRange(userId, range[0], range[1])) {
+                localRows.put(workout.getWorkoutId(), workout);
+            }
+
+            int bucketRequeued = 0;
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                CompletedWorkoutEntity remoteRow = workoutFromDocument(doc);
+                CompletedWorkoutEntity localRow = localRows.remove(remoteRow.getWorkoutId());
+                if (deleted.contains(remoteRow.getWorkoutId())) {
+                    // Deleted here but not yet synced; DataSyncWorker removes the remote row
+                    bucketRequeued++;
+                    continue;
+                }
+                if (localRow == null) {
+                    dao.insertWorkout(remoteRow);
+                    streakTracker.onWorkoutSaved(userId, remoteRow.getWorkoutId(), remoteRow.getStartTime());
+                } else if (!fingerprint(localRow).equals(fingerprint(remoteRow))) {
+                    // Local always wins for workouts
+                    requeue(localRow);
+                    dao.updateWorkout(localRow);
+                    bucketRequeued++;
+                }
+            }
+            for (CompletedWorkoutEntity missingRemotely : localRows.values()) {
+                requeue(missingRemotely);
+                dao.updateWorkout(missingRemotely);
+                bucketRequeued++;
+            }
+
+            if (bucketRequeued == 0) {
+                List<String> bucketLeaves = new ArrayList<>();
+                for (CompletedWorkoutEntity workout : dao.getWorkoutsInRange(userId, range[0], range[1])) {
+                    bucketLeaves.add(fingerprint(workout));
+                }
+                converged.put(month, bucketLeaves.isEmpty() ? null : MerkleDigest.bucketHash(bucketLeaves));
+            }
+            requeued += bucketRequeued;
+        }
+
+        remote.publish(converged);
+        return requeued;
+    }
+
+    private static String fingerprint(CompletedWorkoutEntity workout) {
+        return String.format(Locale.US, "%s|%d|%d|%s|%d",
+                workout.getWorkoutId(), workout.getStartTime(), workout.getDurationSeconds(),
+                Double.toString(workout.getTotalVolume()), workout.getTotalSets());
+    }
+
+    private static void requeue(CompletedWorkoutEntity workout) {
+        workout.setSynced(false);
+        workout.setSyncAttempts(0);
+        workout.setSyncError(null);
+    }
+
+    private static CompletedWorkoutEntity workoutFromDocument(DocumentSnapshot doc) {
+        CompletedWorkoutEntity entity = new CompletedWorkoutEntity();
+        entity.setWorkoutId(doc.getId());
+        entity.setUserId(doc.getString("userId"));
+        entity.setProgramId(doc.getString("programId"));
+        entity.setDayId(doc.getString("dayId"));
+        entity.setWorkoutName(doc.getString("workoutName"));
+        entity.setStartTime(millis(doc.getTimestamp("startTime")));
+        entity.setEndTime(millis(doc.getTimestamp("endTime")));
+        entity.setDurationSeconds(longValue(doc.getLong("durationSeconds")));
+        entity.setTotalVolume(doubleValue(doc.getDouble("totalVolume")));
+        entity.setTotalSets((int) longValue(doc.getLong("totalSets")));
+        entity.setTotalExercises((int) longValue(doc.getLong("totalExercises")));
+        entity.setSynced(true);
+        entity.setLastSyncAttempt(System.currentTimeMillis());
+        return entity;
+    }
+
+    // ==================== PERSONAL RECORDS ====================
+
+    private int reconcilePersonalRecords(String userId) throws Exception {
+        PersonalRecordDao dao = db.personalRecordDao();
+        Set<String> deleted = new HashSet<>(db.tombstoneDao().getDeletedIds(Constants.COLLECTION_PERSONAL_RECORDS));
+
+        Map<String, List<String>> leaves = new HashMap<>();
+        for (PersonalRecordEntity record : dao.getAllRecordsSync(userId)) {
+            MerkleDigest.addLeaf(leaves, record.getAchievedAt(), fingerprint(record));
+        }
+
+        RemoteDigest remote = RemoteDigest.fetch(firestore, userId, TYPE_PERSONAL_RECORDS);
+        Set<String> mismatched = remote.mismatchedBuckets(MerkleDigest.bucketHashes(leaves));
+        Log.d(TAG, "Personal records: " + mismatched.size() + " mismatched months");
+
+        int requeued = 0;
+        Map<String, String> converged = new HashMap<>();
+
+        for (String month : mismatched) {
+            long[] range = MerkleDigest.monthRange(month);
+            QuerySnapshot snapshot = Tasks.await(queryMonth(
+                    Constants.COLLECTION_PERSONAL_RECORDS, "achievedAt", userId, range));
+
+            Map<String, PersonalRecordEntity> localRows = new HashMap<>();
+            for (PersonalRecordEntity record : dao.getRecordsInRange(userId, range[0], range[1])) {
+                localRows.put(record.getRecordId(), record);
+            }
+
+            int bucketRequeued = 0;
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                PersonalRecordEntity remoteRow = recordFromDocument(doc);
+                PersonalRecordEntity localRow = localRows.remove(remoteRow.getRecordId());
+                if (deleted.contains(remoteRow.getRecordId())) {
+                    // Deleted here but not yet synced; DataSyncWorker removes the remote row
+                    bucketRequeued++;
+                    continue;
+                }
+                if (localRow == null) {
+                    dao.insertRecord(remoteRow);
+                } else if (!fingerprint(localRow).equals(fingerprint(remoteRow))) {
+                    // Keep the highest value, never lose a PR
+                    if (remoteRow.getValue() > localRow.getValue()) {
+                        dao.insertRecord(remoteRow);
+                    } else {
+                        requeue(localRow);
+                        dao.insertRecord(localRow);
+                        bucketRequeued++;
+                    }
+                }
+            }
+            for (PersonalRecordEntity missingRemotely : localRows.values()) {
+                requeue(missingRemotely);
+                dao.insertRecord(missingRemotely);
+                bucketRequeued++;
+            }
+
+            if (bucketRequeued == 0) {
+                List<String> bucketLeaves = new ArrayList<>();
+                for (PersonalRecordEntity record : dao.getRecordsInRange(userId, range[0], range[1])) {
+                    bucketLeaves.add(fingerprint(record));
+                }
+                converged.put(month, bucketLeaves.isEmpty() ? null : MerkleDigest.bucketHash(bucketLeaves));
+            }
+            requeued += bucketRequeued;
+        }
+
+        remote.publish(converged);
+        return requeued;
+    }
+
+    private static String fingerprint(PersonalRecordEntity record) {
+        return String.format(Locale.US, "%s|%s|%s|%s|%d|%d",
+                record.getRecordId(), record.getExerciseName(), record.getRecordType(),
+                Double.toString(record.getValue()), record.getReps(), record.getAchievedAt());
+    }
+
+    private static void requeue(PersonalRecordEntity record) {
+        record.setSynced(false);
+        record.setSyncAttempts(0);
+        record.setSyncError(null);
+    }
+
+    private static PersonalRecordEntity recordFromDocument(DocumentSnapshot doc) {
+        PersonalRecordEntity entity = new PersonalRecordEntity();
+        entity.setRecordId(doc.getId());
+        entity.setUserId(doc.getString("userId"));
+        entity.setExerciseName(doc.getString("exerciseName"));
+        entity.setRecordType(doc.getString("recordType"));
+        entity.setValue(doubleValue(doc.getDouble("value")));
+        entity.setReps((int) longValue(doc.getLong("reps")));
+        entity.setAchievedAt(millis(doc.getTimestamp("achievedAt")));
+        entity.setSynced(true);
+        entity.setLastSyncAttempt(System.currentTimeMillis());
+        return entity;
+    }
+
+    // ==================== MEAL LOGS ====================
+
+    private int reconcileMeals(String userId) throws Exception {
+        MealLoggedDao dao = db.mealLoggedDao();
+        Set<String> deleted = new HashSet<>(db.tombstoneDao().getDeletedIds(Constants.COLLECTION_MEALS_LOGGED));
+
+        Map<String, List<String>> leaves = new HashMap<>();
+        for (MealLoggedEntity meal : dao.getAllMealsSync(userId)) {
+            MerkleDigest.addLeaf(leaves, meal.getLoggedAt(), fingerprint(meal));
+        }
+
+        RemoteDigest remote = RemoteDigest.fetch(firestore, userId, TYPE_MEALS);
+        Set<String> mismatched = remote.mismatchedBuckets(MerkleDigest.bucketHashes(leaves));
+        Log.d(TAG, "Meals: " + mismatched.size() + " mismatched months");
+
+        int requeued = 0;
+        Map<String, String> converged = new HashMap<>();
+
+        for (String month : mismatched) {
+            long[] range = MerkleDigest.monthRange(month);
+            QuerySnapshot snapshot = Tasks.await(queryMonth(
+                    Constants.COLLECTION_MEALS_LOGGED, "loggedAt", userId, range));
+
+            Map<String, MealLoggedEntity> localRows = new HashMap<>();
+            for (MealLoggedEntity meal : dao.getMealsInRange(userId, range[0], range[1])) {
+                localRows.put(meal.getLogId(), meal);
+            }
+
+            int bucketRequeued = 0;
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                MealLoggedEntity remoteRow = mealFromDocument(doc);
+                MealLoggedEntity localRow = localRows.remove(remoteRow.getLogId());
+                if (deleted.contains(remoteRow.getLogId())) {
+                    // Deleted here but not yet synced; DataSyncWorker removes the remote row
+                    bucketRequeued++;
+                    continue;
+                }
+                if (localRow == null) {
+                    dao.insertMeal(remoteRow);
+                } else if (!fingerprint(localRow).equals(fingerprint(remoteRow))) {
+                    requeue(localRow);
+                    dao.updateMeal(localRow);
+                    bucketRequeued++;
+                }
+            }
+            for (MealLoggedEntity missingRemotely : localRows.values()) {
+                requeue(missingRemotely);
+                dao.updateMeal(missingRemotely);
+                bucketRequeued++;
+            }
+
+            if (bucketRequeued == 0) {
+                List<String> bucketLeaves = new ArrayList<>();
+                for (MealLoggedEntity meal : dao.getMealsInRange(userId, range[0], range[1])) {
+                    bucketLeaves.add(fingerprint(meal));
+                }
+                converged.put(month, bucketLeaves.isEmpty() ? null : MerkleDigest.bucketHash(bucketLeaves));
+            }
+            requeued += bucketRequeued;
+        }
+
+        remote.publish(converged);
+        return requeued;
+    }
+
+    private static String fingerprint(MealLoggedEntity meal) {
+        return String.format(Locale.US, "%s|%s|%s|%s|%d",
+                meal.getLogId(), meal.getMealType(), Double.toString(meal.getPortionMultiplier()),
+                Double.toString(meal.getCalories()), meal.getLoggedAt());
+    }
+
+    private static void requeue(MealLoggedEntity meal) {
+        meal.setSynced(false);
+        meal.setSyncAttempts(0);
+        meal.setSyncError(null);
+    }
+
+    private static MealLoggedEntity mealFromDocument(DocumentSnapshot doc) {
+        MealLoggedEntity entity = new MealLoggedEntity();
+        entity.setLogId(doc.getId());
+        entity.setUserId(doc.getString("userId"));
+        entity.setFoodId(doc.getString("foodId"));
+        entity.setFoodName(doc.getString("foodName"));
+        entity.setMealType(doc.getString("mealType"));
+        entity.setPortionMultiplier(doubleValue(doc.getDouble("portionMultiplier")));
+        entity.setCalories(doubleValue(doc.getDouble("calories")));
+        entity.setProtein(doubleValue(doc.getDouble("protein")));
+        entity.setCarbs(doubleValue(doc.getDouble("carbs")));
+        entity.setFats(doubleValue(doc.getDouble("fats")));
+        entity.setLoggedAt(millis(doc.getTimestamp("loggedAt")));
+        entity.setSynced(true);
+        entity.setLastSyncAttempt(System.currentTimeMillis());
+        return entity;
+    }
+
+    // ==================== HELPERS ====================
+
+    private com.google.android.gms.tasks.Task<QuerySnapshot> queryMonth(String collection, String timeField,
+                                                                       String userId, long[] range) {
+        return firestore.collection(collection)
+                .whereEqualTo("userId", userId)
+                .whereGreaterThanOrEqualTo(timeField, new Timestamp(new Date(range[0])))
+                .whereLessThan(timeField, new Timestamp(new Date(range[1])))
+                .get();
+    }
+
+    private static long millis(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toDate().getTime() : 0;
+    }
+
+    private static long longValue(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static double doubleValue(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    /**
+     * Remote side of the hash tree: one document per user and data type holding the
+     * root hash plus a month → bucket hash map.
+     */
+    private static class RemoteDigest {
+        private final DocumentReference reference;
+        private final String userId;
+        private final String type;
+        private final String root;
+        private final Map<String, String> buckets;
+
+        private RemoteDigest(DocumentReference reference, String userId, String type,
+                             String root, Map<String, String> buckets) {
+            this.reference = reference;
+            this.userId = userId;
+            this.type = type;
+            this.root = root;
+            this.buckets = buckets;
+        }
+
+        static RemoteDigest fetch(FirebaseFirestore firestore, String userId, String type) throws Exception {
+            DocumentReference reference = firestore.collection(Constants.COLLECTION_SYNC_DIGESTS)
+                    .document(userId + "_" + type);
+            DocumentSnapshot snapshot = Tasks.await(reference.get());
+
+            Map<String, String> buckets = new HashMap<>();
+            String root = null;
+            if (snapshot.exists()) {
+                root = snapshot.getString("root");
+                Object raw = snapshot.get("buckets");
+                if (raw instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) raw).entrySet()) {
+                        buckets.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+                    }
+                }
+            }
+            return new RemoteDigest(reference, userId, type, root, buckets);
+        }
+
+        /**
+         * Top-down comparison: an equal root short-circuits, otherwise compare bucket by bucket
+         */
+        Set<String> mismatchedBuckets(Map<String, String> localBuckets) {
+            Set<String> mismatched = new TreeSet<>();
+            if (root != null && root.equals(MerkleDigest.rootHash(localBuckets))) {
+                return mismatched;
+            }
+
+            Set<String> months = new HashSet<>(localBuckets.keySet());
+            months.addAll(buckets.keySet());
+            for (String month : months) {
+                String local = localBuckets.get(month);
+                if (local == null || !local.equals(buckets.get(month))) {
+                    mismatched.add(month);
+                }
+            }
+            return mismatched;
+        }
+
+        /**
+         * Writes back the hashes of buckets that are now identical on both sides
+         * (a null hash means the bucket is empty on both sides)
+         */
+        void publish(Map<String, String> converged) throws Exception {
+            if (converged.isEmpty()) {
+                return;
+            }
+
+            for (Map.Entry<String, String> entry : converged.entrySet()) {
+                if (entry.getValue() == null) {
+                    buckets.remove(entry.getKey());
+                } else {
+                    buckets.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("userId", userId);
+            data.put("type", type);
+            data.put("root", MerkleDigest.rootHash(buckets));
+            data.put("buckets", new HashMap<>(buckets));
+            data.put("updatedAt", Timestamp.now());
+            Tasks.await(reference.set(data));
+        }
+    }
+}
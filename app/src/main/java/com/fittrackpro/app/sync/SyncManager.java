@@ -13,6 +13,8 @@ import java.util.concurrent.TimeUnit;
 public class SyncManager {
 
     private static final String SYNC_WORK_TAG = "fittrack_data_sync";
+    private static final String ACCOUNT_DELETION_TAG = "fittrack_account_deletion";
+    private static final String PR_RECOMPUTE_WORK = "recompute_prs_";
     private static SyncManager instance;
     private final Context context;
 
@@ -67,6 +69,123 @@ public class SyncManager {
         );
     }
 
+    /**
+     * Schedule the daily Room/Firestore anti-entropy check (see ReconciliationWorker)
+     */
+    public void scheduleReconciliation(String userId) {
+        Data inputData = new Data.Builder()
+                .putString("userId", userId)
+                .build();
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+
+        PeriodicWorkRequest reconciliation = new PeriodicWorkRequest.Builder(
+                ReconciliationWorker.class,
+                1, TimeUnit.DAYS)
+                .setInputData(inputData)
+                .setConstraints(constraints)
+                .addTag(SYNC_WORK_TAG)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                "reconcile_" + userId,
+                ExistingPeriodicWorkPolicy.KEEP,
+                reconciliation
+        );
+    }
+
+    /**
+     * Schedule hourly global leaderboard snapshots (see LeaderboardSnapshotWorker)
+     */
+    public void scheduleLeaderboardSnapshots() {
+        PeriodicWorkRequest snapshot = new PeriodicWorkRequest.Builder(
+                LeaderboardSnapshotWorker.class,
+                1, TimeUnit.HOURS)
+                .setConstraints(getDefaultConstraints())
+                .addTag(SYNC_WORK_TAG)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                "leaderboard_snapshot",
+                ExistingPeriodicWorkPolicy.KEEP,
+                snapshot
+        );
+    }
+
+    /**
+     * Refresh the leaderboard snapshot now, unless a refresh is already queued
+     */
+    public void refreshLeaderboardNow() {
+        OneTimeWorkRequest snapshot = new OneTimeWorkRequest.Builder(LeaderboardSnapshotWorker.class)
+                .setConstraints(getDefaultConstraints())
+                .addTag(SYNC_WORK_TAG)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                "leaderboard_snapshot_now",
+                ExistingWorkPolicy.KEEP,
+                snapshot
+        );
+    }
+
+    /**
+     * Erase the account in the background (see AccountDeletionWorker). Uses its own tag
+     * so cancelSync() does not stop it; enqueueing again while it runs is a no-op.
+     */
+    public void deleteAccount(String userId) {
+        AccountDeletionWorker.markPending(context, userId);
+        Data inputData = new Data.Builder()
+                .putString("userId", userId)
+                .build();
+
+        OneTimeWorkRequest deletion = new OneTimeWorkRequest.Builder(AccountDeletionWorker.class)
+                .setInputData(inputData)
+                .setConstraints(getDefaultConstraints())
+                .addTag(ACCOUNT_DELETION_TAG)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                "delete_account_" + userId,
+                ExistingWorkPolicy.KEEP,
+                deletion
+        );
+    }
+
+    /**
+     * Whether the account is being erased; nothing should be scheduled or shown for it
+     */
+    public boolean isAccountDeletionPending(String userId) {
+        return AccountDeletionWorker.isPending(context, userId);
+    }
+
+    /**
+     * Rebuild the user's personal records from their full set history (see PRRecomputeWorker).
+     * Needs network to copy down history missing locally; a new request replaces one that is
+     * still running.
+     */
+    public void recomputePersonalRecords(String userId, String e1rmFormula) {
+        Data inputData = new Data.Builder()
+                .putString(PRRecomputeWorker.KEY_USER_ID, userId)
+                .putString(PRRecomputeWorker.KEY_E1RM_FORMULA, e1rmFormula)
+                .build();
+
+        OneTimeWorkRequest recompute = new OneTimeWorkRequest.Builder(PRRecomputeWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setInputData(inputData)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                PR_RECOMPUTE_WORK + userId,
+                ExistingWorkPolicy.REPLACE,
+                recompute
+        );
+    }
+
     /**
      * Cancel all sync work
      */
@@ -0,0 +1,54 @@
+package com.fittrackpro.app.sync;
+
+import com.fittrackpro.app.data.local.entity.UserEntity;
+import com.fittrackpro.app.util.Constants;
+import com.fittrackpro.app.util.TimeUtils;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * VolumeBuckets builds the weekly and monthly leaderboard bucket increments for a workout.
+ *
+ * Bucket documents are keyed {periodKey}_{userId} and only written by their owner. A workout
+ * is counted at most once: whoever adds its increments also sets
+ * {@link Constants#FIELD_LEADERBOARD_COUNTED} on the workout document in the same write, and
+ * only a counted workout is taken back out when it is deleted.
+ */
+public final class VolumeBuckets {
+
+    private VolumeBuckets() {}
+
+    /**
+     * Bucket documents and the merge data that adds {@code volume} and {@code workouts} to them
+     */
+    public static Map<DocumentReference, Map<String, Object>> increments(FirebaseFirestore firestore,
+                                                                         String userId, UserEntity user,
+                                                                         long completedAt, double volume,
+                                                                         int workouts) {
+        Map<DocumentReference, Map<String, Object>> buckets = new HashMap<>();
+        String[] periods = {Constants.LEADERBOARD_PERIOD_WEEK, Constants.LEADERBOARD_PERIOD_MONTH};
+
+        for (String period : periods) {
+            String periodKey = TimeUtils.leaderboardPeriodKey(period, completedAt);
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("userId", userId);
+            data.put("period", period);
+            data.put("periodKey", periodKey);
+            if (user != null) {
+                data.put("username", user.getUsername());
+                data.put("displayName", user.getDisplayName());
+            }
+            data.put("volume", FieldValue.increment(volume));
+            data.put("workouts", FieldValue.increment(workouts));
+            data.put("updatedAt", FieldValue.serverTimestamp());
+
+            buckets.put(firestore.collection(Constants.COLLECTION_VOLUME_BUCKETS)
+                    .document(periodKey + "_" + userId), data);
+        }
+        return buckets;
+    }
+}
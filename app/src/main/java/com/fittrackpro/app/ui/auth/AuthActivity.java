@@ -4,8 +4,10 @@ import android.content.Intent;
 import android.os.Bundle;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.data.repository.AuthRepository;
+import com.fittrackpro.app.sync.SyncManager;
 import com. fittrackpro.app.ui.main.MainActivity;
 
 /**
@@ -20,10 +22,11 @@ public class AuthActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_auth);
 
-        authRepository = new AuthRepository();
+        authRepository = AppContainer.from(this).getAuthRepository();
 
-        // Check if user is already logged in
-        if (authRepository. isUserLoggedIn()) {
+        // Check if user is already logged in, unless the account is being erased
+        if (authRepository. isUserLoggedIn() && !SyncManager.getInstance(this)
+                .isAccountDeletionPending(authRepository.getCurrentUserId())) {
             navigateToMain();
         }
     }
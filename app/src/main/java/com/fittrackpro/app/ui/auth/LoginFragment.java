@@ -11,6 +11,7 @@ import androidx.annotation.Nullable;
 import androidx. fragment.app.Fragment;
 import androidx.navigation.Navigation;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.databinding.FragmentLoginBinding;
 import com.fittrackpro.app.data.repository.AuthRepository;
@@ -35,7 +36,7 @@ public class LoginFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        authRepository = new AuthRepository();
+        authRepository = AppContainer.from(requireContext()).getAuthRepository();
 
         binding.buttonBack.setOnClickListener(v -> {
             requireActivity().onBackPressed();
@@ -3,6 +3,8 @@ package com.fittrackpro.app.ui.auth;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.LayoutInflater;
@@ -14,6 +16,7 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.databinding.FragmentRegisterBinding;
 import com.fittrackpro.app.data.repository.AuthRepository;
@@ -28,6 +31,8 @@ public class RegisterFragment extends Fragment {
     private FragmentRegisterBinding binding;
     private AuthRepository authRepository;
     private boolean usernameAvailable = false;
+    private final Handler debounceHandler = new Handler(Looper.getMainLooper());
+    private Runnable pendingUsernameCheck = () -> {};
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -40,7 +45,7 @@ public class RegisterFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        authRepository = new AuthRepository();
+        authRepository = AppContainer.from(requireContext()).getAuthRepository();
 
         setupUsernameValidation();
 
@@ -67,6 +72,10 @@ public class RegisterFragment extends Fragment {
             public void afterTextChanged(Editable s) {
                 String username = s.toString().trim();
 
+                // Only the last value after a typing pause is checked
+                debounceHandler.removeCallbacks(pendingUsernameCheck);
+                usernameAvailable = false;
+
                 if (username.length() < Constants.MIN_USERNAME_LENGTH) {
                     binding.editUsername.setError(requireContext().getString(R.string.username_min_length, Constants.MIN_USERNAME_LENGTH));
                     usernameAvailable = false;
@@ -79,34 +88,42 @@ public class RegisterFragment extends Fragment {
                     return;
                 }
 
-                // Check availability
-                authRepository.isUsernameAvailable(username).observe(getViewLifecycleOwner(), available -> {
-                    if (available == null) {
-                        // Error checking username - could be network issue
-                        binding.textUsernameStatus.setText("Error checking username");
-                        binding.textUsernameStatus.setTextColor(
-                                ContextCompat.getColor(requireContext(), R.color.md_theme_error)
-                        );
-                        usernameAvailable = false;
-                        binding.textUsernameStatus.setVisibility(View.VISIBLE);
-                    } else if (available) {
-                        // Username is available
-                        binding.textUsernameStatus.setText(R.string.username_available);
-                        binding.textUsernameStatus.setTextColor(
-                                ContextCompat.getColor(requireContext(), R.color.emerald_green)
-                        );
-                        usernameAvailable = true;
-                        binding.textUsernameStatus.setVisibility(View.VISIBLE);
-                    } else {
-                        // Username is taken
-                        binding.textUsernameStatus.setText(R.string.username_taken);
-                        binding.textUsernameStatus.setTextColor(
-                                ContextCompat.getColor(requireContext(), R.color.md_theme_error)
-                        );
-                        usernameAvailable = false;
-                        binding.textUsernameStatus.setVisibility(View.VISIBLE);
-                    }
-                });
+                pendingUsernameCheck = () -> checkUsernameAvailability(username);
+                debounceHandler.postDelayed(pendingUsernameCheck, Constants.USERNAME_CHECK_DEBOUNCE_MS);
+            }
+        });
+    }
+
+    private void checkUsernameAvailability(String username) {
+        authRepository.isUsernameAvailable(username).observe(getViewLifecycleOwner(), available -> {
+            // Ignore answers for text the user has already changed
+            if (binding == null || !username.equals(binding.editUsername.getText().toString().trim())) {
+                return;
+            }
+            if (available == null) {
+                // Error checking username - could be network issue
+                binding.textUsernameStatus.setText("Error checking username");
+                binding.textUsernameStatus.setTextColor(
+                        ContextCompat.getColor(requireContext(), R.color.md_theme_error)
+                );
+                usernameAvailable = false;
+                binding.textUsernameStatus.setVisibility(View.VISIBLE);
+            } else if (available) {
+                // Username is available
+                binding.textUsernameStatus.setText(R.string.username_available);
+                binding.textUsernameStatus.setTextColor(
+                        ContextCompat.getColor(requireContext(), R.color.emerald_green)
+                );
+                usernameAvailable = true;
+                binding.textUsernameStatus.setVisibility(View.VISIBLE);
+            } else {
+                // Username is taken
+                binding.textUsernameStatus.setText(R.string.username_taken);
+                binding.textUsernameStatus.setTextColor(
+                        ContextCompat.getColor(requireContext(), R.color.md_theme_error)
+                );
+                usernameAvailable = false;
+                binding.textUsernameStatus.setVisibility(View.VISIBLE);
             }
         });
     }
@@ -180,6 +197,7 @@ public class RegisterFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        debounceHandler.removeCallbacks(pendingUsernameCheck);
         binding = null;
     }
 }
\ No newline at end of file
@@ -7,20 +7,20 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.model.CompletedWorkout;
 import com.fittrackpro.app.data.model.LeaderboardEntry;
 import com.fittrackpro.app.data.model.User;
+import com.fittrackpro.app.data.model.WorkoutPeriodStats;
 import com.fittrackpro.app.data.model.WorkoutProgram;
 import com.fittrackpro.app.data.repository.SocialRepository;
 import com.fittrackpro.app.data.repository.UserRepository;
 import com.fittrackpro.app.data.repository.WorkoutRepository;
-import com.google.firebase.Timestamp;
+import com.fittrackpro.app.util.TimeUtils;
 
 import java.util.Calendar;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * DashboardViewModel manages dashboard data.
@@ -38,26 +38,30 @@ public class DashboardViewModel extends AndroidViewModel {
     private final UserRepository userRepository;
     private final WorkoutRepository workoutRepository;
     private final SocialRepository socialRepository;
-    private final Executor executor;
 
     private final MutableLiveData<String> userId = new MutableLiveData<>();
     private final MediatorLiveData<User> user = new MediatorLiveData<>();
     private final MediatorLiveData<List<CompletedWorkout>> recentWorkouts = new MediatorLiveData<>();
     private final MediatorLiveData<List<LeaderboardEntry>> leaderboardPreview = new MediatorLiveData<>();
-    private final MutableLiveData<Integer> thisWeekWorkouts = new MutableLiveData<>(0);
-    private final MutableLiveData<Integer> thisMonthWorkouts = new MutableLiveData<>(0);
-    private final MutableLiveData<Long> avgWorkoutDuration = new MutableLiveData<>(0L);
+    private final MediatorLiveData<Integer> thisWeekWorkouts = new MediatorLiveData<>();
+    private final MediatorLiveData<Integer> thisMonthWorkouts = new MediatorLiveData<>();
+    private final MediatorLiveData<Long> avgWorkoutDuration = new MediatorLiveData<>();
+    private LiveData<WorkoutPeriodStats> weekStatsSource;
+    private LiveData<WorkoutPeriodStats> monthStatsSource;
+    private LiveData<WorkoutPeriodStats> allTimeStatsSource;
     private final MutableLiveData<WorkoutProgram> activeProgram = new MutableLiveData<>();
     private final MutableLiveData<String> greeting = new MutableLiveData<>();
 
     public DashboardViewModel(@NonNull Application application) {
         super(application);
 
-        AppDatabase database = AppDatabase.getInstance(application);
-        this.userRepository = new UserRepository(database, application);
-        this.workoutRepository = new WorkoutRepository(database);
-        this.socialRepository = new SocialRepository();
-        this.executor = Executors.newSingleThreadExecutor();
+        AppContainer container = AppContainer.from(application);
+        this.userRepository = container.getUserRepository();
+        this.workoutRepository = container.getWorkoutRepository();
+        this.socialRepository = container.getSocialRepository();
+        thisWeekWorkouts.setValue(0);
+        thisMonthWorkouts.setValue(0);
+        avgWorkoutDuration.setValue(0L);
         
         updateGreeting();
     }
@@ -75,12 +79,9 @@ public class DashboardViewModel extends AndroidViewModel {
         // Load recent workouts
         LiveData<List<CompletedWorkout>> workoutsSource =
                 workoutRepository.getRecentWorkouts(userId, 5);
-        recentWorkouts.addSource(workoutsSource, workouts -> {
-            recentWorkouts.setValue(workouts);
-            if (workouts != null) {
-                calculateWorkoutStats(workouts);
-            }
-        });
+        recentWorkouts.addSource(workoutsSource, recentWorkouts::setValue);
+
+        loadWorkoutStats(userId);
 
         // Load leaderboard preview (top 3)
         LiveData<List<LeaderboardEntry>> leaderboardSource =
@@ -99,54 +100,27 @@ public class DashboardViewModel extends AndroidViewModel {
         });
     }
 
-    private void calculateWorkoutStats(List<CompletedWorkout> allWorkouts) {
-        executor.execute(() -> {
-            if (allWorkouts == null || allWorkouts.isEmpty()) {
-                thisWeekWorkouts.postValue(0);
-                thisMonthWorkouts.postValue(0);
-                avgWorkoutDuration.postValue(0L);
-                return;
-            }
-
-            Calendar now = Calendar.getInstance();
-            Calendar weekAgo = Calendar.getInstance();
-            weekAgo.add(Calendar.DAY_OF_YEAR, -7);
-
-            Calendar monthStart = Calendar.getInstance();
-            monthStart.set(Calendar.DAY_OF_MONTH, 1);
-            monthStart.set(Calendar.HOUR_OF_DAY, 0);
-            monthStart.set(Calendar.MINUTE, 0);
-            monthStart.set(Calendar.SECOND, 0);
-            monthStart.set(Calendar.MILLISECOND, 0);
-
-            int weekCount = 0;
-            int monthCount = 0;
-            long totalDuration = 0;
-
-            for (CompletedWorkout workout : allWorkouts) {
-                if (workout.getStartTime() != null) {
-                    long workoutTime = workout.getStartTime().toDate().getTime();
-                    
-                    if (workoutTime >= weekAgo.getTimeInMillis()) {
-                        weekCount++;
-                    }
-                    
-                    if (workoutTime >= monthStart.getTimeInMillis()) {
-                        monthCount++;
-                    }
-                    
-                    totalDuration += workout.getDurationSeconds();
-                }
-            }
-
-            thisWeekWorkouts.postValue(weekCount);
-            thisMonthWorkouts.postValue(monthCount);
-            
-            if (!allWorkouts.isEmpty()) {
-                long avgDurationMinutes = (totalDuration / allWorkouts.size()) / 60;
-                avgWorkoutDuration.postValue(avgDurationMinutes);
-            }
-        });
+    /**
+     * Exact counts from Room rollups: last 7 days, this calendar month, and all-time average duration
+     */
+    private void loadWorkoutStats(String userId) {
+        long now = System.currentTimeMillis();
+        long end = Long.MAX_VALUE;
+
+        if (weekStatsSource != null) thisWeekWorkouts.removeSource(weekStatsSource);
+        weekStatsSource = workoutRepository.getPeriodStats(userId, now - TimeUnit.DAYS.toMillis(7), end);
+        thisWeekWorkouts.addSource(weekStatsSource, stats ->
+                thisWeekWorkouts.setValue(stats != null ? stats.getWorkoutCount() : 0));
+
+        if (monthStatsSource != null) thisMonthWorkouts.removeSource(monthStatsSource);
+        monthStatsSource = workoutRepository.getPeriodStats(userId, TimeUtils.startOfMonth(now), end);
+        thisMonthWorkouts.addSource(monthStatsSource, stats ->
+                thisMonthWorkouts.setValue(stats != null ? stats.getWorkoutCount() : 0));
+
+        if (allTimeStatsSource != null) avgWorkoutDuration.removeSource(allTimeStatsSource);
+        allTimeStatsSource = workoutRepository.getPeriodStats(userId, 0, end);
+        avgWorkoutDuration.addSource(allTimeStatsSource, stats ->
+                avgWorkoutDuration.setValue(stats != null ? stats.getAverageDurationSeconds() / 60 : 0L));
     }
 
     private void updateGreeting() {
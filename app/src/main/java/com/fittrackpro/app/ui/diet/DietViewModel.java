@@ -7,7 +7,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.fittrackpro.app.data. local.AppDatabase;
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.model.MealLogged;
 import com.fittrackpro.app.data.model.NutritionProfile;
 import com.fittrackpro.app.data. repository.NutritionRepository;
@@ -38,8 +38,8 @@ public class DietViewModel extends AndroidViewModel {
     public DietViewModel(@NonNull Application application) {
         super(application);
 
-        AppDatabase database = AppDatabase.getInstance(application);
-        this.nutritionRepository = new NutritionRepository(database);
+        AppContainer container = AppContainer.from(application);
+        this.nutritionRepository = container.getNutritionRepository();
     }
 
     public void setUserId(String userId) {
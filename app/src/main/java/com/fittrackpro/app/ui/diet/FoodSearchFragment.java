@@ -13,7 +13,7 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.fittrackpro.app.databinding.FragmentFoodSearchBinding;
-import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.AppContainer;
 import com. fittrackpro.app. data.model.Food;
 import com.fittrackpro. app.data.repository.NutritionRepository;
 import com.fittrackpro.app.ui.diet.adapter.FoodSearchAdapter;
@@ -41,7 +41,7 @@ public class FoodSearchFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        nutritionRepository = new NutritionRepository(AppDatabase.getInstance(requireContext()));
+        nutritionRepository = AppContainer.from(requireContext()).getNutritionRepository();
         viewModel = new ViewModelProvider(this).get(DietViewModel.class);
 
         if (getArguments() != null) {
@@ -13,9 +13,9 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.databinding.FragmentProfileBinding;
-import com.fittrackpro.app.data.local.AppDatabase;
 import com.fittrackpro.app.data. repository.AuthRepository;
 import com.fittrackpro.app.data. repository.UserRepository;
 import com.fittrackpro.app.ui.auth.AuthActivity;
@@ -44,8 +44,9 @@ public class ProfileFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         viewModel = new ViewModelProvider(this).get(ProfileViewModel.class);
-        authRepository = new AuthRepository();
-        userRepository = new UserRepository(AppDatabase.getInstance(requireContext()), requireContext());
+        AppContainer container = AppContainer.from(requireContext());
+        authRepository = container.getAuthRepository();
+        userRepository = container.getUserRepository();
 
         setupObservers();
         setupListeners();
@@ -69,10 +70,17 @@ public class ProfileFragment extends Fragment {
 
                 // Stats
                 binding.textTotalWorkouts.setText(String.valueOf(user.getTotalWorkouts()));
-                binding.textStreak.setText(String.valueOf(user.getCurrentStreak()));
                 binding.textTotalVolume.setText(String.format("%.1fK", user.getTotalVolumeLifted() / 1000));
             }
         });
+
+        viewModel.getCurrentStreak().observe(getViewLifecycleOwner(), streak -> {
+            binding.textStreak.setText(String.valueOf(streak != null ? streak : 0));
+        });
+
+        viewModel.getLongestStreak().observe(getViewLifecycleOwner(), streak -> {
+            binding.textLongestStreak.setText(String.valueOf(streak != null ? streak : 0));
+        });
     }
 
     private void setupListeners() {
@@ -7,7 +7,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.fittrackpro.app.data. local.AppDatabase;
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.model.PersonalRecord;
 import com.fittrackpro.app.data.model.User;
 import com.fittrackpro.app.data.repository.UserRepository;
@@ -32,13 +32,15 @@ public class ProfileViewModel extends AndroidViewModel {
     private final MutableLiveData<String> userId = new MutableLiveData<>();
     private final MediatorLiveData<User> user = new MediatorLiveData<>();
     private final MediatorLiveData<List<PersonalRecord>> personalRecords = new MediatorLiveData<>();
+    private final MediatorLiveData<Integer> currentStreak = new MediatorLiveData<>();
+    private final MediatorLiveData<Integer> longestStreak = new MediatorLiveData<>();
 
     public ProfileViewModel(@NonNull Application application) {
         super(application);
 
-        AppDatabase database = AppDatabase.getInstance(application);
-        this.userRepository = new UserRepository(database, application);
-        this.workoutRepository = new WorkoutRepository(database);
+        AppContainer container = AppContainer.from(application);
+        this.userRepository = container.getUserRepository();
+        this.workoutRepository = container.getWorkoutRepository();
     }
 
     public void setUserId(String userId) {
@@ -54,6 +56,10 @@ public class ProfileViewModel extends AndroidViewModel {
         // Load personal records
         LiveData<List<PersonalRecord>> recordsSource = workoutRepository.getPersonalRecords(userId);
         personalRecords.addSource(recordsSource, personalRecords::setValue);
+
+        // Streaks come from the tracker, which zeroes the current run once a day is missed
+        currentStreak.addSource(workoutRepository.getCurrentStreak(userId), currentStreak::setValue);
+        longestStreak.addSource(workoutRepository.getLongestStreak(userId), longestStreak::setValue);
     }
 
     public LiveData<Boolean> updateDisplayName(String displayName) {
@@ -84,4 +90,12 @@ public class ProfileViewModel extends AndroidViewModel {
     public LiveData<List<PersonalRecord>> getPersonalRecords() {
         return personalRecords;
     }
+
+    public LiveData<Integer> getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public LiveData<Integer> getLongestStreak() {
+        return longestStreak;
+    }
 }
\ No newline at end of file
@@ -13,12 +13,15 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.Navigation;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.databinding.FragmentSettingsBinding;
+import com.fittrackpro.app.sync.SyncManager;
+import com.fittrackpro.app.ui.auth.AuthActivity;
 import com.fittrackpro.app.util.Constants;
+import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 /**
  * SettingsFragment manages app settings and preferences.
@@ -27,6 +30,7 @@ import com.google.firebase.firestore.FirebaseFirestore;
  * - Measurement unit toggle (Metric/Imperial)
  * - Workout reminders preference
  * - Show equivalence preference  
+ * - Estimated 1RM formula (Epley/Brzycki)
  * - Logout functionality
  * - Delete account with confirmation
  */
@@ -35,8 +39,8 @@ public class SettingsFragment extends Fragment {
     private FragmentSettingsBinding binding;
     private SharedPreferences prefs;
     private FirebaseAuth auth;
-    private FirebaseFirestore firestore;
     private boolean isMetric = true;
+    private String oneRepMaxFormula = Constants.DEFAULT_E1RM_FORMULA;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -51,7 +55,6 @@ public class SettingsFragment extends Fragment {
 
         prefs = requireContext().getSharedPreferences(Constants.PREF_NAME, android.content.Context.MODE_PRIVATE);
         auth = FirebaseAuth.getInstance();
-        firestore = FirebaseFirestore.getInstance();
 
         loadSettings();
         setupListeners();
@@ -70,30 +73,40 @@ public class SettingsFragment extends Fragment {
         // Show equivalence
         boolean showEquivalence = prefs.getBoolean(Constants.PREF_SHOW_EQUIVALENCE, true);
         binding.switchShowEquivalence.setChecked(showEquivalence);
+
+        // Estimated 1RM formula
+        oneRepMaxFormula = prefs.getString(Constants.PREF_E1RM_FORMULA, Constants.DEFAULT_E1RM_FORMULA);
+        updateFormulaButtons();
     }
 
     private void updateUnitButtons() {
         if (isMetric) {
             // Metric is selected
-            binding.buttonMetric.setBackgroundTintList(
-                androidx.core.content.ContextCompat.getColorStateList(requireContext(), R.color.md_theme_primary));
-            binding.buttonMetric.setTextColor(
-                androidx.core.content.ContextCompat.getColor(requireContext(), R.color.md_theme_onPrimary));
-            binding.buttonImperial.setBackgroundTintList(null);
-            binding.buttonImperial.setTextColor(
-                androidx.core.content.ContextCompat.getColor(requireContext(), R.color.md_theme_onSurface));
+            highlightToggle(binding.buttonMetric, binding.buttonImperial);
         } else {
             // Imperial is selected
-            binding.buttonImperial.setBackgroundTintList(
-                androidx.core.content.ContextCompat.getColorStateList(requireContext(), R.color.md_theme_primary));
-            binding.buttonImperial.setTextColor(
-                androidx.core.content.ContextCompat.getColor(requireContext(), R.color.md_theme_onPrimary));
-            binding.buttonMetric.setBackgroundTintList(null);
-            binding.buttonMetric.setTextColor(
-                androidx.core.content.ContextCompat.getColor(requireContext(), R.color.md_theme_onSurface));
+            highlightToggle(binding.buttonImperial, binding.buttonMetric);
+        }
+    }
+
+    private void updateFormulaButtons() {
+        if (Constants.E1RM_FORMULA_BRZYCKI.equals(oneRepMaxFormula)) {
+            highlightToggle(binding.buttonBrzycki, binding.buttonEpley);
+        } else {
+            highlightToggle(binding.buttonEpley, binding.buttonBrzycki);
         }
     }
 
+    private void highlightToggle(MaterialButton selected, MaterialButton other) {
+        selected.setBackgroundTintList(
+            androidx.core.content.ContextCompat.getColorStateList(requireContext(), R.color.md_theme_primary));
+        selected.setTextColor(
+            androidx.core.content.ContextCompat.getColor(requireContext(), R.color.md_theme_onPrimary));
+        other.setBackgroundTintList(null);
+        other.setTextColor(
+            androidx.core.content.ContextCompat.getColor(requireContext(), R.color.md_theme_onSurface));
+    }
+
     private void setupListeners() {
         // Back button
         binding.buttonBack.setOnClickListener(v ->
@@ -128,6 +141,10 @@ public class SettingsFragment extends Fragment {
             prefs.edit().putBoolean(Constants.PREF_SHOW_EQUIVALENCE, isChecked).apply();
         });
 
+        // Estimated 1RM formula buttons
+        binding.buttonEpley.setOnClickListener(v -> selectFormula(Constants.E1RM_FORMULA_EPLEY));
+        binding.buttonBrzycki.setOnClickListener(v -> selectFormula(Constants.E1RM_FORMULA_BRZYCKI));
+
         // Logout button
         binding.buttonLogout.setOnClickListener(v -> {
             handleLogout();
@@ -139,6 +156,20 @@ public class SettingsFragment extends Fragment {
         });
     }
 
+    private void selectFormula(String formula) {
+        if (formula.equals(oneRepMaxFormula)) return;
+        oneRepMaxFormula = formula;
+        prefs.edit().putString(Constants.PREF_E1RM_FORMULA, formula).apply();
+        AppContainer.from(requireContext()).getWorkoutRepository().setOneRepMaxFormula(formula);
+        updateFormulaButtons();
+
+        // Estimated 1RM records were computed with the old formula
+        FirebaseUser currentUser = auth.getCurrentUser();
+        if (currentUser != null) {
+            SyncManager.getInstance(requireContext()).recomputePersonalRecords(currentUser.getUid(), formula);
+        }
+    }
+
     private void handleLogout() {
         auth.signOut();
         
@@ -169,58 +200,17 @@ public class SettingsFragment extends Fragment {
             return;
         }
 
-        String userId = currentUser.getUid();
-
-        // Delete user data from Firestore
-        firestore.collection(Constants.COLLECTION_USERS)
-                .document(userId)
-                .delete()
-                .addOnSuccessListener(aVoid -> {
-                    // Delete completed workouts
-                    deleteUserCollection(userId, Constants.COLLECTION_COMPLETED_WORKOUTS);
-                    
-                    // Delete workout programs
-                    deleteUserCollection(userId, Constants.COLLECTION_WORKOUT_PROGRAMS);
-                    
-                    // Delete personal records
-                    deleteUserCollection(userId, Constants.COLLECTION_PERSONAL_RECORDS);
-                    
-                    // Delete nutrition profiles
-                    deleteUserCollection(userId, Constants.COLLECTION_NUTRITION_PROFILES);
-                    
-                    // Delete meals logged
-                    deleteUserCollection(userId, Constants.COLLECTION_MEALS_LOGGED);
-                    
-                    // Delete friendships
-                    deleteUserCollection(userId, Constants.COLLECTION_FRIENDSHIPS);
-                    
-                    // Finally delete Firebase Auth account
-                    currentUser.delete()
-                            .addOnSuccessListener(aVoid2 -> {
-                                Toast.makeText(requireContext(), R.string.delete_account_success, Toast.LENGTH_SHORT).show();
-                                
-                                // Clear local data
-                                prefs.edit().clear().apply();
-                                
-                                // Return to auth activity
-                                requireActivity().finish();
-                            })
-                            .addOnFailureListener(e -> {
-                                Toast.makeText(requireContext(), R.string.delete_account_failed, Toast.LENGTH_SHORT).show();
-                            });
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(requireContext(), R.string.delete_account_failed, Toast.LENGTH_SHORT).show();
-                });
-    }
+        // Erasure runs in AccountDeletionWorker and resumes if the app is killed
+        SyncManager.getInstance(requireContext()).deleteAccount(currentUser.getUid());
+        Toast.makeText(requireContext(), R.string.delete_account_scheduled, Toast.LENGTH_SHORT).show();
+
+        // Clear local settings
+        prefs.edit().clear().apply();
 
-    private void deleteUserCollection(String userId, String collectionName) {
-        firestore.collection(collectionName)
-                .whereEqualTo("userId", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    querySnapshot.getDocuments().forEach(doc -> doc.getReference().delete());
-                });
+        // Return to auth activity, which stays there while the deletion is pending
+        Intent intent = new Intent(requireContext(), AuthActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        startActivity(intent);
     }
 
     @Override
@@ -71,6 +71,12 @@ public class PersonalRecordAdapter extends ListAdapter<PersonalRecord, PersonalR
                 case "volume":
                     value = String. format("%.1f kg total", record.getValue());
                     break;
+                case "repMax":
+                    value = String.format("%.1f kg × %d", record.getValue(), record.getReps());
+                    break;
+                case "e1rm":
+                    value = String.format("%.1f kg est. 1RM", record.getValue());
+                    break;
             }
             binding.textRecordValue.setText(value);
             binding.textAchievedDate.setText(
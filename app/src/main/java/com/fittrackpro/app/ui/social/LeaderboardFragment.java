@@ -12,10 +12,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.fittrackpro.app.databinding.FragmentLeaderboardBinding;
 import com.fittrackpro. app.ui.social.adapter. LeaderboardAdapter;
+import com.fittrackpro.app.util.Constants;
 import com.google.firebase.auth.FirebaseAuth;
 
 /**
- * LeaderboardFragment displays global or friends-only leaderboard.
+ * LeaderboardFragment displays global or friends-only leaderboard for all-time, weekly or monthly volume.
  */
 public class LeaderboardFragment extends Fragment {
 
@@ -70,6 +71,12 @@ public class LeaderboardFragment extends Fragment {
                 binding.chipFriends.setChecked(friendsOnly);
             }
         });
+
+        viewModel.getPeriod().observe(getViewLifecycleOwner(), period -> {
+            binding.chipAllTime.setChecked(Constants.LEADERBOARD_PERIOD_ALL_TIME.equals(period));
+            binding.chipWeek.setChecked(Constants.LEADERBOARD_PERIOD_WEEK.equals(period));
+            binding.chipMonth.setChecked(Constants.LEADERBOARD_PERIOD_MONTH.equals(period));
+        });
     }
 
     private void setupListeners() {
@@ -84,6 +91,10 @@ public class LeaderboardFragment extends Fragment {
                 viewModel.toggleLeaderboardMode();
             }
         });
+
+        binding.chipAllTime.setOnClickListener(v -> viewModel.setPeriod(Constants.LEADERBOARD_PERIOD_ALL_TIME));
+        binding.chipWeek.setOnClickListener(v -> viewModel.setPeriod(Constants.LEADERBOARD_PERIOD_WEEK));
+        binding.chipMonth.setOnClickListener(v -> viewModel.setPeriod(Constants.LEADERBOARD_PERIOD_MONTH));
     }
 
     @Override
@@ -7,6 +7,7 @@ import androidx.lifecycle.LiveData;
 import androidx. lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.model.LeaderboardEntry;
 import com. fittrackpro.app. data.repository.SocialRepository;
 import com.fittrackpro.app.util.Constants;
@@ -19,6 +20,7 @@ import java.util.List;
  * Shows:
  * - Global leaderboard
  * - Friends-only leaderboard
+ * - All-time, weekly or monthly volume
  * - Current user's rank highlighted
  */
 public class LeaderboardViewModel extends AndroidViewModel {
@@ -27,13 +29,15 @@ public class LeaderboardViewModel extends AndroidViewModel {
 
     private final MutableLiveData<String> userId = new MutableLiveData<>();
     private final MutableLiveData<Boolean> showFriendsOnly = new MutableLiveData<>(false);
+    private final MutableLiveData<String> period = new MutableLiveData<>(Constants.LEADERBOARD_PERIOD_ALL_TIME);
 
     private final MediatorLiveData<List<LeaderboardEntry>> leaderboard = new MediatorLiveData<>();
+    private LiveData<List<LeaderboardEntry>> currentSource;
 
     public LeaderboardViewModel(@NonNull Application application) {
         super(application);
 
-        this.socialRepository = new SocialRepository();
+        this.socialRepository = AppContainer.from(application).getSocialRepository();
     }
 
     public void setUserId(String userId) {
@@ -47,23 +51,38 @@ public class LeaderboardViewModel extends AndroidViewModel {
         loadLeaderboard();
     }
 
+    /**
+     * Switch between all-time, weekly and monthly volume
+     */
+    public void setPeriod(String newPeriod) {
+        if (newPeriod.equals(period.getValue())) return;
+        period.setValue(newPeriod);
+        loadLeaderboard();
+    }
+
     private void loadLeaderboard() {
         String currentUserId = userId.getValue();
         Boolean friendsOnly = showFriendsOnly.getValue();
+        String currentPeriod = period.getValue();
 
         if (currentUserId == null) {
             return;
         }
 
+        // Only the selected board feeds the list
+        if (currentSource != null) {
+            leaderboard.removeSource(currentSource);
+        }
+
         if (friendsOnly != null && friendsOnly) {
-            LiveData<List<LeaderboardEntry>> source =
-                    socialRepository.getFriendsLeaderboard(currentUserId);
-            leaderboard.addSource(source, leaderboard::setValue);
+            currentSource = socialRepository.getFriendsLeaderboard(currentUserId, currentPeriod);
+        } else if (Constants.LEADERBOARD_PERIOD_ALL_TIME.equals(currentPeriod)) {
+            currentSource = socialRepository.getGlobalLeaderboard(currentUserId, Constants.LEADERBOARD_DEFAULT_LIMIT);
         } else {
-            LiveData<List<LeaderboardEntry>> source =
-                    socialRepository.getGlobalLeaderboard(currentUserId, Constants.LEADERBOARD_DEFAULT_LIMIT);
-            leaderboard.addSource(source, leaderboard::setValue);
+            currentSource = socialRepository.getPeriodLeaderboard(currentUserId, currentPeriod,
+                    Constants.LEADERBOARD_DEFAULT_LIMIT);
         }
+        leaderboard.addSource(currentSource, leaderboard::setValue);
     }
 
     public LiveData<List<LeaderboardEntry>> getLeaderboard() {
@@ -73,4 +92,8 @@ public class LeaderboardViewModel extends AndroidViewModel {
     public LiveData<Boolean> getShowFriendsOnly() {
         return showFriendsOnly;
     }
+
+    public LiveData<String> getPeriod() {
+        return period;
+    }
 }
\ No newline at end of file
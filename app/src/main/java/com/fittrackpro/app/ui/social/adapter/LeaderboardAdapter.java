@@ -32,7 +32,8 @@ public class LeaderboardAdapter extends ListAdapter<LeaderboardEntry, Leaderboar
                 public boolean areContentsTheSame(@NonNull LeaderboardEntry oldItem, @NonNull LeaderboardEntry newItem) {
                     return oldItem. getUserId().equals(newItem.getUserId()) &&
                             oldItem.getTotalVolume() == newItem.getTotalVolume() &&
-                            oldItem. getRank() == newItem.getRank();
+                            oldItem. getRank() == newItem.getRank() &&
+                            oldItem.isRankEstimated() == newItem.isRankEstimated();
                 }
             };
 
@@ -59,7 +60,7 @@ public class LeaderboardAdapter extends ListAdapter<LeaderboardEntry, Leaderboar
         }
 
         public void bind(LeaderboardEntry entry) {
-            binding.textRank.setText("#" + entry.getRank());
+            binding.textRank.setText((entry.isRankEstimated() ? "~#" : "#") + entry.getRank());
             binding.textUsername.setText(entry.getUsername());
             binding.textDisplayName.setText(entry.getDisplayName());
             binding.textVolume.setText(String.format("%.1f kg", entry.getTotalVolume()));
@@ -8,7 +8,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.fittrackpro.app.data.local.AppDatabase;
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.model.CompletedWorkout;
 import com.fittrackpro.app.data.model.ProgramExercise;
 import com.fittrackpro.app.data.model.WorkoutSet;
@@ -50,8 +50,8 @@ public class ActiveWorkoutViewModel extends AndroidViewModel {
     public ActiveWorkoutViewModel(@NonNull Application application) {
         super(application);
 
-        AppDatabase database = AppDatabase.getInstance(application);
-        this.workoutRepository = new WorkoutRepository(database);
+        AppContainer container = AppContainer.from(application);
+        this.workoutRepository = container.getWorkoutRepository();
     }
 
     public void initWorkout(String userId, String programId, String dayId, String workoutName) {
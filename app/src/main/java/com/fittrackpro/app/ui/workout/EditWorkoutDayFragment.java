@@ -12,9 +12,9 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.databinding.FragmentEditWorkoutDayBinding;
-import com.fittrackpro.app.data.local.AppDatabase;
 import com.fittrackpro.app.data.repository.WorkoutRepository;
 import com.fittrackpro.app.data.model.WorkoutDay;
 import com.fittrackpro.app.ui.workout.adapter.WorkoutDayAdapter;
@@ -41,7 +41,7 @@ public class EditWorkoutDayFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        workoutRepository = new WorkoutRepository(AppDatabase.getInstance(requireContext()));
+        workoutRepository = AppContainer.from(requireContext()).getWorkoutRepository();
 
         if (getArguments() != null) {
             programId = getArguments().getString("programId");
@@ -12,9 +12,9 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.R;
 import com.fittrackpro.app.databinding.FragmentWorkoutDayDetailBinding;
-import com.fittrackpro.app.data.local.AppDatabase;
 import com.fittrackpro.app.data.model.ProgramExercise;
 import com.fittrackpro.app.data.repository.WorkoutRepository;
 
@@ -52,8 +52,7 @@ public class WorkoutDayDetailFragment extends Fragment {
         }
 
         // Initialize repository
-        AppDatabase database = AppDatabase.getInstance(requireContext());
-        workoutRepository = new WorkoutRepository(database);
+        workoutRepository = AppContainer.from(requireContext()).getWorkoutRepository();
 
         setupUI();
         setupListeners();
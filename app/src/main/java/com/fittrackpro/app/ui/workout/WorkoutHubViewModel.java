@@ -7,7 +7,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.fittrackpro.app.data. local.AppDatabase;
+import com.fittrackpro.app.AppContainer;
 import com.fittrackpro.app.data.model.WorkoutProgram;
 import com.fittrackpro.app.data. repository.WorkoutRepository;
 
@@ -31,8 +31,8 @@ public class WorkoutHubViewModel extends AndroidViewModel {
     public WorkoutHubViewModel(@NonNull Application application) {
         super(application);
 
-        AppDatabase database = AppDatabase.getInstance(application);
-        this.workoutRepository = new WorkoutRepository(database);
+        AppContainer container = AppContainer.from(application);
+        this.workoutRepository = container.getWorkoutRepository();
     }
 
     public void setUserId(String userId) {
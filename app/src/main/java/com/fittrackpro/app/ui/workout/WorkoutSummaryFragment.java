@@ -200,6 +200,10 @@ public class WorkoutSummaryFragment extends Fragment {
             return String.format("%d reps at %.1f kg (Rep PR)", pr.getReps(), pr.getValue());
         } else if (recordType.equals(Constants.PR_TYPE_VOLUME)) {
             return String.format("%.1f kg (Volume PR)", pr.getValue());
+        } else if (recordType.equals(Constants.PR_TYPE_REP_MAX)) {
+            return String.format("%.1f kg × %d reps (%dRM PR)", pr.getValue(), pr.getReps(), pr.getReps());
+        } else if (recordType.equals(Constants.PR_TYPE_E1RM)) {
+            return String.format("%.1f kg (Estimated 1RM PR)", pr.getValue());
         }
         
         return "";
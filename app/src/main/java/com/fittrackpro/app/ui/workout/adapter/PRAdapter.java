@@ -75,6 +75,12 @@ public class PRAdapter extends RecyclerView.Adapter<PRAdapter.PRViewHolder> {
                 case Constants.PR_TYPE_VOLUME:
                     prType = itemView.getContext().getString(R.string.volume_pr);
                     break;
+                case Constants.PR_TYPE_REP_MAX:
+                    prType = itemView.getContext().getString(R.string.rep_max_pr, pr.getReps());
+                    break;
+                case Constants.PR_TYPE_E1RM:
+                    prType = itemView.getContext().getString(R.string.e1rm_pr);
+                    break;
             }
             textPRType.setText(prType);
 
@@ -96,6 +102,10 @@ public class PRAdapter extends RecyclerView.Adapter<PRAdapter.PRViewHolder> {
                 return String.format("%.1f kg × %d reps", pr.getValue(), pr.getReps());
             } else if (recordType.equals(Constants.PR_TYPE_VOLUME)) {
                 return String.format("%.1f kg", pr.getValue());
+            } else if (recordType.equals(Constants.PR_TYPE_REP_MAX)) {
+                return String.format("%.1f kg × %d", pr.getValue(), pr.getReps());
+            } else if (recordType.equals(Constants.PR_TYPE_E1RM)) {
+                return String.format("%.1f kg", pr.getValue());
             }
             
             return "";
@@ -0,0 +1,137 @@
+package com.fittrackpro.app.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * AppExecutors holds the app-wide thread pools. Repositories and ViewModels share these
+ * instead of creating their own executors or raw threads.
+ *
+ * - diskIO: Room reads and writes; unbounded, so submitting never runs Room on the caller
+ * - newSerialDiskIO: a per-owner serial view of diskIO for writes that must stay in order
+ * - networkIO: blocking Firestore calls and Task callbacks that touch Room
+ * - computation: CPU-bound work (stats, PR detection, hashing)
+ * - mainThread: posts back to the UI thread
+ */
+public class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private static volatile AppExecutors INSTANCE;
+
+    private final InstrumentedExecutor diskIO;
+    private final InstrumentedExecutor networkIO;
+    private final InstrumentedExecutor computation;
+    private final Executor mainThread;
+
+    private AppExecutors() {
+        this.diskIO = new InstrumentedExecutor("fittrack-disk", 3, InstrumentedExecutor.UNBOUNDED,
+                Process.THREAD_PRIORITY_BACKGROUND);
+        this.networkIO = new InstrumentedExecutor("fittrack-net", 4, InstrumentedExecutor.UNBOUNDED,
+                Process.THREAD_PRIORITY_BACKGROUND);
+        this.computation = new InstrumentedExecutor("fittrack-cpu", Math.max(2, CPU_COUNT - 1), 64,
+                Process.THREAD_PRIORITY_DEFAULT);
+        this.mainThread = new MainThreadExecutor();
+    }
+
+    public static AppExecutors getInstance() {
+        if (INSTANCE == null) {
+            synchronized (AppExecutors.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new AppExecutors();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public Executor diskIO() {
+        return diskIO;
+    }
+
+    /**
+     * A new executor that runs its tasks one at a time, in submission order, on the disk pool
+     */
+    public Executor newSerialDiskIO() {
+        return new SerialExecutor(diskIO);
+    }
+
+    public Executor networkIO() {
+        return networkIO;
+    }
+
+    public Executor computation() {
+        return computation;
+    }
+
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * Current metrics for every pool
+     */
+    public List<InstrumentedExecutor.Stats> getStats() {
+        List<InstrumentedExecutor.Stats> stats = new ArrayList<>();
+        stats.add(diskIO.getStats());
+        stats.add(networkIO.getStats());
+        stats.add(computation.getStats());
+        return stats;
+    }
+
+    /**
+     * Write pool metrics to logcat
+     */
+    public void logStats() {
+        for (InstrumentedExecutor.Stats stats : getStats()) {
+            Log.i(TAG, stats.toString());
+        }
+    }
+
+    private static class SerialExecutor implements Executor {
+        private final Executor delegate;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private Runnable active;
+
+        SerialExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void execute(@NonNull Runnable command) {
+            tasks.offer(() -> {
+                try {
+                    command.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            if ((active = tasks.poll()) != null) {
+                delegate.execute(active);
+            }
+        }
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    }
+}
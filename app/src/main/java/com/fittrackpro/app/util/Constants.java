@@ -10,6 +10,7 @@ public class Constants {
     // Firestore collection names
     public static final String COLLECTION_USERS = "users";
     public static final String COLLECTION_NUTRITION_PROFILES = "nutritionProfiles";
+    public static final String COLLECTION_PROFILE_HISTORY = "history";
     public static final String COLLECTION_WORKOUT_PROGRAMS = "workoutPrograms";
     public static final String COLLECTION_WORKOUT_DAYS = "workoutDays";
     public static final String COLLECTION_PROGRAM_EXERCISES = "programExercises";
@@ -19,11 +20,24 @@ public class Constants {
     public static final String COLLECTION_FOODS_DATABASE = "foodsDatabase";
     public static final String COLLECTION_MEALS_LOGGED = "mealsLogged";
     public static final String COLLECTION_FRIENDSHIPS = "friendships";
+    public static final String COLLECTION_SYNC_DIGESTS = "syncDigests";
+    public static final String COLLECTION_TOMBSTONES = "tombstones";
+    public static final String COLLECTION_VOLUME_BUCKETS = "volumeBuckets";
+    public static final String COLLECTION_USERNAMES = "usernames";
+    public static final String COLLECTION_CATALOG = "catalog";
+
+    // Preset catalog manifest (catalog/presetPrograms). "version" is bumped on every preset
+    // write; "definitionsVersion" records which built-in preset definitions have been applied.
+    public static final String CATALOG_PRESET_PROGRAMS = "presetPrograms";
+    public static final String FIELD_CATALOG_VERSION = "version";
+    public static final String FIELD_CATALOG_DEFINITIONS_VERSION = "definitionsVersion";
+    public static final long PRESET_DEFINITIONS_VERSION = 1;
 
     // SharedPreferences keys
     public static final String PREF_NAME = "FitTrackPrefs";
     public static final String PREF_WEIGHT_UNIT = "weight_unit"; // "kg" or "lb"
     public static final String PREF_SHOW_EQUIVALENCE = "show_equivalence";
+    public static final String PREF_E1RM_FORMULA = "e1rm_formula";
     public static final String PREF_USER_ID = "user_id";
 
     // Weight units
@@ -67,6 +81,38 @@ public class Constants {
     public static final String PR_TYPE_WEIGHT = "weight";
     public static final String PR_TYPE_REPS = "reps";
     public static final String PR_TYPE_VOLUME = "volume";
+    public static final String PR_TYPE_REP_MAX = "repMax"; // best weight for exactly `reps` reps
+    public static final String PR_TYPE_E1RM = "e1rm"; // estimated one-rep max
+    public static final int PR_REP_MAX_RANGE = 20;
+
+    // Estimated 1RM formulas
+    public static final String E1RM_FORMULA_EPLEY = "epley";
+    public static final String E1RM_FORMULA_BRZYCKI = "brzycki";
+    public static final String DEFAULT_E1RM_FORMULA = E1RM_FORMULA_EPLEY;
+
+    // Progression chart metrics
+    public static final String PROGRESSION_METRIC_TOP_SET = "topSet";
+    public static final String PROGRESSION_METRIC_E1RM = "e1rm";
+    public static final String PROGRESSION_METRIC_VOLUME = "volume";
+
+    // Share of a set credited to each secondary muscle group in the muscle heatmap
+    public static final double MUSCLE_SECONDARY_WEIGHT = 0.5;
+    // Bumped when ExerciseLibrary maps exercises differently; stored history is then re-aggregated
+    public static final int EXERCISE_LIBRARY_VERSION = 2;
+
+    // Acute:chronic training load ratio bands
+    public static final double ACWR_HIGH = 1.5;
+    public static final double ACWR_LOW = 0.8;
+    public static final String TRAINING_LOAD_HIGH = "high"; // overreaching
+    public static final String TRAINING_LOAD_OPTIMAL = "optimal";
+    public static final String TRAINING_LOAD_LOW = "low"; // detraining
+    public static final String TRAINING_LOAD_INSUFFICIENT = "insufficient"; // no chronic history yet
+
+    // Sets read from Room per page when rebuilding personal records from history
+    public static final int PR_RECOMPUTE_CHUNK_SIZE = 5000;
+    public static final int PR_BACKFILL_PARALLEL_READS = 20; // workoutSets subcollections read at once
+    // Workout times re-aggregated per transaction, below SQLite's bound parameter limit
+    public static final int HISTORY_REFRESH_CHUNK_SIZE = 500;
 
     // Default values
     public static final int DEFAULT_REST_TIMER_SECONDS = 90;
@@ -75,11 +121,45 @@ public class Constants {
     public static final long VIBRATION_DURATION_MS = 500;
     public static final long[] VIBRATION_PATTERN_REST_COMPLETE = {0, 500, 200, 500};
     public static final int LEADERBOARD_DEFAULT_LIMIT = 50;
+    public static final int FIRESTORE_WHERE_IN_LIMIT = 10;
+    public static final String LEADERBOARD_GLOBAL = "global";
+    public static final String LEADERBOARD_PERIOD_ALL_TIME = "allTime";
+    public static final String LEADERBOARD_PERIOD_WEEK = "week";
+    public static final String LEADERBOARD_PERIOD_MONTH = "month";
+    // Set on a completed workout once it has been added to its volume buckets
+    public static final String FIELD_LEADERBOARD_COUNTED = "leaderboardCounted";
+    public static final int LEADERBOARD_SNAPSHOT_SIZE = 100;
+    // Lower bounds (kg) of the global volume histogram used for rank estimation
+    public static final double[] LEADERBOARD_HISTOGRAM_BOUNDS = {
+            0, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000,
+            250_000, 500_000, 1_000_000, 2_500_000, 5_000_000
+    };
     public static final int RECENT_WORKOUTS_LIMIT = 10;
 
+    // Cache TTLs (stale-while-revalidate)
+    public static final long TTL_USER_MS = 5 * 60 * 1000L;
+    public static final long TTL_RECENT_WORKOUTS_MS = 5 * 60 * 1000L;
+    public static final long TTL_PERSONAL_RECORDS_MS = 15 * 60 * 1000L;
+    public static final long TTL_ACTIVE_PROGRAMS_MS = 15 * 60 * 1000L;
+    public static final long TTL_PRESET_MANIFEST_MS = 60 * 60 * 1000L;
+    public static final long TTL_NUTRITION_PROFILE_MS = 60 * 60 * 1000L;
+    public static final long TTL_MEALS_MS = 5 * 60 * 1000L;
+    public static final long TTL_GLOBAL_LEADERBOARD_MS = 2 * 60 * 60 * 1000L;
+    public static final long TTL_FRIENDS_LEADERBOARD_MS = 10 * 60 * 1000L;
+    public static final long TTL_PERIOD_LEADERBOARD_MS = 10 * 60 * 1000L;
+    public static final long TTL_FOODS_MS = 7 * 24 * 60 * 60 * 1000L;
+
+    // In-memory object caches in front of Room (approximate bytes)
+    public static final int CACHE_USERS_BYTES = 32 * 1024;
+    public static final int CACHE_PROGRAMS_BYTES = 128 * 1024;
+    public static final int CACHE_PR_INDEX_BYTES = 64 * 1024;
+
     // Validation
     public static final int MIN_USERNAME_LENGTH = 3;
     public static final int MAX_USERNAME_LENGTH = 20;
+    public static final long USERNAME_CHECK_DEBOUNCE_MS = 400;
+    public static final long TTL_USERNAME_TAKEN_MS = 10 * 60 * 1000L;
+    public static final long TTL_USERNAME_AVAILABLE_MS = 30 * 1000L;
     public static final int MIN_PASSWORD_LENGTH = 6;
 
     // Preset program IDs
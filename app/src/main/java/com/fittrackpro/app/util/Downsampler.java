@@ -0,0 +1,65 @@
+package com.fittrackpro.app.util;
+
+/**
+ * Downsampler reduces a time series to the points worth drawing.
+ *
+ * Largest-triangle-three-buckets keeps the first and last point and, for every bucket in
+ * between, the point forming the largest triangle with the point kept before it and the
+ * average of the next bucket. Peaks and dips survive, so a chart drawn at one point per
+ * pixel looks like the full series.
+ */
+public class Downsampler {
+
+    /**
+     * Indices of the points to keep
+     * @param x x values, ascending
+     * @param y y values
+     * @param threshold number of points wanted, at least 3
+     * @return sorted indices into x and y; every index if the series already fits
+     */
+    public static int[] largestTriangleThreeBuckets(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        threshold = Math.max(threshold, 3);
+        if (n <= threshold) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        sampled[0] = 0;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket is the third corner of the triangle
+            int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            avgX /= avgEnd - avgStart;
+            avgY /= avgEnd - avgStart;
+
+            int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[i + 1] = next;
+            a = next;
+        }
+
+        sampled[threshold - 1] = n - 1;
+        return sampled;
+    }
+}
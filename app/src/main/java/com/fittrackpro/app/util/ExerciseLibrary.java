@@ -3,72 +3,105 @@ package com.fittrackpro.app.util;
 import com.fittrackpro.app.data.model.ExerciseTemplate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * ExerciseLibrary provides a comprehensive list of exercises.
  */
 public class ExerciseLibrary {
 
+    private static volatile Map<String, ExerciseTemplate> byName;
+
+    /**
+     * Names the preset program seeders write that differ from the library entry they mean
+     */
+    private static final String[][] ALIASES = {
+            {"Ab Wheel", "Ab Wheel Rollout"},
+            {"Barbell Back Squat", "Barbell Squat"},
+            {"Barbell Curls", "Barbell Curl"},
+            {"Bench Press", "Barbell Bench Press"},
+            {"Bicep Curls", "Dumbbell Curl"},
+            {"Calf Raises", "Calf Raise Machine"},
+            {"Dumbbell Chest Press", "Dumbbell Bench Press"},
+            {"Hammer Curls", "Hammer Curl"},
+            {"Hamstring Curl", "Leg Curl"},
+            {"Incline Barbell Bench Press", "Incline Barbell Press"},
+            {"Incline Bench Press", "Incline Barbell Press"},
+            {"Inverted Rows", "Inverted Row"},
+            {"Leg Extensions", "Leg Extension"},
+            {"Lunges", "Walking Lunges"},
+            {"Military Press", "Overhead Press"},
+            {"Planks", "Plank"},
+            {"Shoulder Press", "Dumbbell Shoulder Press"},
+            {"Tricep Dips", "Dips"},
+            {"Tricep Extension", "Tricep Dumbbell Extension"},
+            {"Tricep Extensions", "Tricep Dumbbell Extension"},
+            {"Tricep Pushdown", "Cable Tricep Pushdown"},
+            {"Weighted Pull-ups", "Pull-ups"},
+    };
+
     public static List<ExerciseTemplate> getAllExercises() {
         List<ExerciseTemplate> exercises = new ArrayList<>();
 
         // Chest Exercises
-        exercises.add(new ExerciseTemplate("Barbell Bench Press", "Chest", "Barbell"));
-        exercises.add(new ExerciseTemplate("Incline Barbell Press", "Chest", "Barbell"));
-        exercises.add(new ExerciseTemplate("Decline Barbell Press", "Chest", "Barbell"));
-        exercises.add(new ExerciseTemplate("Dumbbell Bench Press", "Chest", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("Incline Dumbbell Press", "Chest", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("Decline Dumbbell Press", "Chest", "Dumbbell"));
+        exercises.add(new ExerciseTemplate("Barbell Bench Press", "Chest", "Barbell", "Shoulders", "Arms"));
+        exercises.add(new ExerciseTemplate("Incline Barbell Press", "Chest", "Barbell", "Shoulders", "Arms"));
+        exercises.add(new ExerciseTemplate("Decline Barbell Press", "Chest", "Barbell", "Arms"));
+        exercises.add(new ExerciseTemplate("Dumbbell Bench Press", "Chest", "Dumbbell", "Shoulders", "Arms"));
+        exercises.add(new ExerciseTemplate("Incline Dumbbell Press", "Chest", "Dumbbell", "Shoulders", "Arms"));
+        exercises.add(new ExerciseTemplate("Decline Dumbbell Press", "Chest", "Dumbbell", "Arms"));
         exercises.add(new ExerciseTemplate("Dumbbell Flyes", "Chest", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Incline Dumbbell Flyes", "Chest", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Cable Flyes", "Chest", "Cable"));
         exercises.add(new ExerciseTemplate("Cable Crossover", "Chest", "Cable"));
-        exercises.add(new ExerciseTemplate("Chest Press Machine", "Chest", "Machine"));
+        exercises.add(new ExerciseTemplate("Chest Press Machine", "Chest", "Machine", "Arms"));
         exercises.add(new ExerciseTemplate("Pec Deck Machine", "Chest", "Machine"));
-        exercises.add(new ExerciseTemplate("Push-ups", "Chest", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Decline Push-ups", "Chest", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Diamond Push-ups", "Chest", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Push-ups", "Chest", "Bodyweight", "Shoulders", "Arms"));
+        exercises.add(new ExerciseTemplate("Decline Push-ups", "Chest", "Bodyweight", "Shoulders", "Arms"));
+        exercises.add(new ExerciseTemplate("Diamond Push-ups", "Chest", "Bodyweight", "Arms"));
 
         // Back Exercises
-        exercises.add(new ExerciseTemplate("Deadlift", "Back", "Barbell"));
-        exercises.add(new ExerciseTemplate("Barbell Row", "Back", "Barbell"));
-        exercises.add(new ExerciseTemplate("T-Bar Row", "Back", "Barbell"));
-        exercises.add(new ExerciseTemplate("Pendlay Row", "Back", "Barbell"));
-        exercises.add(new ExerciseTemplate("Dumbbell Row", "Back", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("One-Arm Dumbbell Row", "Back", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("Cable Row", "Back", "Cable"));
-        exercises.add(new ExerciseTemplate("Lat Pulldown", "Back", "Cable"));
-        exercises.add(new ExerciseTemplate("Wide Grip Lat Pulldown", "Back", "Cable"));
-        exercises.add(new ExerciseTemplate("Close Grip Lat Pulldown", "Back", "Cable"));
-        exercises.add(new ExerciseTemplate("Face Pulls", "Back", "Cable"));
-        exercises.add(new ExerciseTemplate("Seated Cable Row", "Back", "Cable"));
+        exercises.add(new ExerciseTemplate("Deadlift", "Back", "Barbell", "Legs", "Core"));
+        exercises.add(new ExerciseTemplate("Barbell Row", "Back", "Barbell", "Arms"));
+        exercises.add(new ExerciseTemplate("T-Bar Row", "Back", "Barbell", "Arms"));
+        exercises.add(new ExerciseTemplate("Pendlay Row", "Back", "Barbell", "Arms"));
+        exercises.add(new ExerciseTemplate("Dumbbell Row", "Back", "Dumbbell", "Arms"));
+        exercises.add(new ExerciseTemplate("One-Arm Dumbbell Row", "Back", "Dumbbell", "Arms"));
+        exercises.add(new ExerciseTemplate("Cable Row", "Back", "Cable", "Arms"));
+        exercises.add(new ExerciseTemplate("Lat Pulldown", "Back", "Cable", "Arms"));
+        exercises.add(new ExerciseTemplate("Wide Grip Lat Pulldown", "Back", "Cable", "Arms"));
+        exercises.add(new ExerciseTemplate("Close Grip Lat Pulldown", "Back", "Cable", "Arms"));
+        exercises.add(new ExerciseTemplate("Face Pulls", "Back", "Cable", "Shoulders"));
+        exercises.add(new ExerciseTemplate("Seated Cable Row", "Back", "Cable", "Arms"));
         exercises.add(new ExerciseTemplate("Straight Arm Pulldown", "Back", "Cable"));
-        exercises.add(new ExerciseTemplate("Pull-ups", "Back", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Chin-ups", "Back", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Inverted Row", "Back", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Pull-ups", "Back", "Bodyweight", "Arms"));
+        exercises.add(new ExerciseTemplate("Chin-ups", "Back", "Bodyweight", "Arms"));
+        exercises.add(new ExerciseTemplate("Inverted Row", "Back", "Bodyweight", "Arms"));
 
         // Shoulders Exercises
-        exercises.add(new ExerciseTemplate("Overhead Press", "Shoulders", "Barbell"));
-        exercises.add(new ExerciseTemplate("Push Press", "Shoulders", "Barbell"));
-        exercises.add(new ExerciseTemplate("Behind the Neck Press", "Shoulders", "Barbell"));
-        exercises.add(new ExerciseTemplate("Dumbbell Shoulder Press", "Shoulders", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("Arnold Press", "Shoulders", "Dumbbell"));
+        exercises.add(new ExerciseTemplate("Overhead Press", "Shoulders", "Barbell", "Arms", "Core"));
+        exercises.add(new ExerciseTemplate("Push Press", "Shoulders", "Barbell", "Arms", "Legs"));
+        exercises.add(new ExerciseTemplate("Behind the Neck Press", "Shoulders", "Barbell", "Arms"));
+        exercises.add(new ExerciseTemplate("Dumbbell Shoulder Press", "Shoulders", "Dumbbell", "Arms"));
+        exercises.add(new ExerciseTemplate("Arnold Press", "Shoulders", "Dumbbell", "Arms"));
         exercises.add(new ExerciseTemplate("Lateral Raises", "Shoulders", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Front Raises", "Shoulders", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Rear Delt Flyes", "Shoulders", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("Upright Row", "Shoulders", "Dumbbell"));
+        exercises.add(new ExerciseTemplate("Upright Row", "Shoulders", "Dumbbell", "Back"));
         exercises.add(new ExerciseTemplate("Cable Lateral Raises", "Shoulders", "Cable"));
         exercises.add(new ExerciseTemplate("Cable Front Raises", "Shoulders", "Cable"));
-        exercises.add(new ExerciseTemplate("Shoulder Press Machine", "Shoulders", "Machine"));
-        exercises.add(new ExerciseTemplate("Pike Push-ups", "Shoulders", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Handstand Push-ups", "Shoulders", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Shoulder Press Machine", "Shoulders", "Machine", "Arms"));
+        exercises.add(new ExerciseTemplate("Pike Push-ups", "Shoulders", "Bodyweight", "Arms"));
+        exercises.add(new ExerciseTemplate("Handstand Push-ups", "Shoulders", "Bodyweight", "Arms", "Core"));
 
         // Legs Exercises
-        exercises.add(new ExerciseTemplate("Barbell Squat", "Legs", "Barbell"));
-        exercises.add(new ExerciseTemplate("Front Squat", "Legs", "Barbell"));
+        exercises.add(new ExerciseTemplate("Barbell Squat", "Legs", "Barbell", "Core"));
+        exercises.add(new ExerciseTemplate("Front Squat", "Legs", "Barbell", "Core"));
         exercises.add(new ExerciseTemplate("Bulgarian Split Squat", "Legs", "Barbell"));
-        exercises.add(new ExerciseTemplate("Romanian Deadlift", "Legs", "Barbell"));
+        exercises.add(new ExerciseTemplate("Romanian Deadlift", "Legs", "Barbell", "Back"));
         exercises.add(new ExerciseTemplate("Leg Press", "Legs", "Machine"));
         exercises.add(new ExerciseTemplate("Hack Squat", "Legs", "Machine"));
         exercises.add(new ExerciseTemplate("Leg Extension", "Legs", "Machine"));
@@ -78,15 +111,18 @@ public class ExerciseLibrary {
         exercises.add(new ExerciseTemplate("Dumbbell Lunges", "Legs", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Dumbbell Step-ups", "Legs", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Goblet Squat", "Legs", "Dumbbell"));
-        exercises.add(new ExerciseTemplate("Dumbbell RDL", "Legs", "Dumbbell"));
+        exercises.add(new ExerciseTemplate("Dumbbell RDL", "Legs", "Dumbbell", "Back"));
         exercises.add(new ExerciseTemplate("Walking Lunges", "Legs", "Bodyweight"));
         exercises.add(new ExerciseTemplate("Pistol Squats", "Legs", "Bodyweight"));
         exercises.add(new ExerciseTemplate("Jump Squats", "Legs", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Bodyweight Squats", "Legs", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Glute Bridges", "Legs", "Bodyweight", "Core"));
+        exercises.add(new ExerciseTemplate("Burpees", "Legs", "Bodyweight", "Chest", "Shoulders", "Core"));
 
         // Arms Exercises
         exercises.add(new ExerciseTemplate("Barbell Curl", "Arms", "Barbell"));
         exercises.add(new ExerciseTemplate("EZ Bar Curl", "Arms", "Barbell"));
-        exercises.add(new ExerciseTemplate("Close Grip Bench Press", "Arms", "Barbell"));
+        exercises.add(new ExerciseTemplate("Close Grip Bench Press", "Arms", "Barbell", "Chest"));
         exercises.add(new ExerciseTemplate("Skull Crushers", "Arms", "Barbell"));
         exercises.add(new ExerciseTemplate("Dumbbell Curl", "Arms", "Dumbbell"));
         exercises.add(new ExerciseTemplate("Hammer Curl", "Arms", "Dumbbell"));
@@ -98,9 +134,9 @@ public class ExerciseLibrary {
         exercises.add(new ExerciseTemplate("Cable Tricep Pushdown", "Arms", "Cable"));
         exercises.add(new ExerciseTemplate("Cable Overhead Extension", "Arms", "Cable"));
         exercises.add(new ExerciseTemplate("Cable Rope Curl", "Arms", "Cable"));
-        exercises.add(new ExerciseTemplate("Dips", "Arms", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Bench Dips", "Arms", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Close Grip Push-ups", "Arms", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Dips", "Arms", "Bodyweight", "Chest", "Shoulders"));
+        exercises.add(new ExerciseTemplate("Bench Dips", "Arms", "Bodyweight", "Shoulders"));
+        exercises.add(new ExerciseTemplate("Close Grip Push-ups", "Arms", "Bodyweight", "Chest"));
 
         // Core Exercises
         exercises.add(new ExerciseTemplate("Plank", "Core", "Bodyweight"));
@@ -109,15 +145,37 @@ public class ExerciseLibrary {
         exercises.add(new ExerciseTemplate("Bicycle Crunches", "Core", "Bodyweight"));
         exercises.add(new ExerciseTemplate("Leg Raises", "Core", "Bodyweight"));
         exercises.add(new ExerciseTemplate("Hanging Leg Raises", "Core", "Bodyweight"));
-        exercises.add(new ExerciseTemplate("Mountain Climbers", "Core", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Mountain Climbers", "Core", "Bodyweight", "Shoulders"));
         exercises.add(new ExerciseTemplate("Ab Wheel Rollout", "Core", "Bodyweight"));
         exercises.add(new ExerciseTemplate("Cable Crunches", "Core", "Cable"));
         exercises.add(new ExerciseTemplate("Cable Woodchoppers", "Core", "Cable"));
         exercises.add(new ExerciseTemplate("Dumbbell Side Bends", "Core", "Dumbbell"));
+        exercises.add(new ExerciseTemplate("Dead Bug", "Core", "Bodyweight"));
+        exercises.add(new ExerciseTemplate("Superman", "Core", "Bodyweight", "Back"));
 
         return exercises;
     }
 
+    /**
+     * Library entry for an exercise name or preset program alias (case-insensitive), or null
+     * for custom exercises
+     */
+    public static ExerciseTemplate findByName(String name) {
+        if (name == null) return null;
+        Map<String, ExerciseTemplate> index = byName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (ExerciseTemplate exercise : getAllExercises()) {
+                index.put(exercise.getName().toLowerCase(Locale.ROOT), exercise);
+            }
+            for (String[] alias : ALIASES) {
+                index.put(alias[0].toLowerCase(Locale.ROOT), index.get(alias[1].toLowerCase(Locale.ROOT)));
+            }
+            byName = index;
+        }
+        return index.get(name.toLowerCase(Locale.ROOT));
+    }
+
     public static List<String> getMuscleGroups() {
         return Arrays.asList("All", "Chest", "Back", "Shoulders", "Legs", "Arms", "Core");
     }
@@ -0,0 +1,212 @@
+package com.fittrackpro.app.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InstrumentedExecutor is a fixed-size thread pool that records queue depth, queue wait time
+ * and task duration.
+ *
+ * A queue capacity of {@link #UNBOUNDED} never rejects. With a bounded queue, a full queue runs
+ * the task on the submitting thread, which slows producers down instead of dropping work; a
+ * task submitted from the main thread is never run inline but re-submitted on the next frame.
+ */
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+
+    private static final String TAG = "InstrumentedExecutor";
+    private static final long MAIN_THREAD_RETRY_MS = 16;
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public static final int UNBOUNDED = 0;
+
+    private final String name;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    public InstrumentedExecutor(String name, int threads, int queueCapacity, int threadPriority) {
+        super(threads, threads, 30, TimeUnit.SECONDS,
+                queueCapacity == UNBOUNDED ? new LinkedBlockingQueue<>() : new LinkedBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory(name, threadPriority));
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler((task, executor) -> {
+            if (executor.isShutdown()) return;
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                // Never block or run pool work on the UI thread; try again next frame
+                deferred.incrementAndGet();
+                MAIN_HANDLER.postDelayed(() -> resubmit(task), MAIN_THREAD_RETRY_MS);
+                return;
+            }
+            callerRuns.incrementAndGet();
+            Log.w(TAG, name + " queue full, running on " + Thread.currentThread().getName());
+            task.run();
+        });
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        submitted.incrementAndGet();
+        super.execute(new TimedTask(command));
+        updateMax(peakQueueDepth, getQueue().size());
+    }
+
+    /**
+     * Queue an already wrapped task again without counting it as a new submission
+     */
+    private void resubmit(Runnable task) {
+        super.execute(task);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Point-in-time copy of this pool's counters
+     */
+    public Stats getStats() {
+        long done = completed.get();
+        return new Stats(name,
+                getActiveCount(),
+                getQueue().size(),
+                peakQueueDepth.get(),
+                submitted.get(),
+                done,
+                failed.get(),
+                callerRuns.get(),
+                deferred.get(),
+                done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / done),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / done),
+                TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get()));
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) return;
+        }
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) return;
+        }
+    }
+
+    /**
+     * Wraps a task to measure how long it waited in the queue and how long it ran
+     */
+    private class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt = System.nanoTime();
+
+        TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            long wait = startedAt - enqueuedAt;
+            totalWaitNanos.addAndGet(wait);
+            updateMax(maxWaitNanos, wait);
+            try {
+                delegate.run();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                throw e;
+            } finally {
+                long run = System.nanoTime() - startedAt;
+                totalRunNanos.addAndGet(run);
+                updateMax(maxRunNanos, run);
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final int priority;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        NamedThreadFactory(String prefix, int priority) {
+            this.prefix = prefix;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(() -> {
+                Process.setThreadPriority(priority);
+                runnable.run();
+            }, prefix + "-" + count.getAndIncrement());
+        }
+    }
+
+    /**
+     * Snapshot of pool metrics
+     */
+    public static class Stats {
+        public final String name;
+        public final int activeThreads;
+        public final int queueDepth;
+        public final int peakQueueDepth;
+        public final long submitted;
+        public final long completed;
+        public final long failed;
+        public final long callerRuns;
+        public final long deferred;
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+        public final long avgRunMs;
+        public final long maxRunMs;
+
+        Stats(String name, int activeThreads, int queueDepth, int peakQueueDepth, long submitted,
+              long completed, long failed, long callerRuns, long deferred, long avgWaitMs,
+              long maxWaitMs, long avgRunMs, long maxRunMs) {
+            this.name = name;
+            this.activeThreads = activeThreads;
+            this.queueDepth = queueDepth;
+            this.peakQueueDepth = peakQueueDepth;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.callerRuns = callerRuns;
+            this.deferred = deferred;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.avgRunMs = avgRunMs;
+            this.maxRunMs = maxRunMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s active=%d queue=%d peakQueue=%d submitted=%d completed=%d failed=%d callerRuns=%d deferred=%d "
+                            + "wait(avg/max)=%d/%dms run(avg/max)=%d/%dms",
+                    name, activeThreads, queueDepth, peakQueueDepth, submitted, completed, failed,
+                    callerRuns, deferred, avgWaitMs, maxWaitMs, avgRunMs, maxRunMs);
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.fittrackpro.app.util;
 
 import com.fittrackpro.app.data.model.PersonalRecord;
 import com.fittrackpro.app.data.model.WorkoutSet;
+import com.google.firebase.Timestamp;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,73 +16,232 @@ import java.util.Map;
  *
  * Types of PRs:
  * - Weight PR:  Highest weight lifted for an exercise
- * - Rep PR: Most reps at a given weight
+ * - Rep PR: More reps than the standing rep PR at the same or a heavier weight
  * - Volume PR:  Highest single-set volume (weight × reps)
+ * - Rep-max PR: Highest weight for an exact rep count (1-20 reps)
+ * - Estimated 1RM PR: Highest one-rep max estimated from a set of 1-20 reps (Epley or Brzycki)
+ *
+ * Current bests live in an {@link Index} built once per user; a whole session is then
+ * evaluated in one pass without touching the database or the network.
  */
 public class PRDetector {
 
     /**
-     * Detect PRs from a list of workout sets
+     * Detect PRs from a list of workout sets using the default 1RM formula
+     */
+    public static List<PersonalRecord> detectPRs(String userId, List<WorkoutSet> sets, Index index) {
+        return detectPRs(userId, sets, index, Constants.DEFAULT_E1RM_FORMULA);
+    }
+
+    /**
+     * Detect PRs from a list of workout sets.
+     * Later sets are compared against PRs set earlier in the same session, and at most one
+     * record per exercise and type (per rep count for rep-max PRs) is returned.
+     * The index is not modified.
      *
-     * @param sets List of completed workout sets
-     * @param existingRecords Map of exercise name → record type → current best record
+     * @param userId Owner of the new records
+     * @param sets Workout sets of the session
+     * @param index Current bests for the user
+     * @param e1rmFormula {@link Constants#E1RM_FORMULA_EPLEY} or {@link Constants#E1RM_FORMULA_BRZYCKI}
      * @return List of new PRs achieved
      */
-    public static List<PersonalRecord> detectPRs(List<WorkoutSet> sets,
-                                                 Map<String, Map<String, PersonalRecord>> existingRecords) {
-        List<PersonalRecord> newPRs = new ArrayList<>();
+    public static List<PersonalRecord> detectPRs(String userId, List<WorkoutSet> sets, Index index,
+                                                 String e1rmFormula) {
+        Map<String, PersonalRecord> newPRs = new LinkedHashMap<>();
+        Map<String, ExerciseBests> session = new HashMap<>();
 
         for (WorkoutSet set : sets) {
             // Skip non-completed sets
-            if (!set.getStatus().equals("completed") && ! set.getStatus().equals("modified")) {
+            if (!Constants.SET_STATUS_COMPLETED.equals(set.getStatus())
+                    && !Constants.SET_STATUS_MODIFIED.equals(set.getStatus())) {
                 continue;
             }
 
             String exerciseName = set.getExerciseName();
             double weight = set.getWeight();
             int reps = set.getReps();
-            double volume = weight * reps;
 
-            Map<String, PersonalRecord> exerciseRecords = existingRecords.get(exerciseName);
-            if (exerciseRecords == null) {
-                exerciseRecords = new HashMap<>();
+            // Work on a copy so the shared index stays unchanged
+            ExerciseBests bests = session.get(exerciseName);
+            if (bests == null) {
+                ExerciseBests standing = index.exercises.get(exerciseName);
+                bests = standing != null ? standing.copy() : new ExerciseBests();
+                session.put(exerciseName, bests);
             }
 
-            // Check weight PR
-            PersonalRecord weightPR = exerciseRecords.get("weight");
-            if (weightPR == null || weight > weightPR.getValue()) {
-                PersonalRecord newPR = new PersonalRecord();
-                newPR.setExerciseName(exerciseName);
-                newPR.setRecordType("weight");
-                newPR.setValue(weight);
-                newPR.setReps(reps);
-                newPRs.add(newPR);
-            }
+            checkSet(userId, exerciseName, weight, reps, e1rmFormula, Timestamp.now(), bests, newPRs);
+        }
+
+        return new ArrayList<>(newPRs.values());
+    }
+
+    private static void checkSet(String userId, String exerciseName, double weight, int reps, String e1rmFormula,
+                                 Timestamp achievedAt, ExerciseBests bests, Map<String, PersonalRecord> newPRs) {
+        check(userId, exerciseName, Constants.PR_TYPE_WEIGHT, weight, reps, achievedAt, bests, newPRs);
+        check(userId, exerciseName, Constants.PR_TYPE_REPS, weight, reps, achievedAt, bests, newPRs);
+        check(userId, exerciseName, Constants.PR_TYPE_VOLUME, weight * reps, reps, achievedAt, bests, newPRs);
+        check(userId, exerciseName, Constants.PR_TYPE_REP_MAX, weight, reps, achievedAt, bests, newPRs);
+        check(userId, exerciseName, Constants.PR_TYPE_E1RM,
+                estimateOneRepMax(weight, reps, e1rmFormula), reps, achievedAt, bests, newPRs);
+    }
+
+    private static void check(String userId, String exerciseName, String recordType, double value, int reps,
+                              Timestamp achievedAt, ExerciseBests bests, Map<String, PersonalRecord> newPRs) {
+        if (!bests.offer(recordType, value, reps)) return;
+
+        String key = exerciseName + '|' + recordType;
+        if (Constants.PR_TYPE_REP_MAX.equals(recordType)) key += '|' + reps;
+
+        PersonalRecord newPR = new PersonalRecord();
+        newPR.setUserId(userId);
+        newPR.setExerciseName(exerciseName);
+        newPR.setRecordType(recordType);
+        newPR.setValue(value);
+        newPR.setReps(reps);
+        newPR.setAchievedAt(achievedAt);
+        newPRs.put(key, newPR);
+    }
+
+    /**
+     * Estimated one-rep max for a set, or 0 outside the 1-20 rep range the formulas are valid for
+     */
+    public static double estimateOneRepMax(double weight, int reps, String formula) {
+        if (weight <= 0 || reps < 1 || reps > Constants.PR_REP_MAX_RANGE) return 0;
+        if (reps == 1) return weight;
+        if (Constants.E1RM_FORMULA_BRZYCKI.equals(formula)) {
+            return weight * 36.0 / (37 - reps);
+        }
+        return weight * (1 + reps / 30.0);
+    }
+
+    /**
+     * Standing value of one record type
+     */
+    private static class Best {
+        final double value;
+        final int reps;
+
+        Best(double value, int reps) {
+            this.value = value;
+            this.reps = reps;
+        }
+    }
+
+    /**
+     * All standing records of one exercise. Rep-max PRs are a dense array indexed by rep count
+     */
+    private static class ExerciseBests {
+        Best weight;
+        Best reps;
+        Best volume;
+        Best e1rm;
+        final double[] repMax = new double[Constants.PR_REP_MAX_RANGE + 1];
 
-            // Check rep PR (at same weight)
-            PersonalRecord repPR = exerciseRecords. get("reps");
-            if (repPR == null || (weight >= repPR.getValue() && reps > repPR.getReps())) {
-                PersonalRecord newPR = new PersonalRecord();
-                newPR. setExerciseName(exerciseName);
-                newPR. setRecordType("reps");
-                newPR. setValue(weight);
-                newPR.setReps(reps);
-                newPRs. add(newPR);
+        /**
+         * Apply a result; returns true if it set a new record
+         */
+        boolean offer(String recordType, double value, int reps) {
+            switch (recordType) {
+                case Constants.PR_TYPE_WEIGHT:
+                    if (!higher(weight, value)) return false;
+                    weight = new Best(value, reps);
+                    return true;
+                case Constants.PR_TYPE_REPS:
+                    if (reps <= 0 || (this.reps != null && (value < this.reps.value || reps <= this.reps.reps))) {
+                        return false;
+                    }
+                    this.reps = new Best(value, reps);
+                    return true;
+                case Constants.PR_TYPE_VOLUME:
+                    if (!higher(volume, value)) return false;
+                    volume = new Best(value, reps);
+                    return true;
+                case Constants.PR_TYPE_E1RM:
+                    if (!higher(e1rm, value)) return false;
+                    e1rm = new Best(value, reps);
+                    return true;
+                case Constants.PR_TYPE_REP_MAX:
+                    if (reps < 1 || reps > Constants.PR_REP_MAX_RANGE || value <= repMax[reps]) return false;
+                    repMax[reps] = value;
+                    return true;
+                default:
+                    return false;
             }
+        }
+
+        private static boolean higher(Best current, double value) {
+            return value > 0 && (current == null || value > current.value);
+        }
+
+        ExerciseBests copy() {
+            ExerciseBests copy = new ExerciseBests();
+            copy.weight = weight;
+            copy.reps = reps;
+            copy.volume = volume;
+            copy.e1rm = e1rm;
+            System.arraycopy(repMax, 0, copy.repMax, 0, repMax.length);
+            return copy;
+        }
+    }
+
+    /**
+     * Replays the full history of one exercise, oldest set first, keeping the standing record
+     * of each type with the time it was set. Used to rebuild personal_records from history;
+     * not thread-safe, so give each worker its own exercises.
+     */
+    public static class Replay {
+        private final String userId;
+        private final String exerciseName;
+        private final String e1rmFormula;
+        private final ExerciseBests bests = new ExerciseBests();
+        private final Map<String, PersonalRecord> records = new LinkedHashMap<>();
 
-            // Check volume PR
-            PersonalRecord volumePR = exerciseRecords.get("volume");
-            if (volumePR == null || volume > volumePR.getValue()) {
-                PersonalRecord newPR = new PersonalRecord();
-                newPR. setExerciseName(exerciseName);
-                newPR. setRecordType("volume");
-                newPR.setValue(volume);
-                newPR.setReps(reps);
-                newPRs.add(newPR);
+        public Replay(String userId, String exerciseName, String e1rmFormula) {
+            this.userId = userId;
+            this.exerciseName = exerciseName;
+            this.e1rmFormula = e1rmFormula;
+        }
+
+        /**
+         * Apply the next completed set of this exercise
+         */
+        public void add(double weight, int reps, long performedAt) {
+            checkSet(userId, exerciseName, weight, reps, e1rmFormula,
+                    new Timestamp(new Date(performedAt)), bests, records);
+        }
+
+        /**
+         * Standing records after every set so far
+         */
+        public List<PersonalRecord> getRecords() {
+            return new ArrayList<>(records.values());
+        }
+    }
+
+    /**
+     * Current bests of one user, keyed by exercise
+     */
+    public static class Index {
+        private final Map<String, ExerciseBests> exercises = new HashMap<>();
+
+        /**
+         * Add a stored record; it only replaces the standing one if it beats it
+         */
+        public void offer(String exerciseName, String recordType, double value, int reps) {
+            ExerciseBests bests = exercises.get(exerciseName);
+            if (bests == null) {
+                bests = new ExerciseBests();
+                exercises.put(exerciseName, bests);
             }
+            bests.offer(recordType, value, reps);
         }
 
-        return newPRs;
+        /**
+         * Number of exercises with records
+         */
+        public int size() {
+            return exercises.size();
+        }
     }
 
     /**
@@ -96,6 +258,12 @@ public class PRDetector {
             case "volume":
                 return String.format("🎉 New Volume PR: %s - %.1f kg total!",
                         pr.getExerciseName(), pr.getValue());
+            case "repMax":
+                return String.format("🎉 New %dRM: %s - %.1f kg!",
+                        pr.getReps(), pr.getExerciseName(), pr.getValue());
+            case "e1rm":
+                return String.format("🎉 New Estimated 1RM: %s - %.1f kg!",
+                        pr.getExerciseName(), pr.getValue());
             default:
                 return "🎉 New Personal Record!";
         }
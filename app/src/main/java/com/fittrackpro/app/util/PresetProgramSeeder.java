@@ -5,9 +5,11 @@ import android.util.Log;
 import com.fittrackpro.app.data.model.ProgramExercise;
 import com.fittrackpro.app.data.model.WorkoutDay;
 import com.fittrackpro.app.data.model.WorkoutProgram;
+import com.fittrackpro.app.data.repository.ProgramTreeWriter;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +21,8 @@ import java.util.List;
  * - 3 Beginner programs
  * - 3 Intermediate programs  
  * - 3 Advanced programs
+ *
+ * Each program is written as one change set through {@link ProgramTreeWriter}.
  */
 public class PresetProgramSeeder {
     
@@ -32,7 +36,7 @@ public class PresetProgramSeeder {
      * 'isPreset' field in the workoutPrograms collection. Firebase will
      * typically create this automatically on first query.
      */
-    public static void seedPresetPrograms(OnSeedCompleteListener listener) {
+    public static void seedPresetPrograms(ProgramTreeWriter writer, OnSeedCompleteListener listener) {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         
         // Check if already seeded
@@ -48,7 +52,7 @@ public class PresetProgramSeeder {
                 }
                 
                 Log.d(TAG, "Starting preset programs seeding...");
-                seedAllPrograms(db, listener);
+                seedAllPrograms(writer, listener);
             })
             .addOnFailureListener(e -> {
                 Log.e(TAG, "Failed to check existing programs", e);
@@ -56,28 +60,27 @@ public class PresetProgramSeeder {
             });
     }
     
-    private static void seedAllPrograms(FirebaseFirestore db, OnSeedCompleteListener listener) {
-        try {
-            // Seed all programs - these are asynchronous operations
-            // that will complete in the background
-            seedBeginnerPrograms(db);
-            seedIntermediatePrograms(db);
-            seedAdvancedPrograms(db);
-            
-            // Note: The actual Firestore writes are asynchronous and will complete
-            // in the background. The listener is called to indicate seeding has been
-            // initiated. The SharedPreferences flag prevents duplicate seeding attempts.
-            Log.d(TAG, "Initiated seeding of 9 preset programs");
-            listener.onComplete(true, "Seeding initiated for 9 preset programs");
-        } catch (Exception e) {
-            Log.e(TAG, "Error initiating program seeding", e);
-            listener.onComplete(false, "Error: " + e.getMessage());
-        }
+    private static void seedAllPrograms(ProgramTreeWriter writer, OnSeedCompleteListener listener) {
+        List<Task<String>> writes = new ArrayList<>();
+        seedBeginnerPrograms(writer, writes);
+        seedIntermediatePrograms(writer, writes);
+        seedAdvancedPrograms(writer, writes);
+
+        // Completes once every program tree has been committed
+        Tasks.whenAll(writes)
+            .addOnSuccessListener(aVoid -> {
+                Log.d(TAG, "Seeded " + writes.size() + " preset programs");
+                listener.onComplete(true, "Seeded " + writes.size() + " preset programs");
+            })
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Error seeding preset programs", e);
+                listener.onComplete(false, "Error: " + e.getMessage());
+            });
     }
     
     // ==================== BEGINNER PROGRAMS ====================
     
-    private static void seedBeginnerPrograms(FirebaseFirestore db) {
+    private static void seedBeginnerPrograms(ProgramTreeWriter writer, List<Task<String>> writes) {
         // Program 1: Starting Strength
         List<WorkoutDayData> startingStrengthDays = new ArrayList<>();
         
@@ -95,7 +98,7 @@ public class PresetProgramSeeder {
         dayB.add(new ExerciseData("Barbell Row", "Back", "barbell", 3, 5, 5, 180, 3, "Pull to lower chest"));
         startingStrengthDays.add(new WorkoutDayData("day_2", "Workout B", 2, dayB));
         
-        createProgram(db, Constants.PRESET_STARTING_STRENGTH, "Starting Strength",
+        createProgram(writer, writes, Constants.PRESET_STARTING_STRENGTH, "Starting Strength",
                 "Classic beginner program focused on compound lifts. Build foundational strength with progressive overload on the big three lifts.",
                 Constants.DIFFICULTY_BEGINNER, 8, 3, startingStrengthDays);
         
@@ -126,7 +129,7 @@ public class PresetProgramSeeder {
         fbDay3.add(new ExerciseData("Mountain Climbers", "Core", "bodyweight", 3, 20, 20, 60, 4, "10 per side"));
         fullBodyDays.add(new WorkoutDayData("day_3", "Full Body Day 3", 3, fbDay3));
         
-        createProgram(db, Constants.PRESET_FULL_BODY, "Full Body Basics",
+        createProgram(writer, writes, Constants.PRESET_FULL_BODY, "Full Body Basics",
                 "Beginner-friendly full body workout hitting all major muscle groups. Perfect for building a fitness foundation.",
                 Constants.DIFFICULTY_BEGINNER, 6, 3, fullBodyDays);
         
@@ -165,14 +168,14 @@ public class PresetProgramSeeder {
         bwDay4.add(new ExerciseData("Superman", "Core", "bodyweight", 3, 15, 15, 60, 4, "Hold at top"));
         bodyweightDays.add(new WorkoutDayData("day_4", "Core Focus", 4, bwDay4));
         
-        createProgram(db, Constants.PRESET_BODYWEIGHT, "Bodyweight Beginner",
+        createProgram(writer, writes, Constants.PRESET_BODYWEIGHT, "Bodyweight Beginner",
                 "No equipment needed! Build strength using your bodyweight with progressive variations.",
                 Constants.DIFFICULTY_BEGINNER, 4, 4, bodyweightDays);
     }
     
     // ==================== INTERMEDIATE PROGRAMS ====================
     
-    private static void seedIntermediatePrograms(FirebaseFirestore db) {
+    private static void seedIntermediatePrograms(ProgramTreeWriter writer, List<Task<String>> writes) {
         // Program 4: Push Pull Legs (PPL)
         List<WorkoutDayData> pplDays = new ArrayList<>();
         
@@ -208,7 +211,7 @@ public class PresetProgramSeeder {
         pplDays.add(new WorkoutDayData("day_5", "Pull", 5, pull));
         pplDays.add(new WorkoutDayData("day_6", "Legs", 6, legs));
         
-        createProgram(db, Constants.PRESET_PPL, "Push Pull Legs (PPL)",
+        createProgram(writer, writes, Constants.PRESET_PPL, "Push Pull Legs (PPL)",
                 "Popular intermediate split dividing workouts by movement patterns. Increase training volume and frequency.",
                 Constants.DIFFICULTY_INTERMEDIATE, 12, 6, pplDays);
         
@@ -251,7 +254,7 @@ public class PresetProgramSeeder {
         lowerB.add(new ExerciseData("Planks", "Core", "bodyweight", 3, 45, 45, 60, 5, "45 seconds hold"));
         ulDays.add(new WorkoutDayData("day_4", "Lower B", 4, lowerB));
         
-        createProgram(db, Constants.PRESET_UPPER_LOWER, "Upper Lower 4-Day Split",
+        createProgram(writer, writes, Constants.PRESET_UPPER_LOWER, "Upper Lower 4-Day Split",
                 "Efficient 4-day split alternating upper and lower body. Great for strength and muscle building.",
                 Constants.DIFFICULTY_INTERMEDIATE, 10, 4, ulDays);
         
@@ -299,14 +302,14 @@ public class PresetProgramSeeder {
         legsHypertrophy.add(new ExerciseData("Calf Raises", "Legs", "machine", 4, 15, 15, 60, 5, "Full range"));
         phatDays.add(new WorkoutDayData("day_5", "Legs Hypertrophy", 5, legsHypertrophy));
         
-        createProgram(db, Constants.PRESET_PHAT, "PHAT",
+        createProgram(writer, writes, Constants.PRESET_PHAT, "PHAT",
                 "Combines powerlifting and bodybuilding. 2 power days, 3 hypertrophy days per week.",
                 Constants.DIFFICULTY_INTERMEDIATE, 12, 5, phatDays);
     }
     
     // ==================== ADVANCED PROGRAMS ====================
     
-    private static void seedAdvancedPrograms(FirebaseFirestore db) {
+    private static void seedAdvancedPrograms(ProgramTreeWriter writer, List<Task<String>> writes) {
         // Program 7: 5/3/1 Wendler
         List<WorkoutDayData> wendlerDays = new ArrayList<>();
         
@@ -342,7 +345,7 @@ public class PresetProgramSeeder {
         ohpDay.add(new ExerciseData("Bicep Curls", "Arms", "dumbbell", 3, 12, 12, 60, 4, "Arm work"));
         wendlerDays.add(new WorkoutDayData("day_4", "OHP 5/3/1", 4, ohpDay));
         
-        createProgram(db, Constants.PRESET_531_WENDLER, "5/3/1 Wendler",
+        createProgram(writer, writes, Constants.PRESET_531_WENDLER, "5/3/1 Wendler",
                 "Legendary strength program with monthly progression on main lifts. Includes deload weeks.",
                 Constants.DIFFICULTY_ADVANCED, 16, 4, wendlerDays);
         
@@ -381,7 +384,7 @@ public class PresetProgramSeeder {
         gvtPower.add(new ExerciseData("Push Press", "Shoulders", "barbell", 5, 5, 5, 180, 4, "Explosive"));
         gvtDays.add(new WorkoutDayData("day_4", "Full Body Power", 4, gvtPower));
         
-        createProgram(db, Constants.PRESET_GVT, "German Volume Training",
+        createProgram(writer, writes, Constants.PRESET_GVT, "German Volume Training",
                 "High volume program with 10x10 scheme. Extreme muscle growth focus. Not for beginners!",
                 Constants.DIFFICULTY_ADVANCED, 6, 4, gvtDays);
         
@@ -423,7 +426,7 @@ public class PresetProgramSeeder {
         arnoldDays.add(new WorkoutDayData("day_5", "Shoulders/Arms", 5, arnoldShouldersArms));
         arnoldDays.add(new WorkoutDayData("day_6", "Legs", 6, arnoldLegs));
         
-        createProgram(db, Constants.PRESET_ARNOLD, "Arnold Schwarzenegger Split",
+        createProgram(writer, writes, Constants.PRESET_ARNOLD, "Arnold Schwarzenegger Split",
                 "Classic 6-day bodybuilding split used by Arnold. High volume, high frequency for serious lifters.",
                 Constants.DIFFICULTY_ADVANCED, 12, 6, arnoldDays);
     }
@@ -433,10 +436,9 @@ public class PresetProgramSeeder {
     /**
      * Create a program with workout days and exercises.
      */
-    private static void createProgram(FirebaseFirestore db, String programId, String name,
-                                     String description, String difficulty, int durationWeeks,
+    private static void createProgram(ProgramTreeWriter writer, List<Task<String>> writes, String programId,
+                                     String name, String description, String difficulty, int durationWeeks,
                                      int daysPerWeek, List<WorkoutDayData> days) {
-        // Create program document
         WorkoutProgram program = new WorkoutProgram();
         program.setProgramId(programId);
         program.setUserId(null); // Preset programs have no user
@@ -449,65 +451,39 @@ public class PresetProgramSeeder {
         program.setActive(false);
         program.setCreatedAt(Timestamp.now());
         program.setUpdatedAt(Timestamp.now());
-        
-        db.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
-            .document(programId)
-            .set(program)
-            .addOnSuccessListener(aVoid -> {
-                Log.d(TAG, "Created program: " + name);
-                
-                // Create workout days
-                for (WorkoutDayData dayData : days) {
-                    createWorkoutDay(db, programId, dayData);
-                }
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Failed to create program: " + name, e);
-            });
+
+        ProgramTreeWriter.ChangeSet tree = new ProgramTreeWriter.ChangeSet(program);
+        for (WorkoutDayData dayData : days) {
+            addWorkoutDay(tree, dayData);
+        }
+
+        writes.add(writer.write(tree)
+            .addOnSuccessListener(id -> Log.d(TAG, "Created program: " + name))
+            .addOnFailureListener(e -> Log.e(TAG, "Failed to create program: " + name, e)));
     }
     
     /**
-     * Create a workout day with exercises.
+     * Add a workout day with exercises to the change set.
      */
-    private static void createWorkoutDay(FirebaseFirestore db, String programId, WorkoutDayData dayData) {
+    private static void addWorkoutDay(ProgramTreeWriter.ChangeSet tree, WorkoutDayData dayData) {
         WorkoutDay day = new WorkoutDay();
         day.setDayId(dayData.dayId);
-        day.setProgramId(programId);
         day.setDayName(dayData.dayName);
         day.setDayNumber(dayData.dayNumber);
         day.setWarmupEnabled(true);
         day.setCooldownEnabled(true);
-        
-        db.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
-            .document(programId)
-            .collection(Constants.COLLECTION_WORKOUT_DAYS)
-            .document(dayData.dayId)
-            .set(day)
-            .addOnSuccessListener(aVoid -> {
-                Log.d(TAG, "Created day: " + dayData.dayName);
-                
-                // Create exercises
-                for (ExerciseData exData : dayData.exercises) {
-                    createExercise(db, programId, dayData.dayId, exData);
-                }
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Failed to create day: " + dayData.dayName, e);
-            });
+        tree.addDay(day);
+
+        for (ExerciseData exData : dayData.exercises) {
+            addExercise(tree, dayData.dayId, exData);
+        }
     }
     
     /**
-     * Create an exercise.
+     * Add an exercise to the change set.
      */
-    private static void createExercise(FirebaseFirestore db, String programId, String dayId, ExerciseData exData) {
+    private static void addExercise(ProgramTreeWriter.ChangeSet tree, String dayId, ExerciseData exData) {
         ProgramExercise exercise = new ProgramExercise();
-        exercise.setExerciseId(db.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
-                .document(programId)
-                .collection(Constants.COLLECTION_WORKOUT_DAYS)
-                .document(dayId)
-                .collection(Constants.COLLECTION_PROGRAM_EXERCISES)
-                .document().getId());
-        exercise.setDayId(dayId);
         exercise.setExerciseName(exData.name);
         exercise.setMuscleGroup(exData.muscleGroup);
         exercise.setEquipment(exData.equipment);
@@ -517,17 +493,7 @@ public class PresetProgramSeeder {
         exercise.setRestSeconds(exData.restSeconds); // Add rest seconds
         exercise.setOrderIndex(exData.orderIndex);
         exercise.setNotes(exData.notes);
-        
-        db.collection(Constants.COLLECTION_WORKOUT_PROGRAMS)
-            .document(programId)
-            .collection(Constants.COLLECTION_WORKOUT_DAYS)
-            .document(dayId)
-            .collection(Constants.COLLECTION_PROGRAM_EXERCISES)
-            .document(exercise.getExerciseId())
-            .set(exercise)
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Failed to create exercise: " + exData.name, e);
-            });
+        tree.addExercise(dayId, exercise);
     }
     
     // ==================== DATA CLASSES ====================
@@ -0,0 +1,58 @@
+package com.fittrackpro.app.util;
+
+import com.fittrackpro.app.data.model.ProgramExercise;
+import com.fittrackpro.app.data.model.WorkoutDay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProgramTemplateResolver builds the effective days and exercises of a copy-on-write program.
+ *
+ * A program copied from a preset only stores what the user changed. A document whose id
+ * matches a template document replaces it; any other id is an addition. Everything else
+ * is read through from the preset.
+ */
+public class ProgramTemplateResolver {
+
+    /**
+     * Merge template days with the program's own days, ordered by day number
+     */
+    public static List<WorkoutDay> resolveDays(String programId, List<WorkoutDay> templateDays,
+                                               List<WorkoutDay> ownDays) {
+        Map<String, WorkoutDay> merged = new LinkedHashMap<>();
+        for (WorkoutDay day : templateDays) {
+            day.setProgramId(programId);
+            merged.put(day.getDayId(), day);
+        }
+        for (WorkoutDay day : ownDays) {
+            merged.put(day.getDayId(), day);
+        }
+
+        List<WorkoutDay> days = new ArrayList<>(merged.values());
+        Collections.sort(days, (a, b) -> Integer.compare(a.getDayNumber(), b.getDayNumber()));
+        return days;
+    }
+
+    /**
+     * Merge template exercises with the program's own exercises for a day, ordered by index
+     */
+    public static List<ProgramExercise> resolveExercises(String dayId, List<ProgramExercise> templateExercises,
+                                                         List<ProgramExercise> ownExercises) {
+        Map<String, ProgramExercise> merged = new LinkedHashMap<>();
+        for (ProgramExercise exercise : templateExercises) {
+            exercise.setDayId(dayId);
+            merged.put(exercise.getExerciseId(), exercise);
+        }
+        for (ProgramExercise exercise : ownExercises) {
+            merged.put(exercise.getExerciseId(), exercise);
+        }
+
+        List<ProgramExercise> exercises = new ArrayList<>(merged.values());
+        Collections.sort(exercises, (a, b) -> Integer.compare(a.getOrderIndex(), b.getOrderIndex()));
+        return exercises;
+    }
+}
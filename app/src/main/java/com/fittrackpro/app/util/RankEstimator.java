@@ -0,0 +1,38 @@
+package com.fittrackpro.app.util;
+
+/**
+ * RankEstimator approximates a leaderboard rank from a cumulative score histogram.
+ *
+ * The histogram is a set of points (bound, count of users scoring at or above bound),
+ * sorted by bound ascending. The count at the user's score is linearly interpolated
+ * between the surrounding points; that count, including the user, is their rank.
+ */
+public class RankEstimator {
+
+    /**
+     * Estimate rank for a score
+     * @param score user's score
+     * @param bounds histogram bounds, ascending
+     * @param countsAtOrAbove users scoring at or above each bound
+     * @return estimated 1-based rank, or -1 if the histogram is empty
+     */
+    public static int estimateRank(double score, double[] bounds, long[] countsAtOrAbove) {
+        int n = bounds.length;
+        if (n == 0) return -1;
+
+        double estimate;
+        if (score < bounds[0]) {
+            // Everyone counted in the histogram is ahead
+            estimate = countsAtOrAbove[0] + 1;
+        } else if (score >= bounds[n - 1]) {
+            estimate = countsAtOrAbove[n - 1];
+        } else {
+            int i = 0;
+            while (i + 1 < n && bounds[i + 1] <= score) i++;
+            double width = bounds[i + 1] - bounds[i];
+            double fraction = width > 0 ? (score - bounds[i]) / width : 0;
+            estimate = countsAtOrAbove[i] - (countsAtOrAbove[i] - countsAtOrAbove[i + 1]) * fraction;
+        }
+        return (int) Math.max(1, Math.round(estimate));
+    }
+}
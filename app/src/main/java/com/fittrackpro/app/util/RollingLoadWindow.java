@@ -0,0 +1,96 @@
+package com.fittrackpro.app.util;
+
+import java.util.Arrays;
+
+/**
+ * RollingLoadWindow keeps daily training load for the most recent days in a ring buffer
+ * indexed by epoch day, with running 7-day (acute) and 28-day (chronic) sums.
+ *
+ * Adding load or moving to a new day only touches the days that enter or leave the
+ * windows. One extra week is kept so the previous week's ratio is available for the trend.
+ * Not thread-safe.
+ */
+public class RollingLoadWindow {
+
+    public static final int ACUTE_DAYS = 7;
+    public static final int CHRONIC_DAYS = 28;
+    private static final int SPAN_DAYS = CHRONIC_DAYS + ACUTE_DAYS;
+
+    private final double[] days = new double[SPAN_DAYS];
+    private long newestDay = Long.MIN_VALUE;
+    private double acuteSum;
+    private double chronicSum;
+
+    /**
+     * Move the window forward so it ends at the given day, dropping days that fall out
+     */
+    public void advanceTo(long epochDay) {
+        if (newestDay == Long.MIN_VALUE || epochDay - newestDay >= SPAN_DAYS) {
+            Arrays.fill(days, 0);
+            acuteSum = 0;
+            chronicSum = 0;
+            newestDay = epochDay;
+            return;
+        }
+        for (long day = newestDay + 1; day <= epochDay; day++) {
+            acuteSum -= days[slot(day - ACUTE_DAYS)];
+            chronicSum -= days[slot(day - CHRONIC_DAYS)];
+            days[slot(day)] = 0; // Reuses the slot of the day leaving the span
+        }
+        newestDay = Math.max(newestDay, epochDay);
+    }
+
+    /**
+     * Add load on a day; days older than the kept span are ignored
+     */
+    public void add(long epochDay, double load) {
+        if (newestDay == Long.MIN_VALUE || epochDay > newestDay) advanceTo(epochDay);
+        long age = newestDay - epochDay;
+        if (age >= SPAN_DAYS) return;
+
+        days[slot(epochDay)] += load;
+        if (age < ACUTE_DAYS) acuteSum += load;
+        if (age < CHRONIC_DAYS) chronicSum += load;
+    }
+
+    /**
+     * Load over the last 7 days
+     */
+    public double getAcuteLoad() {
+        return Math.max(0, acuteSum);
+    }
+
+    /**
+     * Average weekly load over the last 28 days
+     */
+    public double getChronicLoad() {
+        return Math.max(0, chronicSum) * ACUTE_DAYS / CHRONIC_DAYS;
+    }
+
+    /**
+     * Acute load of the week before the current one
+     */
+    public double getPreviousAcuteLoad() {
+        return sum(ACUTE_DAYS, 2 * ACUTE_DAYS);
+    }
+
+    /**
+     * Chronic load as it was one week ago
+     */
+    public double getPreviousChronicLoad() {
+        return sum(ACUTE_DAYS, SPAN_DAYS) * ACUTE_DAYS / CHRONIC_DAYS;
+    }
+
+    private double sum(int fromAge, int toAge) {
+        if (newestDay == Long.MIN_VALUE) return 0;
+        double total = 0;
+        for (int age = fromAge; age < toAge; age++) {
+            total += days[slot(newestDay - age)];
+        }
+        return total;
+    }
+
+    private static int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) SPAN_DAYS);
+    }
+}
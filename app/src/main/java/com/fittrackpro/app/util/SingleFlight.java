@@ -0,0 +1,99 @@
+package com.fittrackpro.app.util;
+
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SingleFlight coalesces identical Firestore reads that are in flight at the same time.
+ *
+ * The first caller for a key starts the read; later callers get the same Task and
+ * attach their own listeners to it, so one network round trip serves all of them.
+ * The key is removed as soon as the Task completes, so nothing is cached.
+ *
+ * Queries are keyed by {@link Query#equals}, which compares the collection path,
+ * filters, ordering and limit; documents by their path.
+ */
+public final class SingleFlight {
+
+    private static final String TAG = "SingleFlight";
+
+    private static volatile SingleFlight INSTANCE;
+
+    private final Map<Object, Task<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private SingleFlight() {
+    }
+
+    public static SingleFlight getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SingleFlight.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SingleFlight();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Shared get() for a query
+     */
+    public Task<QuerySnapshot> get(Query query) {
+        return run(query, query::get);
+    }
+
+    /**
+     * Shared get() for a single document
+     */
+    public Task<DocumentSnapshot> get(DocumentReference document) {
+        return run(document.getPath(), document::get);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Task<T> run(Object key, TaskFactory<T> factory) {
+        Task<T> existing = (Task<T>) inFlight.get(key);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return existing;
+        }
+
+        misses.incrementAndGet();
+        Task<T> task = factory.create();
+        inFlight.put(key, task);
+        // Direct executor so the key is released before callers' listeners run
+        task.addOnCompleteListener(Runnable::run, completed -> inFlight.remove(key, task));
+        return task;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Write coalescing counters to logcat
+     */
+    public void logStats() {
+        Log.i(TAG, "hits=" + hits.get() + " misses=" + misses.get() + " inFlight=" + inFlight.size());
+    }
+
+    private interface TaskFactory<T> {
+        Task<T> create();
+    }
+}
@@ -4,6 +4,7 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -68,61 +69,71 @@ public class TimeUtils {
     }
 
     /**
-     * Calculate streak from list of workout dates
-     * Returns number of consecutive days with workouts
+     * Days since 1970-01-01 in the device's timezone at that instant.
+     * Integer days make streak arithmetic exact and independent of DST.
      */
-    public static int calculateStreak(java.util.List<Date> workoutDates) {
-        if (workoutDates == null || workoutDates.isEmpty()) {
-            return 0;
-        }
+    public static long localEpochDay(long timeMillis) {
+        long offset = TimeZone.getDefault().getOffset(timeMillis);
+        return Math.floorDiv(timeMillis + offset, TimeUnit.DAYS.toMillis(1));
+    }
 
-        // Sort dates in descending order
-        java.util. Collections.sort(workoutDates, (d1, d2) -> d2.compareTo(d1));
+    /**
+     * Local midnight at the start of the day containing the given time
+     */
+    public static long startOfDay(long timeMillis) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(timeMillis);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis();
+    }
 
-        Calendar today = Calendar.getInstance();
-        today.set(Calendar.HOUR_OF_DAY, 0);
-        today.set(Calendar.MINUTE, 0);
-        today.set(Calendar.SECOND, 0);
-        today.set(Calendar.MILLISECOND, 0);
-
-        Calendar lastWorkout = Calendar.getInstance();
-        lastWorkout.setTime(workoutDates.get(0));
-        lastWorkout.set(Calendar. HOUR_OF_DAY, 0);
-        lastWorkout. set(Calendar.MINUTE, 0);
-        lastWorkout. set(Calendar.SECOND, 0);
-        lastWorkout. set(Calendar.MILLISECOND, 0);
-
-        // If last workout was not today or yesterday, streak is broken
-        long daysBetween = TimeUnit.MILLISECONDS.toDays(
-                today.getTimeInMillis() - lastWorkout.getTimeInMillis()
-        );
-
-        if (daysBetween > 1) {
-            return 0;
-        }
+    /**
+     * Local midnight at the start of the following day (DST-safe)
+     */
+    public static long startOfNextDay(long timeMillis) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(startOfDay(timeMillis));
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        return cal.getTimeInMillis();
+    }
 
-        // Count consecutive days
-        int streak = 0;
-        Calendar current = (Calendar) today.clone();
-
-        for (Date date : workoutDates) {
-            Calendar workoutCal = Calendar.getInstance();
-            workoutCal.setTime(date);
-            workoutCal.set(Calendar. HOUR_OF_DAY, 0);
-            workoutCal.set(Calendar.MINUTE, 0);
-            workoutCal.set(Calendar. SECOND, 0);
-            workoutCal.set(Calendar. MILLISECOND, 0);
-
-            if (workoutCal.equals(current)) {
-                streak++;
-                current.add(Calendar.DAY_OF_MONTH, -1);
-            } else if (workoutCal.before(current)) {
-                // Gap found, streak ends
-                break;
-            }
-        }
+    /**
+     * Local midnight on the first day of the month containing the given time
+     */
+    public static long startOfMonth(long timeMillis) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(startOfDay(timeMillis));
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        return cal.getTimeInMillis();
+    }
 
-        return streak;
+    /**
+     * Local midnight on the Monday starting the ISO week containing the given time
+     */
+    public static long startOfIsoWeek(long timeMillis) {
+        Calendar cal = isoCalendar(startOfDay(timeMillis));
+        cal.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
+        return cal.getTimeInMillis();
+    }
+
+    /**
+     * Start of the ISO week that is the given number of weeks after the one containing the time
+     */
+    public static long addIsoWeeks(long timeMillis, int weeks) {
+        Calendar cal = isoCalendar(startOfIsoWeek(timeMillis));
+        cal.add(Calendar.WEEK_OF_YEAR, weeks);
+        return cal.getTimeInMillis();
+    }
+
+    private static Calendar isoCalendar(long timeMillis) {
+        Calendar cal = Calendar.getInstance();
+        cal.setFirstDayOfWeek(Calendar.MONDAY);
+        cal.setMinimalDaysInFirstWeek(4);
+        cal.setTimeInMillis(timeMillis);
+        return cal;
     }
 
     /**
@@ -136,4 +147,20 @@ public class TimeUtils {
         return today.get(Calendar. YEAR) == cal.get(Calendar.YEAR) &&
                 today.get(Calendar.DAY_OF_YEAR) == cal.get(Calendar.DAY_OF_YEAR);
     }
-}
\ No newline at end of file
+
+    /**
+     * Leaderboard bucket key for a period, in UTC so every user shares the same boundaries.
+     * Weeks are ISO weeks ("2026-W42"), months are "2026-10".
+     */
+    public static String leaderboardPeriodKey(String period, long timeMillis) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"), Locale.US);
+        cal.setFirstDayOfWeek(Calendar.MONDAY);
+        cal.setMinimalDaysInFirstWeek(4);
+        cal.setTimeInMillis(timeMillis);
+
+        if (Constants.LEADERBOARD_PERIOD_WEEK.equals(period)) {
+            return String.format(Locale.US, "%d-W%02d", cal.getWeekYear(), cal.get(Calendar.WEEK_OF_YEAR));
+        }
+        return String.format(Locale.US, "%d-%02d", cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1);
+    }
+}
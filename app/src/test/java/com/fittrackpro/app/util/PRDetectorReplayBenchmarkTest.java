@@ -0,0 +1,119 @@
+package com.fittrackpro.app.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import com.fittrackpro.app.data.model.PersonalRecord;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Replays a synthetic 500k-set history through {@link PRDetector.Replay}, the engine behind
+ * PRRecomputeWorker, checks the rebuilt records against a brute-force scan and prints the
+ * throughput.
+ */
+public class PRDetectorReplayBenchmarkTest {
+
+    private static final int SETS = 500_000;
+    private static final int EXERCISES = 40;
+    private static final String USER_ID = "benchmark-user";
+
+    @Test
+    public void replaysFiveHundredThousandSets() {
+        // Chronological history: a few sets a day, weights slowly trending up with noise
+        Random random = new Random(42);
+        String[] exercise = new String[SETS];
+        double[] weight = new double[SETS];
+        int[] reps = new int[SETS];
+        long[] performedAt = new long[SETS];
+        long time = 1_600_000_000_000L;
+        for (int i = 0; i < SETS; i++) {
+            int e = random.nextInt(EXERCISES);
+            exercise[i] = "Exercise " + e;
+            reps[i] = 1 + random.nextInt(22); // Some sets outside the 1-20 rep-max range
+            weight[i] = Math.round((20 + e + i / 10_000.0 + random.nextGaussian() * 5) * 2) / 2.0;
+            performedAt[i] = time;
+            time += 1 + random.nextInt(60_000);
+        }
+
+        // Warm up the JIT on a separate pass so the timed run measures steady state
+        replay(exercise, weight, reps, performedAt);
+
+        long start = System.nanoTime();
+        Map<String, PRDetector.Replay> replays = replay(exercise, weight, reps, performedAt);
+        long elapsedNanos = System.nanoTime() - start;
+
+        double setsPerSecond = SETS / (elapsedNanos / 1e9);
+        System.out.println(String.format(Locale.US, "Replayed %d sets in %.1f ms (%.0f sets/s)",
+                SETS, elapsedNanos / 1e6, setsPerSecond));
+
+        for (int e = 0; e < EXERCISES; e++) {
+            String name = "Exercise " + e;
+            assertMatchesBruteForce(name, replays.get(name).getRecords(), exercise, weight, reps, performedAt);
+        }
+    }
+
+    private static Map<String, PRDetector.Replay> replay(String[] exercise, double[] weight, int[] reps,
+                                                         long[] performedAt) {
+        Map<String, PRDetector.Replay> replays = new HashMap<>();
+        for (int i = 0; i < SETS; i++) {
+            PRDetector.Replay replay = replays.get(exercise[i]);
+            if (replay == null) {
+                replay = new PRDetector.Replay(USER_ID, exercise[i], Constants.DEFAULT_E1RM_FORMULA);
+                replays.put(exercise[i], replay);
+            }
+            replay.add(weight[i], reps[i], performedAt[i]);
+        }
+        return replays;
+    }
+
+    /**
+     * The standing weight, volume, e1RM and rep-max records must be the first set that reached
+     * the all-time best of each
+     */
+    private static void assertMatchesBruteForce(String name, List<PersonalRecord> records, String[] exercise,
+                                                double[] weight, int[] reps, long[] performedAt) {
+        double bestWeight = 0, bestVolume = 0, bestE1rm = 0;
+        long weightAt = 0, volumeAt = 0, e1rmAt = 0;
+        double[] repMax = new double[Constants.PR_REP_MAX_RANGE + 1];
+        long[] repMaxAt = new long[Constants.PR_REP_MAX_RANGE + 1];
+
+        for (int i = 0; i < SETS; i++) {
+            if (!exercise[i].equals(name)) continue;
+            double e1rm = PRDetector.estimateOneRepMax(weight[i], reps[i], Constants.DEFAULT_E1RM_FORMULA);
+            if (weight[i] > bestWeight) { bestWeight = weight[i]; weightAt = performedAt[i]; }
+            if (weight[i] * reps[i] > bestVolume) { bestVolume = weight[i] * reps[i]; volumeAt = performedAt[i]; }
+            if (e1rm > bestE1rm) { bestE1rm = e1rm; e1rmAt = performedAt[i]; }
+            if (reps[i] <= Constants.PR_REP_MAX_RANGE && weight[i] > repMax[reps[i]]) {
+                repMax[reps[i]] = weight[i];
+                repMaxAt[reps[i]] = performedAt[i];
+            }
+        }
+
+        Map<String, PersonalRecord> byKey = new HashMap<>();
+        for (PersonalRecord record : records) {
+            String key = record.getRecordType();
+            if (Constants.PR_TYPE_REP_MAX.equals(key)) key += record.getReps();
+            byKey.put(key, record);
+        }
+
+        assertRecord(name, byKey.get(Constants.PR_TYPE_WEIGHT), bestWeight, weightAt);
+        assertRecord(name, byKey.get(Constants.PR_TYPE_VOLUME), bestVolume, volumeAt);
+        assertRecord(name, byKey.get(Constants.PR_TYPE_E1RM), bestE1rm, e1rmAt);
+        for (int r = 1; r <= Constants.PR_REP_MAX_RANGE; r++) {
+            assertRecord(name + " " + r + "RM", byKey.get(Constants.PR_TYPE_REP_MAX + r), repMax[r], repMaxAt[r]);
+        }
+    }
+
+    private static void assertRecord(String name, PersonalRecord record, double value, long achievedAt) {
+        assertNotNull(name, record);
+        assertEquals(name, value, record.getValue(), 1e-9);
+        assertEquals(name, achievedAt, record.getAchievedAt().toDate().getTime());
+    }
+}